@@ -0,0 +1,119 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator syntetycznych danych do benchmarków.
+ * Dane są deterministyczne (stałe ziarno), więc wyniki z różnych wersji można porównywać.
+ *
+ * Użycie z linii poleceń (np. do ręcznego testu importu przez REST):
+ *   java -cp ... com.techcorp.employee.benchmark.BenchmarkData csv 100000 employees.csv
+ *   java -cp ... com.techcorp.employee.benchmark.BenchmarkData xml 100000 employees.xml
+ */
+public final class BenchmarkData {
+
+    public static final int COMPANY_COUNT = 50;
+
+    private static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {
+            "Jan", "Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Paweł", "Agnieszka",
+            "Krzysztof", "Ewa", "Michał", "Małgorzata", "Łukasz", "Zofia", "Grzegorz", "Joanna"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Kowalski", "Nowak", "Wiśniewski", "Wójcik", "Kowalczyk", "Kamiński", "Lewandowski",
+            "Zieliński", "Szymański", "Woźniak", "Dąbrowski", "Kozłowski", "Jankowski", "Mazur"
+    };
+
+    private static final String CSV_HEADER = "firstName,lastName,email,company,position,salary";
+
+    private BenchmarkData() {
+    }
+
+    public static String company(int index) {
+        return "Company" + (index % COMPANY_COUNT);
+    }
+
+    public static String email(int index) {
+        return "employee" + index + "@" + company(index).toLowerCase() + ".com";
+    }
+
+    /**
+     * Lista {@code count} pracowników z unikalnymi emailami, równomiernie rozłożonych na firmy.
+     */
+    public static List<Employee> employees(int count) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Position position = Position.values()[random.nextInt(Position.values().length)];
+            employees.add(new Employee(
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    email(i),
+                    company(i),
+                    position,
+                    position.getBaseSalary() + random.nextInt(5000)));
+        }
+        return employees;
+    }
+
+    public static void writeCsv(Path file, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Employee employee : employees(count)) {
+                writer.write(employee.getFirstName() + "," + employee.getLastName() + "," + employee.getEmail() + ","
+                        + employee.getCompany() + "," + employee.getPosition() + "," + employee.getSalary());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static void writeXml(Path file, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            writer.newLine();
+            writer.write("<employees>");
+            writer.newLine();
+            for (Employee employee : employees(count)) {
+                writer.write("    <employee>"
+                        + "<firstName>" + employee.getFirstName() + "</firstName>"
+                        + "<lastName>" + employee.getLastName() + "</lastName>"
+                        + "<email>" + employee.getEmail() + "</email>"
+                        + "<company>" + employee.getCompany() + "</company>"
+                        + "<position>" + employee.getPosition() + "</position>"
+                        + "<salary>" + employee.getSalary() + "</salary>"
+                        + "</employee>");
+                writer.newLine();
+            }
+            writer.write("</employees>");
+            writer.newLine();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("csv") || args[0].equals("xml"))) {
+            System.err.println("Użycie: BenchmarkData <csv|xml> <liczba pracowników> <plik wyjściowy>");
+            System.exit(1);
+        }
+        int count = Integer.parseInt(args[1]);
+        Path file = Path.of(args[2]);
+        if (args[0].equals("csv")) {
+            writeCsv(file, count);
+        } else {
+            writeXml(file, count);
+        }
+        System.out.println("Wygenerowano " + count + " pracowników: " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,118 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.service.EmployeeColumns;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Agregacje na obiektach Employee (strumienie) w porównaniu z kolumnową migawką EmployeeColumns.
+ * Lista pracowników jest w kolejności z EmployeeService (mapa haszująca), a nie w kolejności tworzenia,
+ * więc kolejne obiekty nie leżą obok siebie w pamięci - tak jak w działającej aplikacji.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeColumnsBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private EmployeeService employeeService;
+    private List<Employee> employees;
+    private EmployeeColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employeeService = new EmployeeService();
+        BenchmarkData.employees(size).forEach(employeeService::addEmployee);
+        employees = new ArrayList<>(employeeService.getEmployeesView());
+        columns = employeeService.getColumnarSnapshot();
+    }
+
+    @Benchmark
+    public double averageSalaryStream() {
+        return employees.stream().mapToDouble(Employee::getSalary).average().orElse(0);
+    }
+
+    @Benchmark
+    public double averageSalaryColumns() {
+        return columns.averageSalary();
+    }
+
+    @Benchmark
+    public Optional<Employee> maxSalaryStream() {
+        return employees.stream().max(Comparator.comparing(Employee::getSalary));
+    }
+
+    @Benchmark
+    public double maxSalaryColumns() {
+        return columns.maxSalary();
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByCompanyStream() {
+        return employees.stream()
+                .collect(Collectors.groupingBy(Employee::getCompany, Collectors.averagingDouble(Employee::getSalary)));
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByCompanyColumns() {
+        return columns.averageSalaryByCompany();
+    }
+
+    @Benchmark
+    public Map<Position, Long> countByPositionStream() {
+        return employees.stream()
+                .collect(Collectors.groupingBy(Employee::getPosition, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Position, Long> countByPositionColumns() {
+        return columns.countByPosition();
+    }
+
+    @Benchmark
+    public long countBelowBaseSalaryStream() {
+        return employees.stream()
+                .filter(e -> e.getSalary() < e.getPosition().getBaseSalary())
+                .count();
+    }
+
+    @Benchmark
+    public long countBelowBaseSalaryColumns() {
+        return columns.countBelowBaseSalary();
+    }
+
+    /**
+     * Koszt zbudowania migawki po zmianie danych (płacony raz na serię zapisów).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EmployeeColumns buildColumns() {
+        return EmployeeColumns.of(employees);
+    }
+}
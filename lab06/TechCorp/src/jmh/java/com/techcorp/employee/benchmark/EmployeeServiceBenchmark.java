@@ -0,0 +1,115 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.CompanyStatistics;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarki EmployeeService dla 10k, 100k i 1M pracowników.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private List<Employee> employees;
+    private EmployeeService filledService;
+    private String[] lookupEmails;
+    private int lookupIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = BenchmarkData.employees(size);
+        filledService = new EmployeeService();
+        employees.forEach(filledService::addEmployee);
+
+        // Emaile do wyszukiwania w losowej kolejności, część pisana wielkimi literami
+        List<String> emails = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String email = BenchmarkData.email(i);
+            emails.add(i % 4 == 0 ? email.toUpperCase() : email);
+        }
+        Collections.shuffle(emails, new Random(7));
+        lookupEmails = emails.toArray(String[]::new);
+    }
+
+    /**
+     * Dodanie {@code size} pracowników jeden po drugim do pustego serwisu.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public EmployeeService addEmployee() {
+        EmployeeService service = new EmployeeService();
+        for (Employee employee : employees) {
+            service.addEmployee(employee);
+        }
+        return service;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Employee> findEmployeeByEmail() {
+        String email = lookupEmails[lookupIndex];
+        lookupIndex = lookupIndex + 1 == lookupEmails.length ? 0 : lookupIndex + 1;
+        return filledService.findEmployeeByEmail(email);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, CompanyStatistics> getCompanyStatistics() {
+        return filledService.getCompanyStatistics();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<CompanyStatistics> getCompanyStatisticsForCompany() {
+        return filledService.getCompanyStatistics(BenchmarkData.company(0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> getEmployeesSortedByLastName() {
+        return filledService.getEmployeesSortedByLastName();
+    }
+
+    /**
+     * Nazwiska na "Ko" (Kowalski, Kowalczyk, Kozłowski) - około 3/14 wszystkich pracowników.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Employee> findEmployeesByLastNamePrefix() {
+        return filledService.findEmployeesByLastNamePrefix("Ko");
+    }
+}
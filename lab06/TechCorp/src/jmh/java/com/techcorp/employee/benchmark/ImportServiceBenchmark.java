@@ -0,0 +1,74 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.ImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarki importu CSV (sekwencyjnego i równoległego) oraz XML z wygenerowanych plików.
+ * Każde wywołanie importuje do nowego, pustego EmployeeService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImportServiceBenchmark {
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private Path directory;
+    private Path csvFile;
+    private Path xmlFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("techcorp-jmh-import");
+        csvFile = directory.resolve("employees.csv");
+        xmlFile = directory.resolve("employees.xml");
+        BenchmarkData.writeCsv(csvFile, rows);
+        BenchmarkData.writeXml(xmlFile, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(xmlFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ImportSummary importFromCsv() {
+        return new ImportService(new EmployeeService()).importFromCsv(csvFile.toString());
+    }
+
+    @Benchmark
+    public ImportSummary importFromCsvParallel() {
+        return new ImportService(new EmployeeService()).importFromCsvParallel(csvFile.toString());
+    }
+
+    @Benchmark
+    public ImportSummary importFromXml() {
+        return new ImportService(new EmployeeService()).importFromXml(xmlFile.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.techcorp.employee.benchmark;
+
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.FileStorageService;
+import com.techcorp.employee.service.ReportGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarki generowania raportów CSV i PDF.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportGeneratorServiceBenchmark {
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private Path directory;
+    private ReportGeneratorService reportGeneratorService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("techcorp-jmh-reports");
+        EmployeeService employeeService = new EmployeeService();
+        BenchmarkData.employees(size).forEach(employeeService::addEmployee);
+        FileStorageService fileStorageService = new FileStorageService(
+                directory.resolve("uploads").toString(), directory.resolve("reports").toString());
+        reportGeneratorService = new ReportGeneratorService(employeeService, fileStorageService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] generateAllEmployeesCsvReport() {
+        return reportGeneratorService.generateAllEmployeesCsvReport();
+    }
+
+    @Benchmark
+    public void writeAllEmployeesCsvReport() throws IOException {
+        reportGeneratorService.writeAllEmployeesCsvReport(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Raport PDF jednej firmy (około size / COMPANY_COUNT pracowników w tabeli).
+     */
+    @Benchmark
+    public byte[] generateCompanyStatisticsPdfReport() throws IOException {
+        return reportGeneratorService.generateCompanyStatisticsPdfReport(BenchmarkData.company(0));
+    }
+}
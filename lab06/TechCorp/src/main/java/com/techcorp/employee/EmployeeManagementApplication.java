@@ -1,26 +1,21 @@
 package com.techcorp.employee;
 
-import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.model.Employee;
-import com.techcorp.employee.model.ImportSummary;
-import com.techcorp.employee.service.ApiService;
 import com.techcorp.employee.service.EmployeeService;
-import com.techcorp.employee.service.ImportService;
+import com.techcorp.employee.service.PersistenceService;
+import com.techcorp.employee.service.StartupImportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ImportResource;
-import org.springframework.core.io.ClassPathResource;
 
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @SpringBootApplication
 @ImportResource("classpath:employees-beans.xml")
@@ -34,23 +29,21 @@ public class EmployeeManagementApplication implements CommandLineRunner {
     @Value("${app.reports.directory:reports/}")
     private String reportsDirectory;
 
+    // true - serwer obsługuje żądania od razu, a import z REST API kończy się w tle
+    @Value("${app.import.background:false}")
+    private boolean backgroundImport;
+
     private final EmployeeService employeeService;
-    private final ImportService importService;
-    private final ApiService apiService;
-    private final List<Employee> xmlEmployees;
-    private final String csvFileProperty;
+    private final StartupImportService startupImportService;
+    private final PersistenceService persistenceService;
 
     public EmployeeManagementApplication(
             EmployeeService employeeService,
-            ImportService importService,
-            ApiService apiService,
-            @Qualifier("xmlEmployees") List<Employee> xmlEmployees,
-            @Value("${app.import.csv-file}") String csvFileProperty) {
+            StartupImportService startupImportService,
+            PersistenceService persistenceService) {
         this.employeeService = employeeService;
-        this.importService = importService;
-        this.apiService = apiService;
-        this.xmlEmployees = xmlEmployees;
-        this.csvFileProperty = csvFileProperty;
+        this.startupImportService = startupImportService;
+        this.persistenceService = persistenceService;
     }
 
     public static void main(String[] args) {
@@ -74,69 +67,47 @@ public class EmployeeManagementApplication implements CommandLineRunner {
             log.error("Nie udało się utworzyć katalogów upload/reports: {}", e.getMessage(), e);
         }
 
-        // 1. IMPORT PRACOWNIKÓW Z PLIKU CSV
-        log.info("1. IMPORT PRACOWNIKÓW Z PLIKU CSV");
-        log.info("-".repeat(80));
-
-        ImportSummary csvImportSummary = importCsvFromClasspath();
-
-        log.info("Zaimportowano: {} pracowników", csvImportSummary.getImportedCount());
-        if (!csvImportSummary.getErrors().isEmpty()) {
-            log.warn("Błędy podczas importu:");
-            csvImportSummary.getErrors().forEach(log::warn);
+        if (persistenceService.isImportCompleted()) {
+            log.info("Dane odtworzone z migawki i dziennika - import startowy pominięty");
+            log.info("");
+            startupImportService.markRestored();
+            logStatistics();
+            return;
+        }
+        if (persistenceService.isRecovered()) {
+            log.warn("Poprzedni import startowy nie został ukończony - import zostanie powtórzony na odtworzonych danych");
         }
-        log.info("");
 
-        // 2. DODANIE PRACOWNIKÓW Z BEANA XML
-        log.info("2. DODANIE PRACOWNIKÓW Z KONFIGURACJI XML");
+        // 1-3. IMPORT Z CSV, BEANÓW XML I REST API (pobieranie z API równolegle z importem CSV)
+        log.info("1-3. IMPORT PRACOWNIKÓW Z CSV, KONFIGURACJI XML I REST API");
         log.info("-".repeat(80));
 
-        int xmlImportedCount = 0;
-        int xmlErrorsCount = 0;
-
-        for (Employee employee : xmlEmployees) {
-            try {
-                boolean added = employeeService.addEmployee(employee);
-                if (added) {
-                    xmlImportedCount++;
-                    log.info("Dodano: {} {} ({})", employee.getFirstName(), employee.getLastName(), employee.getEmail());
-                }
-            } catch (DuplicateEmailException | IllegalArgumentException e) {
-                xmlErrorsCount++;
-                log.warn("Błąd dla: " + employee.getEmail() + " - " + e.getMessage());
-            }
+        CompletableFuture<Void> imported = startupImportService.start()
+                .thenRun(this::afterImport)
+                .exceptionally(e -> {
+                    log.error("Błąd po imporcie startowym: {}", e.getMessage(), e);
+                    return null;
+                });
+        if (backgroundImport) {
+            log.info("Import z REST API trwa w tle - stan: GET /api/status/readiness");
+        } else {
+            imported.join();
         }
+    }
 
-        log.info("Podsumowanie importu z XML: Zaimportowano: {} pracowników, Błędy: {}", xmlImportedCount, xmlErrorsCount);
+    // Migawka i znacznik ukończenia importu - kolejny start odtworzy stan bez ponownego importu
+    private void afterImport() {
         log.info("");
-
-        // 3. POBRANIE DANYCH Z REST API
-        log.info("3. POBIERANIE PRACOWNIKÓW Z REST API");
-        log.info("-".repeat(80));
-
         try {
-            List<Employee> apiEmployees = apiService.fetchEmployeesFromApi();
-            int apiImportedCount = 0;
-
-            for (Employee employee : apiEmployees) {
-                try {
-                    boolean added = employeeService.addEmployee(employee);
-                    if (added) {
-                        apiImportedCount++;
-                    }
-                } catch (DuplicateEmailException | IllegalArgumentException e) {
-                    /* duplikat email */
-                    log.warn("Nie dodano pracownika z API: {}", e.getMessage());
-                }
-            }
-
-            log.info("Pobrano z API: {} pracowników", apiEmployees.size());
-            log.info("Dodano do systemu: {} nowych pracowników", apiImportedCount);
+            persistenceService.snapshot();
+            persistenceService.markImportCompleted();
         } catch (Exception e) {
-            log.error("Błąd podczas pobierania danych z API: {}", e.getMessage(), e);
+            log.error("Nie udało się zapisać migawki po imporcie: {}", e.getMessage(), e);
         }
-        log.info("");
+        logStatistics();
+    }
 
+    private void logStatistics() {
         // 4. WYŚWIETLENIE OGÓLNYCH STATYSTYK
         log.info("4. OGÓLNE STATYSTYKI SYSTEMU");
         log.info("-".repeat(80));
@@ -217,30 +188,4 @@ public class EmployeeManagementApplication implements CommandLineRunner {
 
         log.info("!!! Koniec !!!");
     }
-
-    private ImportSummary importCsvFromClasspath() {
-        ClassPathResource resource = new ClassPathResource(csvFileProperty);
-        Path tempFile = null;
-
-        try (InputStream is = resource.getInputStream()) {
-            tempFile = Files.createTempFile("employees-", ".csv");
-            Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
-            log.debug("Przetwarzanie pliku: {}", csvFileProperty);
-            return importService.importFromCsv(tempFile.toString());
-        } catch (Exception e) {
-            log.error("Błąd podczas importu '{}': {}", csvFileProperty, e.getMessage(), e);
-            ImportSummary errorSummary = new ImportSummary();
-            errorSummary.addError(0, "Błąd podczas wczytywania: " + e.getMessage());
-            return errorSummary;
-        } finally {
-            if (tempFile != null) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                } catch (Exception ex) {
-                    log.debug("Nie udało się usunąć pliku tymczasowego", ex);
-                }
-            }
-        }
-    }
 }
-
@@ -1,21 +1,64 @@
 package com.techcorp.employee.config;
 
 import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class AppConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(AppConfig.class);
+
+    /**
+     * Wykonawca dla klienta HTTP i parsowania odpowiedzi API.
+     * Na JDK 21+ (app.api.virtual-threads=true) wątki wirtualne, w przeciwnym razie pula app.api.threads wątków.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService apiExecutor(@Value("${app.api.virtual-threads:true}") boolean virtualThreads,
+                                       @Value("${app.api.threads:4}") int threads) {
+        if (virtualThreads) {
+            try {
+                // JDK 21+: Executors.newVirtualThreadPerTaskExecutor() (wywołanie refleksyjne - kompilacja pod JDK 17)
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("Wątki wirtualne niedostępne (JDK {}) - pula {} wątków dla API",
+                        Runtime.version().feature(), threads);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Współdzielony klient HTTP (pula połączeń HTTP/2 i HTTP/1.1) z limitem czasu nawiązania połączenia.
+     */
     @Bean
-    public HttpClient httpClient() {
-        return HttpClient.newHttpClient();
+    public HttpClient httpClient(@Qualifier("apiExecutor") ExecutorService apiExecutor,
+                                 @Value("${app.api.connect-timeout-ms:5000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(apiExecutor)
+                .build();
     }
 
     @Bean
     public Gson gson() {
         return new Gson();
     }
-}
\ No newline at end of file
+}
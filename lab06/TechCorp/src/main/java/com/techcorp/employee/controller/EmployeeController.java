@@ -5,6 +5,7 @@ import com.techcorp.employee.exception.EmployeeNotFoundException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.service.EmployeeService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +25,9 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final EmployeeService employeeService;
 
     public EmployeeController(EmployeeService employeeService) {
@@ -33,13 +37,23 @@ public class EmployeeController {
     /**
      * GET /api/employees - zwraca listę wszystkich pracowników
      * GET /api/employees?company=X - filtruje pracowników po nazwie firmy
+     * GET /api/employees?limit=N&after=email - stronicowanie kursorem (pracownicy uporządkowani po emailu);
+     *     jeśli istnieje kolejna strona, jej adres zwracany jest w nagłówku Link (rel="next")
      * 
      * @param company opcjonalny parametr filtrujący po nazwie firmy
+     * @param limit opcjonalny rozmiar strony (1 - {@value #MAX_PAGE_SIZE})
+     * @param after opcjonalny kursor - email ostatniego pracownika z poprzedniej strony
      * @return lista pracowników jako EmployeeDTO ze statusem 200 OK
      */
     @GetMapping
     public ResponseEntity<List<EmployeeDTO>> getAllEmployees(
-            @RequestParam(required = false) String company) {
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        
+        if (limit != null || after != null) {
+            return getEmployeesPage(company, limit, after);
+        }
         
         List<Employee> employees;
         
@@ -56,6 +70,40 @@ public class EmployeeController {
         return ResponseEntity.ok(employeeDTOs);
     }
 
+    private ResponseEntity<List<EmployeeDTO>> getEmployeesPage(String company, Integer limit, String after) {
+        if (company != null && !company.isBlank()) {
+            throw new IllegalArgumentException("Pagination is not supported together with the company filter");
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        // Pobieramy o jeden element więcej, żeby wiedzieć, czy istnieje następna strona
+        List<Employee> page = employeeService.getEmployeesPage(after, pageSize + 1);
+        boolean hasNext = page.size() > pageSize;
+        if (hasNext) {
+            page = page.subList(0, pageSize);
+        }
+        
+        List<EmployeeDTO> employeeDTOs = page.stream()
+                .map(EmployeeDTO::fromEmployee)
+                .collect(Collectors.toList());
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext) {
+            // kursor kodowany ściśle (np. "+" w emailu nie może zamienić się w spację)
+            URI next = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .queryParam("limit", pageSize)
+                    .queryParam("after", "{after}")
+                    .encode()
+                    .buildAndExpand(EmployeeService.pageCursor(page.get(page.size() - 1)))
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(employeeDTOs);
+    }
+
     /**
      * GET /api/employees/{email} - zwraca konkretnego pracownika po emailu
      * 
@@ -0,0 +1,247 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.service.FileStorageService.FileValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Wysyłanie zapisanych plików (dokumenty, zdjęcia) z obsługą nagłówków Range i If-Range.
+ *
+ * Pod Tomcatem z włączonym sendfile plik jest przekazywany kontenerowi (atrybuty org.apache.tomcat.sendfile.*,
+ * jądro kopiuje dane prosto do gniazda, bez przechodzenia przez stertę). W pozostałych przypadkach treść jest
+ * kopiowana strumieniowo przez bufor STREAM_BUFFER_BYTES - bez wczytywania całego pliku do pamięci.
+ * Z kilku zakresów obsługiwany jest tylko taki zestaw,
+ * który po scaleniu daje jeden ciągły zakres - w przeciwnym razie wysyłany jest cały plik (200),
+ * na co RFC 9110 pozwala.
+ *
+ * Z walidatorem pliku (ETag, Last-Modified) obsługiwane są też If-None-Match i If-Modified-Since -
+ * checkNotModified wywoływane jest przed załadowaniem pliku, więc odpowiedź 304 nie dotyka dysku.
+ * Klient może przechowywać plik, ale przed użyciem musi go potwierdzić (Cache-Control: private, no-cache).
+ *
+ * Zasoby spoza systemu plików (np. w testach) są zwracane jak dotąd, przez ResponseEntity.
+ */
+final class FileRangeResponder {
+
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int STREAM_BUFFER_BYTES = 8192;
+
+    private FileRangeResponder() {
+    }
+
+    /**
+     * Sprawdza If-None-Match / If-Modified-Since. Przy zgodności ustawia 304 z ETag i Last-Modified.
+     *
+     * @param validator walidator pliku; null - bez żądań warunkowych
+     * @return true, jeśli odpowiedź 304 jest gotowa i nie trzeba ładować pliku
+     */
+    static boolean checkNotModified(FileValidator validator, HttpServletRequest request, HttpServletResponse response) {
+        if (validator == null) {
+            return false;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(validator.etag(), validator.lastModified())) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Wysyła zasób. Dla plików na dysku odpowiedź jest zapisywana bezpośrednio do response
+     * i zwracane jest null (żądanie obsłużone).
+     *
+     * @param disposition wartość nagłówka Content-Disposition
+     * @param validator walidator pliku (ETag, Last-Modified); null - ETag nie jest wysyłany,
+     *                  a Last-Modified pochodzi z pliku
+     */
+    static ResponseEntity<Resource> serve(Resource resource, MediaType contentType, String disposition,
+                                          FileValidator validator,
+                                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!resource.isFile()) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .contentType(contentType);
+            if (validator != null) {
+                builder.eTag(validator.etag()).lastModified(validator.lastModified()).cacheControl(CACHE_CONTROL);
+            }
+            return builder.body(resource);
+        }
+
+        Path file = resource.getFile().toPath();
+        long size = Files.size(file);
+        long lastModified = validator != null ? validator.lastModified() : Files.getLastModifiedTime(file).toMillis();
+        String etag = validator != null ? validator.etag() : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        response.setContentType(contentType.toString());
+
+        long start = 0;
+        long end = size; // bez końca
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            List<long[]> ranges = parseRanges(rangeHeader, size);
+            if (ranges != null && ranges.isEmpty()) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setContentLengthLong(0);
+                return null;
+            }
+            if (ranges != null && ranges.size() == 1) {
+                start = ranges.get(0)[0];
+                end = ranges.get(0)[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+        response.setContentLengthLong(end - start);
+
+        if ("HEAD".equals(request.getMethod()) || end == start) {
+            return null;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat wyśle plik sam, po powrocie z kontrolera
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return null;
+        }
+        // Bez sendfile: zwykłe kopiowanie strumieniem od początku zakresu
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            channel.position(start);
+            InputStream in = Channels.newInputStream(channel);
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+            long remaining = end - start;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break; // plik skrócony w trakcie wysyłania
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        response.flushBuffer();
+        return null;
+    }
+
+    /**
+     * If-Range z datą musi dokładnie odpowiadać Last-Modified (z dokładnością do sekundy),
+     * a z ETagiem - być identycznym silnym ETagiem (słaby nigdy nie pasuje).
+     */
+    static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("W/")) {
+            return false;
+        }
+        if (value.startsWith("\"")) {
+            return value.equals(etag);
+        }
+        try {
+            long seconds = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return seconds == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parsuje nagłówek Range ("bytes=0-99", "bytes=500-", "bytes=-200", listy po przecinku).
+     *
+     * @return zakresy [początek, koniec) po scaleniu nakładających się i sąsiednich; pusta lista,
+     *         gdy żaden zakres nie mieści się w pliku (416); null, gdy nagłówek jest niepoprawny
+     *         i należy go zignorować
+     */
+    static List<long[]> parseRanges(String header, long size) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>();
+        for (String spec : value.substring(6).split(",")) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            try {
+                if (first.isEmpty()) {
+                    // sufiks: ostatnie N bajtów
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix == 0) {
+                        continue;
+                    }
+                    start = Math.max(0, size - suffix);
+                    end = size;
+                } else {
+                    start = Long.parseLong(first);
+                    end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last) + 1;
+                    if (start < 0 || end <= start) {
+                        return null;
+                    }
+                    end = Math.min(end, size);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < size && start < end) {
+                ranges.add(new long[]{start, end});
+            }
+        }
+
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : ranges) {
+            long[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= previous[1]) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+}
@@ -1,14 +1,18 @@
 package com.techcorp.employee.controller;
 
+import com.techcorp.employee.model.ApiIngestionSummary;
 import com.techcorp.employee.model.DocumentType;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmployeeDocument;
 import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.service.ApiIngestionService;
 import com.techcorp.employee.service.DocumentService;
 import com.techcorp.employee.service.EmployeeService;
 import com.techcorp.employee.service.FileStorageService;
 import com.techcorp.employee.service.ImportService;
 import com.techcorp.employee.service.ReportGeneratorService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
@@ -18,9 +22,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -38,17 +45,20 @@ public class FileUploadController {
     private final ReportGeneratorService reportGeneratorService;
     private final DocumentService documentService;
     private final EmployeeService employeeService;
+    private final ApiIngestionService apiIngestionService;
 
     public FileUploadController(FileStorageService fileStorageService, 
                                ImportService importService,
                                ReportGeneratorService reportGeneratorService,
                                DocumentService documentService,
-                               EmployeeService employeeService) {
+                               EmployeeService employeeService,
+                               ApiIngestionService apiIngestionService) {
         this.fileStorageService = fileStorageService;
         this.importService = importService;
         this.reportGeneratorService = reportGeneratorService;
         this.documentService = documentService;
         this.employeeService = employeeService;
+        this.apiIngestionService = apiIngestionService;
     }
 
     /**
@@ -65,37 +75,63 @@ public class FileUploadController {
             // Walidacja pliku
             validateCsvFile(file);
             
-            // Zapisz plik w katalogu uploads
-            String savedFilename = fileStorageService.saveUploadedFile(file);
-            log.info("Plik CSV zapisany jako: {}", savedFilename);
-
-            // Pobierz pełną ścieżkę do zapisanego pliku
-            Path uploadedFilePath = fileStorageService.getUploadLocation().resolve(savedFilename);
-            
-            // Wykonaj import danych
-            ImportSummary summary = importService.importFromCsv(uploadedFilePath.toString());
+            // Import bezpośrednio ze strumienia uploadu - bez kopiowania pliku na dysk
+            ImportSummary summary;
+            try (InputStream in = file.getInputStream()) {
+                summary = importService.importFromCsv(in);
+            }
             
             log.info("Import CSV zakończony. Zaimportowano: {}, Błędy: {}", 
                     summary.getImportedCount(), summary.getErrors().size());
 
             // Zwróć wynik
-            if (summary.getErrors().isEmpty()) {
-                return ResponseEntity.ok(new ImportResponse(
-                    true,
-                    "Import zakończony sukcesem",
-                    summary.getImportedCount(),
-                    0,
-                    summary.getErrors()
-                ));
-            } else {
-                return ResponseEntity.ok(new ImportResponse(
-                    true,
-                    "Import zakończony z błędami",
-                    summary.getImportedCount(),
-                    summary.getErrors().size(),
-                    summary.getErrors()
-                ));
-            }
+            return toImportResponse(summary);
+
+        } catch (IllegalArgumentException e) {
+            log.error("Błąd walidacji pliku CSV: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(
+                "Błąd walidacji pliku",
+                e.getMessage()
+            ));
+        } catch (IOException e) {
+            log.error("Błąd podczas odczytu pliku CSV: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(
+                "Błąd odczytu pliku",
+                "Nie udało się odczytać pliku: " + e.getMessage()
+            ));
+        } catch (Exception e) {
+            log.error("Nieoczekiwany błąd podczas importu CSV: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse(
+                "Błąd importu",
+                "Wystąpił nieoczekiwany błąd: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     Równoległy import dużego pliku CSV - plik jest zapisywany w katalogu uploads,
+     dzielony na fragmenty i parsowany na wielu rdzeniach.
+     POST /api/files/import/csv?parallel=true
+     @param file plik CSV z danymi pracowników
+     @return podsumowanie importu ze szczegółami
+     */
+    @PostMapping(value = "/import/csv", params = "parallel=true")
+    public ResponseEntity<?> importCsvParallel(@RequestParam("file") MultipartFile file) {
+        log.info("Otrzymano żądanie równoległego importu CSV: {}", file.getOriginalFilename());
+
+        try {
+            validateCsvFile(file);
+
+            // Podział na fragmenty wymaga pliku o dostępie swobodnym
+            String savedFilename = fileStorageService.saveUploadedFile(file);
+            Path uploadedFilePath = fileStorageService.getUploadLocation().resolve(savedFilename);
+
+            ImportSummary summary = importService.importFromCsvParallel(uploadedFilePath.toString());
+
+            log.info("Równoległy import CSV zakończony. Zaimportowano: {}, Błędy: {}",
+                    summary.getImportedCount(), summary.getErrors().size());
+
+            return toImportResponse(summary);
 
         } catch (IllegalArgumentException e) {
             log.error("Błąd walidacji pliku CSV: {}", e.getMessage());
@@ -118,6 +154,25 @@ public class FileUploadController {
         }
     }
 
+    private ResponseEntity<ImportResponse> toImportResponse(ImportSummary summary) {
+        if (summary.getErrors().isEmpty()) {
+            return ResponseEntity.ok(new ImportResponse(
+                true,
+                "Import zakończony sukcesem",
+                summary.getImportedCount(),
+                0,
+                summary.getErrors()
+            ));
+        }
+        return ResponseEntity.ok(new ImportResponse(
+            true,
+            "Import zakończony z błędami",
+            summary.getImportedCount(),
+            summary.getErrors().size(),
+            summary.getErrors()
+        ));
+    }
+
     /**
      Endpoint do importu pracowników z pliku XML.
      POST /api/files/import/xml
@@ -185,6 +240,23 @@ public class FileUploadController {
         }
     }
 
+    /**
+     Endpoint do importu pracowników ze źródeł REST API skonfigurowanych w app.api.ingestion.sources.
+     Strony i źródła są pobierane równolegle (najwyżej app.api.ingestion.max-concurrency żądań naraz).
+     POST /api/files/import/api
+     @return podsumowanie importu łącznie i dla każdego źródła (liczba stron, czas, błędy)
+     */
+    @PostMapping("/import/api")
+    public ResponseEntity<ApiIngestionSummary> importFromApi() {
+        log.info("Otrzymano żądanie importu z REST API");
+
+        ApiIngestionSummary summary = apiIngestionService.ingest();
+
+        log.info("Import z REST API zakończony. Zaimportowano: {}, czas: {} ms",
+                summary.getImportedCount(), summary.getElapsedMillis());
+        return ResponseEntity.ok(summary);
+    }
+
     /**
      * Waliduje plik CSV.
      */
@@ -230,10 +302,16 @@ public class FileUploadController {
      @return plik CSV jako zasób do pobrania
      */
     @GetMapping("/export/csv")
-    public ResponseEntity<Resource> exportCsv(@RequestParam(required = false) String company) {
+    public ResponseEntity<Resource> exportCsv(@RequestParam(required = false) String company, WebRequest webRequest) {
         log.info("Generowanie raportu CSV{}",
                 company != null ? " dla firmy: " + company : " - wszyscy pracownicy");
 
+        // Dane się nie zmieniły - 304 bez generowania raportu
+        String etag = reportETag();
+        if (webRequest.checkNotModified(etag, employeeService.getLastModified())) {
+            return null;
+        }
+
         try {
             byte[] csvContent;
             String filename;
@@ -253,6 +331,8 @@ public class FileUploadController {
                            "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.parseMediaType("text/csv"))
                     .contentLength(csvContent.length)
+                    .eTag(etag)
+                    .cacheControl(FileRangeResponder.CACHE_CONTROL)
                     .body(resource);
 
         } catch (Exception e) {
@@ -261,6 +341,49 @@ public class FileUploadController {
         }
     }
 
+    /**
+     Strumieniowy eksport pracowników do CSV - wiersze trafiają bezpośrednio do odpowiedzi
+     (Transfer-Encoding: chunked), bez budowania całego raportu w pamięci.
+     GET /api/files/export/csv?stream=true
+     GET /api/files/export/csv?stream=true&company=TechCorp
+
+     @param company opcjonalna nazwa firmy (null = wszyscy pracownicy)
+     @return strumień CSV do pobrania
+     */
+    @GetMapping(value = "/export/csv", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> exportCsvStream(@RequestParam(required = false) String company,
+                                                                 WebRequest webRequest) {
+        log.info("Strumieniowe generowanie raportu CSV{}",
+                company != null ? " dla firmy: " + company : " - wszyscy pracownicy");
+
+        String etag = reportETag();
+        if (webRequest.checkNotModified(etag, employeeService.getLastModified())) {
+            return null;
+        }
+
+        boolean forCompany = company != null && !company.trim().isEmpty();
+        String filename = forCompany
+                ? "employees_" + company.replaceAll("[^a-zA-Z0-9]", "_") + ".csv"
+                : "employees_all.csv";
+
+        StreamingResponseBody body = out -> {
+            if (forCompany) {
+                reportGeneratorService.writeCompanyCsvReport(company, out);
+            } else {
+                reportGeneratorService.writeAllEmployeesCsvReport(out);
+            }
+        };
+
+        // Brak Content-Length - odpowiedź wysyłana jest w kawałkach
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                       "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .eTag(etag)
+                .cacheControl(FileRangeResponder.CACHE_CONTROL)
+                .body(body);
+    }
+
     /**
      Endpoint do generowania i pobierania raportu PDF ze statystykami firmy.
 
@@ -270,9 +393,15 @@ public class FileUploadController {
      @return plik PDF jako zasób do pobrania
      */
     @GetMapping("/reports/statistics/{companyName}")
-    public ResponseEntity<Resource> getCompanyStatisticsReport(@PathVariable String companyName) {
+    public ResponseEntity<Resource> getCompanyStatisticsReport(@PathVariable String companyName,
+                                                               WebRequest webRequest) {
         log.info("Generowanie raportu PDF ze statystykami dla firmy: {}", companyName);
 
+        String etag = reportETag();
+        if (webRequest.checkNotModified(etag, employeeService.getLastModified())) {
+            return null;
+        }
+
         try {
             byte[] pdfContent = reportGeneratorService.generateCompanyStatisticsPdfReport(companyName);
             String filename = "statistics_" + companyName.replaceAll("[^a-zA-Z0-9]", "_") + ".pdf";
@@ -284,6 +413,8 @@ public class FileUploadController {
                            "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_PDF)
                     .contentLength(pdfContent.length)
+                    .eTag(etag)
+                    .cacheControl(FileRangeResponder.CACHE_CONTROL)
                     .body(resource);
 
         } catch (IllegalArgumentException e) {
@@ -375,6 +506,7 @@ public class FileUploadController {
      Endpoint do pobierania konkretnego dokumentu pracownika.
 
      GET /api/files/documents/{email}/{documentId}
+     Obsługuje Range (206 Partial Content) i If-Range, np. przy wznawianiu pobierania.
 
      @param email email pracownika
      @param documentId ID dokumentu
@@ -383,13 +515,21 @@ public class FileUploadController {
     @GetMapping("/documents/{email}/{documentId}")
     public ResponseEntity<Resource> downloadEmployeeDocument(
             @PathVariable String email,
-            @PathVariable String documentId) {
+            @PathVariable String documentId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         
         log.info("Pobieranie dokumentu {} dla pracownika: {}", documentId, email);
 
         try {
             // Pobierz metadane dokumentu i zweryfikuj czy należy do pracownika
             EmployeeDocument document = documentService.getEmployeeDocument(email, documentId);
+
+            // Klient ma aktualną kopię - 304 bez ładowania pliku
+            FileStorageService.FileValidator validator = documentService.getDocumentValidator(document);
+            if (FileRangeResponder.checkNotModified(validator, request, response)) {
+                return null;
+            }
             
             // Załaduj plik
             Resource resource = documentService.loadDocumentFile(documentId);
@@ -397,11 +537,9 @@ public class FileUploadController {
             // Określ Content-Type na podstawie rozszerzenia pliku
             String contentType = determineContentType(document.getOriginalFileName());
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
+            // Range / If-Range, treść wysyłana bez kopiowania przez stertę
+            return FileRangeResponder.serve(resource, MediaType.parseMediaType(contentType),
+                    "attachment; filename=\"" + document.getOriginalFileName() + "\"", validator, request, response);
 
         } catch (IllegalArgumentException e) {
             log.error("Dokument nie znaleziony: {}", e.getMessage());
@@ -471,17 +609,15 @@ public class FileUploadController {
 
         try {
             // Sprawdź czy pracownik istnieje
-            Employee employee = employeeService.getAllEmployees().stream()
-                    .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                    .findFirst()
+            Employee employee = employeeService.findEmployeeByEmail(email)
                     .orElseThrow(() -> new IllegalArgumentException(
                             "Pracownik o emailu " + email + " nie istnieje"));
 
             // Zapisz zdjęcie
             String photoFileName = fileStorageService.saveEmployeePhoto(email, file);
             
-            // Aktualizuj pole photoFileName w obiekcie pracownika
-            employee.setPhotoFileName(photoFileName);
+            // Aktualizuj pole photoFileName pracownika (przez serwis - zmiana trafia do dziennika)
+            employeeService.updateEmployeePhoto(employee.getEmail(), photoFileName);
             
             log.info("Zdjęcie profilowe zapisane: {} dla pracownika: {}", photoFileName, email);
             
@@ -511,19 +647,20 @@ public class FileUploadController {
      * Endpoint do pobierania zdjęcia profilowego pracownika.
      * 
      * GET /api/files/photos/{email}
+     * Obsługuje Range i If-Range.
      * 
      * @param email email pracownika
      * @return zdjęcie jako zasób z odpowiednim Content-Type
      */
     @GetMapping("/photos/{email}")
-    public ResponseEntity<Resource> getEmployeePhoto(@PathVariable String email) {
+    public ResponseEntity<Resource> getEmployeePhoto(@PathVariable String email,
+                                                     HttpServletRequest request,
+                                                     HttpServletResponse response) {
         log.info("Pobieranie zdjęcia profilowego dla pracownika: {}", email);
 
         try {
             // Sprawdź czy pracownik istnieje i ma zdjęcie
-            Employee employee = employeeService.getAllEmployees().stream()
-                    .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                    .findFirst()
+            Employee employee = employeeService.findEmployeeByEmail(email)
                     .orElseThrow(() -> new IllegalArgumentException(
                             "Pracownik o emailu " + email + " nie istnieje"));
 
@@ -534,6 +671,11 @@ public class FileUploadController {
                 return ResponseEntity.notFound().build();
             }
 
+            FileStorageService.FileValidator validator = fileStorageService.getPhotoValidator(photoFileName);
+            if (FileRangeResponder.checkNotModified(validator, request, response)) {
+                return null;
+            }
+
             // Załaduj zdjęcie
             Resource resource = fileStorageService.loadEmployeePhoto(photoFileName);
 
@@ -542,11 +684,8 @@ public class FileUploadController {
                     ? "image/png" 
                     : "image/jpeg";
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "inline; filename=\"" + photoFileName + "\"")
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
+            return FileRangeResponder.serve(resource, MediaType.parseMediaType(contentType),
+                    "inline; filename=\"" + photoFileName + "\"", validator, request, response);
 
         } catch (IllegalArgumentException e) {
             log.error("Pracownik nie znaleziony: {}", e.getMessage());
@@ -557,6 +696,14 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * ETag raportów generowanych z danych pracowników - wersja danych z EmployeeService.
+     * Słaby, bo kolejne generowanie tego samego raportu nie musi dać identycznych bajtów (np. data w PDF).
+     */
+    private String reportETag() {
+        return "W/\"" + employeeService.getDataVersionTag() + "\"";
+    }
+
     /**
      * Pomocnicza metoda do określania typu MIME na podstawie rozszerzenia pliku.
      */
@@ -0,0 +1,115 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.model.ReportJob;
+import com.techcorp.employee.service.FileStorageService;
+import com.techcorp.employee.service.ReportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Kontroler REST zadań asynchronicznego generowania raportów.
+ * Raport jest zlecany, klient odpytuje stan zadania i po zakończeniu pobiera plik -
+ * wątek żądania HTTP nie czeka na wygenerowanie raportu.
+ */
+@RestController
+@RequestMapping("/api/files/reports/jobs")
+public class ReportJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobController.class);
+
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    /**
+     * POST /api/files/reports/jobs?type=CSV - raport CSV wszystkich pracowników
+     * POST /api/files/reports/jobs?type=CSV&company=TechCorp - raport CSV jednej firmy
+     * POST /api/files/reports/jobs?type=PDF&company=TechCorp - raport PDF ze statystykami firmy
+     *
+     * @return 202 Accepted z zadaniem i nagłówkiem Location (adres stanu zadania);
+     *         identyczne zlecenie w trakcie realizacji zwraca to samo zadanie;
+     *         503 Service Unavailable gdy kolejka zadań jest pełna
+     */
+    @PostMapping
+    public ResponseEntity<ReportJob> submitJob(@RequestParam String type,
+                                               @RequestParam(required = false) String company) {
+        ReportJob job = reportJobService.submit(parseType(type), company);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    // Nieznany typ - 400 (przez IllegalArgumentException), bez rozróżniania wielkości liter
+    private static ReportJob.Type parseType(String type) {
+        try {
+            return ReportJob.Type.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nieznany typ raportu: " + type + ". Dozwolone typy: CSV, PDF");
+        }
+    }
+
+    /**
+     * GET /api/files/reports/jobs/{id} - stan zadania
+     *
+     * @return zadanie lub 404 jeśli nie istnieje (także po upływie czasu przechowywania)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJob> getJob(@PathVariable String id) {
+        return reportJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/files/reports/jobs/{id}/file - plik wyniku zadania
+     * Obsługuje Range i If-Range (ETag to identyfikator zadania - plik wyniku nigdy się nie zmienia).
+     *
+     * @return plik do pobrania; 409 Conflict z zadaniem, jeśli raport nie jest gotowy lub zadanie się nie powiodło;
+     *         404 jeśli zadanie lub plik nie istnieje
+     */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<?> downloadResult(@PathVariable String id,
+                                            HttpServletRequest request,
+                                            HttpServletResponse response) {
+        ReportJob job = reportJobService.getJob(id).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+        }
+
+        FileStorageService.FileValidator validator = new FileStorageService.FileValidator(
+                "\"" + job.getId() + "\"", job.getCompletedAt().toEpochMilli());
+        if (FileRangeResponder.checkNotModified(validator, request, response)) {
+            return null;
+        }
+        try {
+            Resource resource = reportJobService.loadResult(job);
+            MediaType contentType = job.getType() == ReportJob.Type.PDF
+                    ? MediaType.APPLICATION_PDF
+                    : MediaType.parseMediaType("text/csv");
+            return FileRangeResponder.serve(resource, contentType,
+                    "attachment; filename=\"" + job.getDownloadName() + "\"", validator, request, response);
+        } catch (IOException e) {
+            log.error("Nie można odczytać wyniku zadania {}: {}", id, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
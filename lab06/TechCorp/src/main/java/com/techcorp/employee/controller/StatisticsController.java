@@ -63,21 +63,11 @@ public class StatisticsController {
     public ResponseEntity<CompanyStatisticsDTO> getCompanyStatistics(
             @PathVariable String companyName) {
         
-        Map<String, CompanyStatistics> allStats = employeeService.getCompanyStatistics();
-        CompanyStatistics stats = allStats.get(companyName);
+        // Statystyki firmy razem z najwyższym wynagrodzeniem - jedno zapytanie do serwisu
+        CompanyStatistics stats = employeeService.getCompanyStatistics(companyName)
+                .orElseThrow(() -> new EmployeeNotFoundException("Company '" + companyName + "' not found"));
         
-        if (stats == null) {
-            throw new EmployeeNotFoundException("Company '" + companyName + "' not found");
-        }
-        
-        // Pobieramy najwyższe wynagrodzenie w firmie
-        Double highestSalary = employeeService.getHighestSalaryInCompany(companyName);
-        
-        CompanyStatisticsDTO dto = CompanyStatisticsDTO.fromCompanyStatistics(
-            companyName, 
-            stats, 
-            highestSalary
-        );
+        CompanyStatisticsDTO dto = CompanyStatisticsDTO.fromCompanyStatistics(companyName, stats);
         
         return ResponseEntity.ok(dto);
     }
@@ -0,0 +1,41 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.service.StartupImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kontroler REST stanu aplikacji.
+ * Pozwala sprawdzić, czy import danych startowych już się zakończył.
+ */
+@RestController
+@RequestMapping("/api/status")
+public class StatusController {
+
+    private final StartupImportService startupImportService;
+
+    public StatusController(StartupImportService startupImportService) {
+        this.startupImportService = startupImportService;
+    }
+
+    /**
+     * GET /api/status/readiness - stan importu startowego i podsumowania zaimportowanych źródeł
+     *
+     * @return 200 OK gdy import się zakończył, 503 Service Unavailable w trakcie importu
+     */
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> getReadiness() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("state", startupImportService.getState());
+        response.put("sources", startupImportService.getSummaries());
+
+        HttpStatus status = startupImportService.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -41,6 +41,13 @@ public class CompanyStatisticsDTO {
         );
     }
 
+    /**
+     * Konwersja modelu CompanyStatistics do DTO - najwyższe wynagrodzenie brane jest z samych statystyk
+     */
+    public static CompanyStatisticsDTO fromCompanyStatistics(String companyName, CompanyStatistics stats) {
+        return fromCompanyStatistics(companyName, stats, stats.getHighestSalary());
+    }
+
     // Gettery i settery
 
     public String getCompanyName() {
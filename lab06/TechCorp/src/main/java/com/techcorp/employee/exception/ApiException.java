@@ -1,11 +1,32 @@
 package com.techcorp.employee.exception;
 
+/**
+ * Wyjątek rzucany przy błędach komunikacji z zewnętrznym API.
+ * Błąd przejściowy (retryable) - np. przekroczony czas, zerwane połączenie, status 5xx lub 429 -
+ * może zostać ponowiony; pozostałe (4xx, niepoprawny JSON) nie.
+ */
 public class ApiException extends Exception {
+    private final boolean retryable;
+
     public ApiException(String message) {
-        super(message);
+        this(message, false);
     }
 
     public ApiException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    public ApiException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public ApiException(String message, Throwable cause, boolean retryable) {
         super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
     }
 }
@@ -169,6 +169,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
     }
 
+    /**
+     * Obsługuje wyjątek ReportQueueFullException.
+     * @return 503 Service Unavailable gdy kolejka zadań generowania raportów jest pełna
+     */
+    @ExceptionHandler(ReportQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleReportQueueFullException(
+            ReportQueueFullException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+            ex.getMessage(),
+            LocalDateTime.now(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     /**
      * Catch-all handler dla wszystkich nieobsłużonych wyjątków.
      * @return 500 Internal Server Error
@@ -0,0 +1,16 @@
+package com.techcorp.employee.exception;
+
+/**
+ * Wyjątek rzucany gdy kolejka zadań generowania raportów jest pełna.
+ * Zwraca status 503 Service Unavailable.
+ */
+public class ReportQueueFullException extends RuntimeException {
+
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+
+    public ReportQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,100 @@
+package com.techcorp.employee.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Podsumowanie pobierania pracowników z wielu źródeł API - łącznie i osobno dla każdego źródła.
+ */
+public class ApiIngestionSummary {
+    private final List<SourceSummary> sources = new ArrayList<>();
+    private long elapsedMillis;
+
+    public SourceSummary addSource(String url) {
+        SourceSummary source = new SourceSummary(url);
+        sources.add(source);
+        return source;
+    }
+
+    public List<SourceSummary> getSources() {
+        return sources;
+    }
+
+    public int getImportedCount() {
+        return sources.stream().mapToInt(SourceSummary::getImportedCount).sum();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ApiIngestionSummary | " +
+                "importedCount=" + getImportedCount() +
+                ", elapsedMillis=" + elapsedMillis +
+                ", sources=" + sources;
+    }
+
+    public static class SourceSummary {
+        private final String url;
+        private int importedCount; // liczba zaimportowanych pracowników
+        private int pages; // liczba pobranych niepustych stron
+        private long elapsedMillis; // od wysłania pierwszego żądania do scalenia ostatniej strony
+        private final List<String> errors = new ArrayList<>();
+
+        public SourceSummary(String url) {
+            this.url = url;
+        }
+
+        public void importedCount() {
+            this.importedCount++;
+        }
+
+        public void pageFetched() {
+            this.pages++;
+        }
+
+        public void addError(int page, String message) {
+            this.errors.add("Page " + page + ": " + message);
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        public int getPages() {
+            return pages;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public void setElapsedMillis(long elapsedMillis) {
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return "SourceSummary | " +
+                    "url=" + url +
+                    ", importedCount=" + importedCount +
+                    ", pages=" + pages +
+                    ", elapsedMillis=" + elapsedMillis +
+                    ", errors=" + errors;
+        }
+    }
+}
@@ -5,6 +5,7 @@ public class CompanyStatistics {
     private long employeeCount;
     private double averageSalary;
     private String highestPaidEmployee;
+    private double highestSalary;
 
     public CompanyStatistics(long employeeCount, double averageSalary, String highestPaidEmployee) {
         this.employeeCount = employeeCount;
@@ -12,6 +13,12 @@ public class CompanyStatistics {
         this.highestPaidEmployee = highestPaidEmployee;
     }
 
+    // konstruktor z wynagrodzeniem najlepiej opłacanej osoby - wszystkie statystyki firmy w jednym obiekcie
+    public CompanyStatistics(long employeeCount, double averageSalary, String highestPaidEmployee, double highestSalary) {
+        this(employeeCount, averageSalary, highestPaidEmployee);
+        this.highestSalary = highestSalary;
+    }
+
     public long getEmployeeCount() {
         return employeeCount;
     }
@@ -24,11 +31,16 @@ public class CompanyStatistics {
         return highestPaidEmployee;
     }
 
+    public double getHighestSalary() {
+        return highestSalary;
+    }
+
     @Override
     public String toString() {
         return "CompanyStatistics | " +
                 "employeeCount:" + employeeCount +
                 ", averageSalary:" + averageSalary +
-                ", highestPaidEmployee:'" + highestPaidEmployee;
+                ", highestPaidEmployee:'" + highestPaidEmployee +
+                ", highestSalary:" + highestSalary;
     }
 }
@@ -0,0 +1,120 @@
+package com.techcorp.employee.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Zadanie asynchronicznego generowania raportu (CSV lub PDF) - stan odczytywany przez klienta w trakcie odpytywania.
+ * Stan zmienia wyłącznie wątek wykonujący zadanie; pola są volatile, bo odczyt następuje z wątków żądań HTTP.
+ */
+public class ReportJob {
+
+    public enum Type {
+        CSV,    // pracownicy (wszyscy lub jednej firmy)
+        PDF     // statystyki firmy
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final Type type;
+    private final String company;         // null - wszyscy pracownicy (tylko CSV)
+    private final String downloadName;    // nazwa pliku proponowana przy pobieraniu
+    private final Instant createdAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile String fileName;     // nazwa pliku wyniku w katalogu raportów
+    private volatile long size;
+    private volatile String error;
+
+    public ReportJob(Type type, String company, String downloadName) {
+        this.id = UUID.randomUUID().toString();
+        this.type = type;
+        this.company = company;
+        this.downloadName = downloadName;
+        this.createdAt = Instant.now();
+    }
+
+    public void started() {
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    public void completed(String fileName, long size) {
+        this.fileName = fileName;
+        this.size = size;
+        this.completedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        this.completedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        Status current = status;
+        return current == Status.COMPLETED || current == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getCompany() {
+        return company;
+    }
+
+    public String getDownloadName() {
+        return downloadName;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportJob | " +
+                "id=" + id +
+                ", type=" + type +
+                ", company=" + company +
+                ", status=" + status +
+                ", fileName=" + fileName;
+    }
+}
@@ -0,0 +1,320 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Zasady wywołań zewnętrznego API: ponawianie z wykładniczym odstępem i losowym rozrzutem (jitter),
+ * bezpiecznik (circuit breaker) i żądania zabezpieczające (hedging).
+ *
+ * Każdy host (authority adresu URL: nazwa i port) ma osobny bezpiecznik - awaria jednego dostawcy
+ * nie odcina pozostałych źródeł.
+ *
+ * Ponawiane są tylko błędy przejściowe (ApiException.isRetryable()). Odstęp przed próbą n+1 to
+ * min(max-backoff, initial-backoff * 2^(n-1)) pomniejszone o losowo do jitter * 100% tej wartości.
+ * Przy hedge-delay > 0 wywołanie asynchroniczne, które nie skończyło się w tym czasie, dostaje drugie,
+ * równoległe żądanie - wygrywa pierwsza poprawna odpowiedź.
+ *
+ * Każda próba jest logowana (DEBUG) i zliczana w getMetrics().
+ */
+@Component
+public class ApiCallPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiCallPolicy.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final double jitter;
+    private final long hedgeDelayMs;
+    // Bezpieczniki tworzone przy pierwszym wywołaniu danego hosta
+    private final Supplier<CircuitBreaker> circuitBreakerFactory;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public ApiCallPolicy(@Value("${app.api.retry.max-attempts:3}") int maxAttempts,
+                         @Value("${app.api.retry.initial-backoff-ms:200}") long initialBackoffMs,
+                         @Value("${app.api.retry.max-backoff-ms:2000}") long maxBackoffMs,
+                         @Value("${app.api.retry.jitter:0.5}") double jitter,
+                         @Value("${app.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                         @Value("${app.api.circuit-breaker.open-ms:30000}") long openMs,
+                         @Value("${app.api.hedge-delay-ms:0}") long hedgeDelayMs) {
+        this(maxAttempts, initialBackoffMs, maxBackoffMs, jitter, hedgeDelayMs,
+                () -> new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs)));
+    }
+
+    ApiCallPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs, double jitter, long hedgeDelayMs,
+                  Supplier<CircuitBreaker> circuitBreakerFactory) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.jitter = jitter;
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+    }
+
+    /**
+     * Jedna próba, bez bezpiecznika i żądań zabezpieczających.
+     */
+    public static ApiCallPolicy none() {
+        return new ApiCallPolicy(1, 0, 0, 0, 0, () -> new CircuitBreaker(0, Duration.ZERO));
+    }
+
+    /**
+     * Wykonuje wywołanie blokujące z ponawianiem i bezpiecznikiem (bez hedgingu - wymagałby drugiego wątku).
+     */
+    public <T> T execute(String target, BlockingCall<T> call) throws ApiException {
+        calls.incrementAndGet();
+        CircuitBreaker circuitBreaker = circuitBreaker(target);
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw rejectedCall(target);
+            }
+            long start = System.nanoTime();
+            attempts.incrementAndGet();
+            try {
+                T result = call.call();
+                recordAttempt(target, attempt, start, null);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (ApiException e) {
+                recordAttempt(target, attempt, start, e);
+                if (!e.isRetryable()) {
+                    circuitBreaker.onSuccess();
+                    throw e;
+                }
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(backoffMs(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new ApiException("Interrupted while waiting to retry API call", interrupted);
+                }
+            } catch (RuntimeException e) {
+                // Błąd spoza ApiException (np. niepoprawny adres) też rozlicza próbę w bezpieczniku - tak jak w executeAsync;
+                // bez tego nieudane wywołanie próbne zostawiłoby bezpiecznik w HALF_OPEN na zawsze
+                recordAttempt(target, attempt, start, e);
+                if (asApiException(e).isRetryable()) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Wykonuje wywołanie asynchroniczne z ponawianiem, bezpiecznikiem i (przy hedge-delay > 0) hedgingiem.
+     * Future kończy się CompletionException z przyczyną ApiException.
+     */
+    public <T> CompletableFuture<T> executeAsync(String target, Supplier<CompletableFuture<T>> call) {
+        calls.incrementAndGet();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(target, call, 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(String target, Supplier<CompletableFuture<T>> call, int attempt,
+                                  CompletableFuture<T> result) {
+        CircuitBreaker circuitBreaker = circuitBreaker(target);
+        if (!circuitBreaker.tryAcquire()) {
+            result.completeExceptionally(new CompletionException(rejectedCall(target)));
+            return;
+        }
+        hedged(target, call, attempt).whenComplete((value, error) -> {
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                result.complete(value);
+                return;
+            }
+            ApiException failure = asApiException(error);
+            if (!failure.isRetryable()) {
+                circuitBreaker.onSuccess();
+                result.completeExceptionally(new CompletionException(failure));
+                return;
+            }
+            circuitBreaker.onFailure();
+            if (attempt >= maxAttempts) {
+                result.completeExceptionally(new CompletionException(failure));
+                return;
+            }
+            retries.incrementAndGet();
+            CompletableFuture.delayedExecutor(backoffMs(attempt), TimeUnit.MILLISECONDS)
+                    .execute(() -> attemptAsync(target, call, attempt + 1, result));
+        });
+    }
+
+    // Pierwsze żądanie i - jeśli nie skończy się w hedge-delay - drugie, równoległe; wygrywa pierwszy sukces
+    private <T> CompletableFuture<T> hedged(String target, Supplier<CompletableFuture<T>> call, int attempt) {
+        CompletableFuture<T> primary = instrumented(target, call, attempt);
+        if (hedgeDelayMs <= 0) {
+            return primary;
+        }
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        // Wynik ustala pierwszy sukces (albo ostatni błąd); liczniki są aktualizowane przed complete(),
+        // bo complete() od razu budzi wywołującego
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger pending = new AtomicInteger(1);
+        BiConsumer<T, Throwable> primaryDone = (value, error) -> {
+            if (error == null) {
+                if (settled.compareAndSet(false, true)) {
+                    winner.complete(value);
+                }
+            } else if (pending.decrementAndGet() == 0 && settled.compareAndSet(false, true)) {
+                winner.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(primaryDone);
+        CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (settled.get()) {
+                return;
+            }
+            pending.incrementAndGet();
+            hedges.incrementAndGet();
+            instrumented(target, call, attempt).whenComplete((value, error) -> {
+                if (error == null) {
+                    if (settled.compareAndSet(false, true)) {
+                        hedgeWins.incrementAndGet();
+                        winner.complete(value);
+                    }
+                } else if (pending.decrementAndGet() == 0 && settled.compareAndSet(false, true)) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        });
+        return winner;
+    }
+
+    private <T> CompletableFuture<T> instrumented(String target, Supplier<CompletableFuture<T>> call, int attempt) {
+        long start = System.nanoTime();
+        attempts.incrementAndGet();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, error) -> recordAttempt(target, attempt, start, error));
+    }
+
+    private void recordAttempt(String target, int attempt, long start, Throwable error) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (error == null) {
+            log.debug("API {} - próba {}: OK w {} ms", target, attempt, elapsedMs);
+        } else {
+            failedAttempts.incrementAndGet();
+            log.debug("API {} - próba {}: błąd po {} ms: {}", target, attempt, elapsedMs, asApiException(error).getMessage());
+        }
+    }
+
+    private ApiException rejectedCall(String target) {
+        rejected.incrementAndGet();
+        log.debug("API {} - wywołanie odrzucone, bezpiecznik otwarty", target);
+        return new ApiException("Circuit breaker is open for API: " + target);
+    }
+
+    long backoffMs(int attempt) {
+        long base = initialBackoffMs << Math.min(attempt - 1, 30);
+        if (base < 0 || base > maxBackoffMs) {
+            base = maxBackoffMs;
+        }
+        long spread = (long) (base * jitter);
+        return base - (spread > 0 ? ThreadLocalRandom.current().nextLong(spread + 1) : 0);
+    }
+
+    private static ApiException asApiException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ApiException apiException) {
+            return apiException;
+        }
+        boolean retryable = cause instanceof IOException || cause instanceof TimeoutException;
+        return new ApiException("Error communicating with API", cause, retryable);
+    }
+
+    // Bezpiecznik hosta z adresu target; adres bez hosta (np. niepoprawny) ma bezpiecznik dla całego tekstu
+    private CircuitBreaker circuitBreaker(String target) {
+        return circuitBreakers.computeIfAbsent(circuitKey(target), key -> circuitBreakerFactory.get());
+    }
+
+    static String circuitKey(String target) {
+        try {
+            String authority = URI.create(target).getRawAuthority();
+            if (authority != null) {
+                return authority.toLowerCase(Locale.ROOT);
+            }
+        } catch (IllegalArgumentException e) {
+            // niepoprawny adres - klucz to cały tekst
+        }
+        return target;
+    }
+
+    CircuitBreaker.State getCircuitState(String target) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(circuitKey(target));
+        return circuitBreaker != null ? circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Liczniki od startu aplikacji.
+     */
+    public Metrics getMetrics() {
+        return new Metrics(calls.get(), attempts.get(), failedAttempts.get(), retries.get(),
+                hedges.get(), hedgeWins.get(), rejected.get());
+    }
+
+    /**
+     * @param calls      wywołania (jedno wywołanie = wszystkie jego próby)
+     * @param attempts   wysłane żądania, łącznie z ponowieniami i żądaniami zabezpieczającymi
+     * @param retries    ponowienia po błędzie przejściowym
+     * @param hedges     wysłane żądania zabezpieczające
+     * @param hedgeWins  wywołania, w których pierwsze odpowiedziało żądanie zabezpieczające
+     * @param rejected   próby odrzucone przez otwarty bezpiecznik
+     */
+    public record Metrics(long calls, long attempts, long failedAttempts, long retries,
+                          long hedges, long hedgeWins, long rejected) {
+    }
+
+    @FunctionalInterface
+    public interface BlockingCall<T> {
+        T call() throws ApiException;
+    }
+}
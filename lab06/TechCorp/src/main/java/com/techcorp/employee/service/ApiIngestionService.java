@@ -0,0 +1,230 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.ApiIngestionSummary;
+import com.techcorp.employee.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pobieranie pracowników z wielu źródeł API (np. kilku dzierżawców) ze stronicowaniem.
+ *
+ * Żądania stron ze wszystkich źródeł są wysyłane równolegle, ale w locie jest najwyżej max-concurrency
+ * żądań - kolejne wysyłane jest dopiero po scaleniu odpowiedzi na poprzednie, więc w pamięci czeka
+ * co najwyżej max-concurrency stron (backpressure). Źródła obsługiwane są na zmianę (round-robin).
+ *
+ * Liczba stron nie jest znana z góry: strony źródła są pobierane kolejno z wyprzedzeniem, aż przyjdzie
+ * strona krótsza niż page-size (lub pusta); przy page-size=0 każde źródło to jedno żądanie bez stronicowania.
+ * Każda strona jest od razu dodawana do EmployeeService.
+ */
+@Service
+public class ApiIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiIngestionService.class);
+
+    private final EmployeeService employeeService;
+    private final ApiService apiService;
+    private final List<String> sources;
+    private final int pageSize;
+    private final String pageParam;
+    private final String limitParam;
+    private final int maxConcurrency;
+
+    public ApiIngestionService(EmployeeService employeeService,
+                               ApiService apiService,
+                               @Value("${app.api.ingestion.sources:${app.api.url}}") List<String> sources,
+                               @Value("${app.api.ingestion.page-size:0}") int pageSize,
+                               @Value("${app.api.ingestion.page-param:_page}") String pageParam,
+                               @Value("${app.api.ingestion.limit-param:_limit}") String limitParam,
+                               @Value("${app.api.ingestion.max-concurrency:4}") int maxConcurrency) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("Page size cannot be negative");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.employeeService = employeeService;
+        this.apiService = apiService;
+        this.sources = List.copyOf(sources);
+        this.pageSize = pageSize;
+        this.pageParam = pageParam;
+        this.limitParam = limitParam;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Pobiera pracowników ze źródeł skonfigurowanych w app.api.ingestion.sources.
+     */
+    public ApiIngestionSummary ingest() {
+        return ingest(sources);
+    }
+
+    /**
+     * Pobiera pracowników z podanych źródeł i dodaje ich do systemu.
+     * Błąd strony kończy pobieranie danego źródła, pozostałe źródła są pobierane dalej.
+     *
+     * @return podsumowanie łączne i dla każdego źródła (w kolejności podania)
+     */
+    public ApiIngestionSummary ingest(List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one API source is required");
+        }
+        long start = System.nanoTime();
+        ApiIngestionSummary summary = new ApiIngestionSummary();
+        List<SourceState> states = new ArrayList<>();
+        for (String url : urls) {
+            states.add(new SourceState(url, summary.addSource(url)));
+        }
+
+        BlockingQueue<PageResult> completed = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+        int nextSource = 0;
+        try {
+            while (true) {
+                // Uzupełnienie okna żądań do limitu
+                while (inFlight < maxConcurrency) {
+                    int index = findLaunchable(states, nextSource);
+                    if (index < 0) {
+                        break;
+                    }
+                    launch(states.get(index), completed);
+                    inFlight++;
+                    nextSource = (index + 1) % states.size();
+                }
+                if (inFlight == 0) {
+                    break;
+                }
+                PageResult result = completed.take();
+                inFlight--;
+                merge(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (SourceState state : states) {
+                if (!state.done()) {
+                    state.errors.put(state.nextPage, "Ingestion interrupted");
+                    state.finished = true;
+                }
+            }
+        }
+
+        for (SourceState state : states) {
+            state.finish();
+        }
+        summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Pobrano z {} źródeł API: {} pracowników w {} ms",
+                states.size(), summary.getImportedCount(), summary.getElapsedMillis());
+        return summary;
+    }
+
+    private int findLaunchable(List<SourceState> states, int from) {
+        for (int i = 0; i < states.size(); i++) {
+            int index = (from + i) % states.size();
+            SourceState state = states.get(index);
+            if (!state.finished && (pageSize > 0 || state.nextPage == 1)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void launch(SourceState state, BlockingQueue<PageResult> completed) {
+        int page = state.nextPage++;
+        if (page == 1) {
+            state.startNanos = System.nanoTime();
+        }
+        state.inFlight++;
+        apiService.fetchEmployeesAsync(pageUrl(state.url, page))
+                .whenComplete((employees, error) -> completed.add(new PageResult(state, page, employees, error)));
+    }
+
+    private void merge(PageResult result) {
+        SourceState state = result.source;
+        state.inFlight--;
+        state.lastResultNanos = System.nanoTime();
+
+        if (result.error != null) {
+            Throwable cause = result.error instanceof CompletionException && result.error.getCause() != null
+                    ? result.error.getCause() : result.error;
+            state.errors.put(result.page, cause.getMessage());
+            state.finished = true;
+            return;
+        }
+
+        List<Employee> employees = result.employees;
+        if (pageSize == 0 || employees.size() < pageSize) {
+            state.lastPage = Math.min(state.lastPage, result.page);
+            state.finished = true;
+        }
+        if (employees.isEmpty()) {
+            return;
+        }
+        state.summary.pageFetched();
+        boolean[] added = employeeService.addEmployees(employees);
+        for (int i = 0; i < added.length; i++) {
+            if (added[i]) {
+                state.summary.importedCount();
+            } else {
+                state.summary.addError(result.page, "Duplicate email: " + employees.get(i).getEmail());
+            }
+        }
+    }
+
+    private String pageUrl(String url, int page) {
+        if (pageSize == 0) {
+            return url;
+        }
+        return UriComponentsBuilder.fromUriString(url)
+                .replaceQueryParam(pageParam, page)
+                .replaceQueryParam(limitParam, pageSize)
+                .build()
+                .toUriString();
+    }
+
+    private static final class SourceState {
+        final String url;
+        final ApiIngestionSummary.SourceSummary summary;
+        // Błędy stron - zgłaszane na końcu tylko dla stron nie dalszych niż ostatnia strona źródła
+        final Map<Integer, String> errors = new TreeMap<>();
+        int nextPage = 1;
+        int lastPage = Integer.MAX_VALUE;
+        int inFlight;
+        boolean finished;
+        long startNanos;
+        long lastResultNanos;
+
+        SourceState(String url, ApiIngestionSummary.SourceSummary summary) {
+            this.url = url;
+            this.summary = summary;
+        }
+
+        boolean done() {
+            return finished && inFlight == 0;
+        }
+
+        void finish() {
+            errors.forEach((page, message) -> {
+                if (page <= lastPage) {
+                    summary.addError(page, message);
+                }
+            });
+            if (lastResultNanos > startNanos) {
+                summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(lastResultNanos - startNanos));
+            }
+        }
+    }
+
+    private record PageResult(SourceState source, int page, List<Employee> employees, Throwable error) {
+    }
+}
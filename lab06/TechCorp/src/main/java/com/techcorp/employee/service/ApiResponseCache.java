@@ -0,0 +1,156 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pamięć podręczna odpowiedzi API dla żądań warunkowych (ETag / Last-Modified).
+ *
+ * Przechowuje walidatory i już sparsowaną listę pracowników dla każdego adresu. Opcjonalnie zapisuje
+ * wpisy na dysk (jeden plik JSON na adres, nazwa = SHA-256 adresu), żeby po restarcie pierwsze
+ * żądanie też mogło skończyć się odpowiedzią 304.
+ */
+final class ApiResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiResponseCache.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Path directory; // null - tylko w pamięci
+    private final Gson gson = new Gson();
+
+    ApiResponseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Wpis dla adresu - z pamięci, a jeśli go tam nie ma, z dysku.
+     */
+    Optional<Entry> get(String url) {
+        Entry entry = entries.get(url);
+        if (entry == null && directory != null) {
+            entry = load(url);
+            if (entry != null) {
+                entries.putIfAbsent(url, entry);
+            }
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Zapamiętuje odpowiedź; bez żadnego walidatora nie da się jej potem potwierdzić, więc jest pomijana.
+     */
+    void put(String url, String etag, String lastModified, List<Employee> employees) {
+        if (etag == null && lastModified == null) {
+            entries.remove(url);
+            return;
+        }
+        Entry entry = new Entry(etag, lastModified, List.copyOf(employees));
+        entries.put(url, entry);
+        if (directory != null) {
+            store(url, entry);
+        }
+    }
+
+    private Entry load(String url) {
+        Path file = fileFor(url);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            StoredEntry stored = gson.fromJson(reader, StoredEntry.class);
+            if (stored == null || !url.equals(stored.url) || stored.employees == null) {
+                return null;
+            }
+            List<Employee> employees = new ArrayList<>(stored.employees.size());
+            for (StoredEmployee employee : stored.employees) {
+                employees.add(new Employee(employee.firstName, employee.lastName, employee.email,
+                        employee.company, employee.position, employee.salary));
+            }
+            return new Entry(stored.etag, stored.lastModified, List.copyOf(employees));
+        } catch (Exception e) {
+            log.warn("Pominięto uszkodzony plik pamięci podręcznej API {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String url, Entry entry) {
+        StoredEntry stored = new StoredEntry();
+        stored.url = url;
+        stored.etag = entry.etag();
+        stored.lastModified = entry.lastModified();
+        stored.employees = new ArrayList<>(entry.employees().size());
+        for (Employee employee : entry.employees()) {
+            StoredEmployee e = new StoredEmployee();
+            e.firstName = employee.getFirstName();
+            e.lastName = employee.getLastName();
+            e.email = employee.getEmail();
+            e.company = employee.getCompany();
+            e.position = employee.getPosition();
+            e.salary = employee.getSalary();
+            stored.employees.add(e);
+        }
+        Path file = fileFor(url);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "api-cache-", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(stored, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // pamięć podręczna na dysku jest tylko optymalizacją
+            log.warn("Nie udało się zapisać pamięci podręcznej API {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Walidatory odpowiedzi i sparsowani pracownicy (lista niemodyfikowalna, obiekty współdzielone -
+     * przed wydaniem na zewnątrz trzeba je skopiować).
+     */
+    record Entry(String etag, String lastModified, List<Employee> employees) {
+    }
+
+    private static final class StoredEntry {
+        String url;
+        String etag;
+        String lastModified;
+        List<StoredEmployee> employees;
+    }
+
+    private static final class StoredEmployee {
+        String firstName;
+        String lastName;
+        String email;
+        String company;
+        Position position;
+        double salary;
+    }
+}
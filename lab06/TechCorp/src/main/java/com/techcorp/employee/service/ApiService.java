@@ -1,81 +1,255 @@
 package com.techcorp.employee.service;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.techcorp.employee.exception.ApiException;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.Position;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.google.gson.Gson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ApiService {
+    private static final long DEFAULT_READ_TIMEOUT_MS = 10_000;
+    // Znacznik "odpowiedź już porzucona" dla fetchEmployeesFromApiAsync
+    private static final InputStream ABANDONED = InputStream.nullInputStream();
+
     private final String apiUrl;
     private final HttpClient httpClient;
     private final Gson gson;
+    private final Executor executor;
+    private final Duration readTimeout;
+    private final ApiResponseCache cache; // null - bez żądań warunkowych
+    private final ApiCallPolicy callPolicy;
 
+    @Autowired
     public ApiService(@Value("${app.api.url}") String apiUrl,
                       HttpClient httpClient,
-                      Gson gson) {
+                      Gson gson,
+                      @Qualifier("apiExecutor") Executor executor,
+                      @Value("${app.api.read-timeout-ms:10000}") long readTimeoutMs,
+                      @Value("${app.api.cache.enabled:true}") boolean cacheEnabled,
+                      @Value("${app.api.cache.directory:}") String cacheDirectory,
+                      ApiCallPolicy callPolicy) {
         this.apiUrl = apiUrl;
         this.httpClient = httpClient;
         this.gson = gson;
+        this.executor = executor;
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.cache = cacheEnabled
+                ? new ApiResponseCache(cacheDirectory == null || cacheDirectory.isBlank() ? null : Path.of(cacheDirectory))
+                : null;
+        this.callPolicy = callPolicy;
+    }
+
+    public ApiService(String apiUrl, HttpClient httpClient, Gson gson, Executor executor, long readTimeoutMs) {
+        this(apiUrl, httpClient, gson, executor, readTimeoutMs, true, null, ApiCallPolicy.none());
     }
 
+    public ApiService(String apiUrl, HttpClient httpClient, Gson gson) {
+        this(apiUrl, httpClient, gson, ForkJoinPool.commonPool(), DEFAULT_READ_TIMEOUT_MS);
+    }
+
+    /**
+     * Pobranie pracowników z API; błędy przejściowe są ponawiane zgodnie z ApiCallPolicy.
+     */
     public List<Employee> fetchEmployeesFromApi() throws ApiException {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .GET()
-                    .build();
+        return callPolicy.execute(apiUrl, this::fetchOnce);
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString()); //status, body, headers
+    private List<Employee> fetchOnce() throws ApiException {
+        try {
+            Optional<ApiResponseCache.Entry> cached = cachedEntry(apiUrl);
+            HttpResponse<String> response = httpClient.send(buildRequest(apiUrl, cached), HttpResponse.BodyHandlers.ofString()); //status, body, headers
 
-            if (response.statusCode() != 200) {
-                throw new ApiException("API request failed with status code: " + response.statusCode());
+            // 304 Not Modified - dane się nie zmieniły, bez pobierania i parsowania treści
+            int status = response.statusCode();
+            if (status == 304 && cached.isPresent()) {
+                return copies(cached.get().employees());
+            }
+            if (status != 200) {
+                throw statusError(status);
             }
 
-            return parseApiResponse(response.body());
-        } catch (IOException | InterruptedException e) {
+            List<Employee> employees = parseApiResponse(response.body());
+            remember(apiUrl, response, employees);
+            return employees;
+        } catch (IOException e) {
+            throw new ApiException("Error communicating with API", e, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new ApiException("Error communicating with API", e);
         }
     }
 
-    private List<Employee> parseApiResponse(String jsonResponse) throws ApiException {
+    /**
+     * Asynchroniczne pobranie pracowników z API.
+     *
+     * Treść odpowiedzi jest czytana jako strumień i parsowana JsonReaderem bezpośrednio do obiektów Employee
+     * (bez budowania całego Stringa i drzewa JsonArray) na wykonawcy apiExecutor.
+     * Cała odpowiedź (nagłówki i treść) musi dotrzeć w czasie app.api.read-timeout-ms -
+     * po jego przekroczeniu strumień jest zamykany, a future kończy się wyjątkiem.
+     * Jak w wersji synchronicznej, przy zapamiętanym ETag / Last-Modified wysyłane jest żądanie warunkowe,
+     * a odpowiedź 304 zwraca poprzednio sparsowaną listę.
+     * Ponawianie, bezpiecznik i żądania zabezpieczające (hedging) - według ApiCallPolicy.
+     *
+     * @return future z listą pracowników; przy błędzie kończy się CompletionException z przyczyną ApiException
+     */
+    public CompletableFuture<List<Employee>> fetchEmployeesFromApiAsync() {
+        return fetchEmployeesAsync(apiUrl);
+    }
+
+    /**
+     * Jak fetchEmployeesFromApiAsync(), ale dla podanego adresu (np. kolejnej strony lub innego źródła).
+     */
+    public CompletableFuture<List<Employee>> fetchEmployeesAsync(String url) {
         try {
-            List<Employee> employees = new ArrayList<>();
-            JsonArray jsonArray = gson.fromJson(jsonResponse, JsonArray.class);
+            URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new ApiException("Invalid API URL: " + url, e));
+        }
+        return callPolicy.executeAsync(url, () -> fetchOnceAsync(url));
+    }
 
-            for (JsonElement element : jsonArray) {
-                JsonObject userObject = element.getAsJsonObject();
+    private CompletableFuture<List<Employee>> fetchOnceAsync(String url) {
+        Optional<ApiResponseCache.Entry> cached = cachedEntry(url);
+        HttpRequest request = buildRequest(url, cached);
+        AtomicReference<InputStream> openBody = new AtomicReference<>();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    InputStream body = response.body();
+                    if (!openBody.compareAndSet(null, body)) {
+                        closeQuietly(body);
+                        throw new CompletionException(new TimeoutException("Response abandoned after timeout"));
+                    }
+                    try (body) {
+                        int status = response.statusCode();
+                        if (status == 304 && cached.isPresent()) {
+                            return copies(cached.get().employees());
+                        }
+                        if (status != 200) {
+                            throw statusError(status);
+                        }
+                        List<Employee> employees = parseApiResponse(new InputStreamReader(body, StandardCharsets.UTF_8));
+                        remember(url, response, employees);
+                        return employees;
+                    } catch (ApiException e) {
+                        throw new CompletionException(e);
+                    } catch (IOException e) {
+                        throw new CompletionException(new ApiException("Error communicating with API", e, true));
+                    }
+                }, executor)
+                .orTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((employees, error) -> {
+                    if (error == null) {
+                        return employees;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        // przerywa parsowanie zablokowane na czytaniu treści
+                        closeQuietly(openBody.getAndSet(ABANDONED));
+                        throw new CompletionException(new ApiException("API request timed out after " + readTimeout, cause, true));
+                    }
+                    if (cause instanceof ApiException) {
+                        throw new CompletionException(cause);
+                    }
+                    throw new CompletionException(new ApiException("Error communicating with API", cause,
+                            cause instanceof IOException));
+                });
+    }
 
-                // Bierzemy name i dzielimy na firstName i lastName
-                String fullName = userObject.get("name").getAsString();
-                String[] nameParts = fullName.split(" ", 2);
-                String firstName = nameParts[0];
-                String lastName = nameParts.length > 1 ? nameParts[1] : "";
+    // 5xx i 429 (Too Many Requests) to błędy przejściowe - warto ponowić
+    private static ApiException statusError(int status) {
+        return new ApiException("API request failed with status code: " + status, status >= 500 || status == 429);
+    }
+
+    private HttpRequest buildRequest(String url, Optional<ApiResponseCache.Entry> cached) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(readTimeout)
+                .GET();
+        cached.ifPresent(entry -> {
+            if (entry.etag() != null) {
+                builder.header("If-None-Match", entry.etag());
+            }
+            if (entry.lastModified() != null) {
+                builder.header("If-Modified-Since", entry.lastModified());
+            }
+        });
+        return builder.build();
+    }
 
-                // Bierzemy email
-                String email = userObject.get("email").getAsString();
+    private Optional<ApiResponseCache.Entry> cachedEntry(String url) {
+        return cache == null ? Optional.empty() : cache.get(url);
+    }
 
-                // Bierzemy company name
-                String company = userObject.getAsJsonObject("company").get("name").getAsString();
+    // Zapamiętuje walidatory odpowiedzi 200 razem z kopią sparsowanej listy
+    private void remember(String url, HttpResponse<?> response, List<Employee> employees) {
+        if (cache == null) {
+            return;
+        }
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        cache.put(url, etag, lastModified, copies(employees));
+    }
 
-                // Przypisanie wszystkim użytkownikom z API stanowiska programista + bazową stawkę
-                Position position = Position.DEVELOPER;
-                double salary = position.getBaseSalary();
+    // Pracownicy są modyfikowalni i trafiają do EmployeeService, więc pamięć podręczna i wywołujący mają osobne kopie
+    private static List<Employee> copies(List<Employee> employees) {
+        List<Employee> copies = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            copies.add(new Employee(employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                    employee.getCompany(), employee.getPosition(), employee.getSalary()));
+        }
+        return copies;
+    }
 
-                employees.add(new Employee(firstName, lastName, email, company, position, salary));
+    private List<Employee> parseApiResponse(String jsonResponse) throws ApiException {
+        if (jsonResponse == null) {
+            throw new ApiException("Error parsing API response: empty body");
+        }
+        return parseApiResponse(new StringReader(jsonResponse));
+    }
+
+    private List<Employee> parseApiResponse(Reader source) throws ApiException {
+        try {
+            List<Employee> employees = new ArrayList<>();
+            JsonReader reader = gson.newJsonReader(source);
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                employees.add(readEmployee(reader));
+            }
+            reader.endArray();
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new IllegalStateException("Unexpected content after JSON array");
             }
 
             return employees;
@@ -83,4 +257,62 @@ public class ApiService {
             throw new ApiException("Error parsing API response", e);
         }
     }
+
+    // Czyta jeden obiekt użytkownika; pola inne niż name, email i company.name są pomijane
+    private Employee readEmployee(JsonReader reader) throws IOException {
+        String fullName = null;
+        String email = null;
+        String company = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> fullName = reader.nextString();
+                case "email" -> email = reader.nextString();
+                case "company" -> company = readCompanyName(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (fullName == null || email == null || company == null) {
+            throw new IllegalStateException("Missing name, email or company.name at " + reader.getPath());
+        }
+
+        // Bierzemy name i dzielimy na firstName i lastName
+        String[] nameParts = fullName.split(" ", 2);
+        String firstName = nameParts[0];
+        String lastName = nameParts.length > 1 ? nameParts[1] : "";
+
+        // Przypisanie wszystkim użytkownikom z API stanowiska programista + bazową stawkę
+        Position position = Position.DEVELOPER;
+        double salary = position.getBaseSalary();
+
+        return new Employee(firstName, lastName, email, company, position, salary);
+    }
+
+    private String readCompanyName(JsonReader reader) throws IOException {
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("name".equals(reader.nextName())) {
+                name = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return name;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // strumień i tak jest porzucany
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package com.techcorp.employee.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Bezpiecznik dla wywołań zewnętrznego API.
+ *
+ * CLOSED - wywołania przechodzą; po failureThreshold kolejnych błędów przechodzi w OPEN.
+ * OPEN - wywołania są od razu odrzucane; po openDuration przepuszczane jest jedno wywołanie próbne (HALF_OPEN).
+ * HALF_OPEN - sukces próby zamyka bezpiecznik, błąd otwiera go ponownie.
+ * failureThreshold == 0 wyłącza bezpiecznik.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold < 0) {
+            throw new IllegalArgumentException("Failure threshold cannot be negative");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Czy wywołanie może przejść. W stanie OPEN po upływie openDuration przepuszcza dokładnie jedno wywołanie próbne.
+     */
+    synchronized boolean tryAcquire() {
+        if (failureThreshold == 0) {
+            return true;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (clock.getAsLong() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    yield true;
+                }
+                yield false;
+            }
+            // próba już trwa
+            case HALF_OPEN -> false;
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        if (failureThreshold == 0) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
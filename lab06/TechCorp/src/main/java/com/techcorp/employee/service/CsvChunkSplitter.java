@@ -0,0 +1,126 @@
+package com.techcorp.employee.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Podział pliku CSV (UTF-8) na zakresy bajtów do równoległego parsowania.
+ * Granice zakresów wypadają zawsze tuż po znaku nowej linii kończącym rekord - skaner
+ * śledzi pola w cudzysłowach tak samo jak {@link CsvRecordReader}, więc nowa linia
+ * wewnątrz pola w cudzysłowie nigdy nie rozdziela rekordu.
+ */
+final class CsvChunkSplitter {
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    record Chunk(long start, long end) {
+    }
+
+    private CsvChunkSplitter() {
+    }
+
+    /**
+     * Dzieli plik na zakresy o rozmiarze co najmniej {@code chunkBytes} (ostatni może być mniejszy).
+     */
+    static List<Chunk> split(FileChannel channel, long chunkBytes) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        if (size == 0) {
+            return chunks;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long chunkStart = 0;
+        long position = 0;
+        boolean inQuotes = false;
+        boolean quotePending = false;
+        boolean quotedField = false;
+        boolean fieldBlank = true;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (quotePending) {
+                    quotePending = false;
+                    if (b == '"') {
+                        // podwojony cudzysłów wewnątrz pola
+                        continue;
+                    }
+                    inQuotes = false;
+                }
+                if (inQuotes) {
+                    if (b == '"') {
+                        quotePending = true;
+                    }
+                    continue;
+                }
+                if (b == ',') {
+                    quotedField = false;
+                    fieldBlank = true;
+                } else if (b == '\n' || b == '\r') {
+                    quotedField = false;
+                    fieldBlank = true;
+                    long next = position + i + 1;
+                    if (b == '\n' && next - chunkStart >= chunkBytes && next < size) {
+                        chunks.add(new Chunk(chunkStart, next));
+                        chunkStart = next;
+                    }
+                } else if (b == '"' && !quotedField && fieldBlank) {
+                    inQuotes = true;
+                    quotedField = true;
+                } else if (!isWhitespace(b)) {
+                    fieldBlank = false;
+                }
+            }
+            position += read;
+        }
+
+        chunks.add(new Chunk(chunkStart, size));
+        return chunks;
+    }
+
+    // Białe znaki ASCII zgodnie z Character.isWhitespace
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == 0x0B || b == '\f' || (b >= 0x1C && b <= 0x1F);
+    }
+
+    /**
+     * Strumień czytający tylko podany zakres pliku. Używa odczytów pozycyjnych,
+     * więc wiele strumieni może współdzielić jeden kanał z różnych wątków.
+     */
+    static InputStream open(FileChannel channel, Chunk chunk) {
+        return new InputStream() {
+            private long position = chunk.start();
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                long remaining = chunk.end() - position;
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int toRead = (int) Math.min(length, remaining);
+                int read = channel.read(ByteBuffer.wrap(bytes, offset, toRead), position);
+                if (read <= 0) {
+                    return -1;
+                }
+                position += read;
+                return read;
+            }
+        };
+    }
+}
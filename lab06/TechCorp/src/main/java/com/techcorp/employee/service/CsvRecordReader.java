@@ -0,0 +1,187 @@
+package com.techcorp.employee.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strumieniowy czytnik rekordów CSV używany przy imporcie.
+ * Czyta znaki z własnego bufora, obsługuje pola w cudzysłowach (również z przecinkami,
+ * podwojonymi cudzysłowami i znakami nowej linii) oraz końce linii LF i CRLF.
+ * Bufory są używane ponownie dla kolejnych rekordów - nowe obiekty to tylko wartości pól.
+ */
+final class CsvRecordReader {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder(64);
+    private final List<String> fields = new ArrayList<>(8);
+
+    private int lineNumber;
+    private int recordLine;
+    private boolean unterminatedQuote;
+
+    CsvRecordReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvRecordReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Wczytuje kolejny rekord. Pola bez cudzysłowów są przycinane (jak trim()),
+     * zawartość pól w cudzysłowach pozostaje bez zmian.
+     *
+     * @return false, jeśli osiągnięto koniec danych
+     */
+    boolean next() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        unterminatedQuote = false;
+
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        lineNumber++;
+        recordLine = lineNumber;
+
+        boolean inQuotes = false;
+        boolean quotedField = false;
+
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    unterminatedQuote = true;
+                    endField(true);
+                    return true;
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                endField(quotedField);
+                quotedField = false;
+            } else if (c == '\n' || c == -1) {
+                endField(quotedField);
+                return true;
+            } else if (c == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                endField(quotedField);
+                return true;
+            } else if (c == '"' && !quotedField && isBlank(field)) {
+                // otwierający cudzysłów (ewentualne spacje przed nim są pomijane)
+                field.setLength(0);
+                inQuotes = true;
+                quotedField = true;
+            } else if (!quotedField || !Character.isWhitespace(c)) {
+                // spacje po zamykającym cudzysłowie są pomijane
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    int fieldCount() {
+        return fields.size();
+    }
+
+    String field(int index) {
+        return fields.get(index);
+    }
+
+    /**
+     * Numer linii, w której zaczyna się bieżący rekord (numeracja od 1).
+     */
+    int recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Liczba linii rozpoczętych do tej pory (łącznie z liniami wewnątrz pól w cudzysłowach).
+     */
+    int linesRead() {
+        return lineNumber;
+    }
+
+    /**
+     * Rekord złożony z jednego pustego pola (pusta linia lub same spacje).
+     */
+    boolean isBlankRecord() {
+        return fields.size() == 1 && fields.get(0).isEmpty();
+    }
+
+    boolean hasUnterminatedQuote() {
+        return unterminatedQuote;
+    }
+
+    private void endField(boolean quoted) {
+        if (quoted) {
+            fields.add(field.toString());
+        } else {
+            int start = 0;
+            int end = field.length();
+            while (start < end && Character.isWhitespace(field.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(field.charAt(end - 1))) {
+                end--;
+            }
+            fields.add(field.substring(start, end));
+        }
+        field.setLength(0);
+    }
+
+    private static boolean isBlank(StringBuilder value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.EmployeeDocument;
+
+/**
+ * Odbiorca zmian metadanych dokumentów w DocumentService (np. dziennik zapisu).
+ * Metody wywoływane są przed zmianą w pamięci - wyjątek z metody przerywa zmianę.
+ */
+interface DocumentChangeListener {
+
+    DocumentChangeListener NONE = new DocumentChangeListener() {
+        @Override
+        public void documentSaved(EmployeeDocument document) {
+        }
+
+        @Override
+        public void documentRemoved(String documentId) {
+        }
+    };
+
+    void documentSaved(EmployeeDocument document);
+
+    void documentRemoved(String documentId);
+}
@@ -13,25 +13,42 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Serwis do zarządzania dokumentami pracowników.
  * Przechowuje metadane dokumentów w pamięci (Map).
+ *
+ * Pliki dokumentów leżą w magazynie treści (uploads/blobs/, nazwa = SHA-256 treści), więc ten sam plik
+ * przesłany dla wielu pracowników jest zapisany raz. Liczba odwołań do pliku wynika z metadanych
+ * (dokumenty o tej samej ścieżce filePath) - plik jest usuwany razem z ostatnim dokumentem.
  */
 @Service
 public class DocumentService {
 
     private static final Logger log = LoggerFactory.getLogger(DocumentService.class);
 
+    // Nazwa pliku w magazynie treści: skrót SHA-256 (hex) i opcjonalne rozszerzenie
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[^.]*)?");
+
     // Mapa przechowująca metadane dokumentów: documentId -> EmployeeDocument
     private final Map<String, EmployeeDocument> documentsStore = new ConcurrentHashMap<>();
 
+    // Liczba dokumentów wskazujących na każdy plik: filePath -> liczba; także monitor dla publikacji i usuwania plików
+    private final Map<String, Integer> fileReferences = new HashMap<>();
+
     private final FileStorageService fileStorageService;
     private final EmployeeService employeeService;
 
+    // Odbiorca zmian metadanych (dziennik zapisu) - wywoływany przed zmianą w pamięci
+    private volatile DocumentChangeListener changeListener = DocumentChangeListener.NONE;
+
     public DocumentService(FileStorageService fileStorageService, EmployeeService employeeService) {
         this.fileStorageService = fileStorageService;
         this.employeeService = employeeService;
@@ -51,41 +68,60 @@ public class DocumentService {
             throws IOException {
         
         // Walidacja czy pracownik istnieje
-        Employee employee = employeeService.getAllEmployees().stream()
-                .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                .findFirst()
+        Employee employee = employeeService.findEmployeeByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Pracownik o emailu " + email + " nie istnieje"));
 
-        // Walidacja pliku
-        fileStorageService.validateFile(file);
+        // Zapisz treść do pliku tymczasowego, licząc skrót (poza blokadą - to najdłuższa część)
+        FileStorageService.StagedBlob staged = fileStorageService.stageEmployeeDocument(file);
 
-        // Zapisz plik w podkatalogu documents/{email}/
-        String savedFileName = fileStorageService.saveEmployeeDocument(email, file);
-        
-        // Pobierz pełną ścieżkę
-        Path documentsPath = fileStorageService.getUploadLocation()
-                .resolve("documents")
-                .resolve(email);
-        Path fullPath = documentsPath.resolve(savedFileName);
-
-        // Utwórz metadane dokumentu
-        EmployeeDocument document = new EmployeeDocument(
-                email,
-                savedFileName,
-                file.getOriginalFilename(),
-                documentType,
-                fullPath.toString()
-        );
-
-        // Zapisz metadane w pamięci
-        documentsStore.put(document.getId(), document);
+        EmployeeDocument document;
+        try {
+            // Publikacja pliku i zwiększenie licznika atomowo względem usuwania ostatniego odwołania
+            synchronized (fileReferences) {
+                // Pod blokadą nikt inny nie publikuje ani nie usuwa plików magazynu - sprawdzenie jest wiarygodne
+                boolean created = !Files.exists(fileStorageService.blobPath(staged));
+                Path fullPath = fileStorageService.publishBlob(staged);
+                document = new EmployeeDocument(
+                        email,
+                        fullPath.getFileName().toString(),
+                        file.getOriginalFilename(),
+                        documentType,
+                        fullPath.toString()
+                );
+
+                try {
+                    changeListener.documentSaved(document);
+                } catch (RuntimeException e) {
+                    // Zapis do dziennika się nie powiódł - nowy plik bez żadnego odwołania zostałby w magazynie na zawsze
+                    if (created && !fileReferences.containsKey(document.getFilePath())) {
+                        deleteUnreferencedBlob(fullPath, e);
+                    }
+                    throw e;
+                }
+
+                // Zapisz metadane w pamięci
+                documentsStore.put(document.getId(), document);
+                fileReferences.merge(document.getFilePath(), 1, Integer::sum);
+            }
+        } catch (IOException | RuntimeException e) {
+            fileStorageService.discardBlob(staged);
+            throw e;
+        }
 
         log.info("Zapisano dokument dla pracownika {}: {} (typ: {})", 
-                email, savedFileName, documentType);
+                email, document.getFileName(), documentType);
 
         return document;
     }
 
+    private static void deleteUnreferencedBlob(Path blob, RuntimeException cause) {
+        try {
+            Files.deleteIfExists(blob);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     /**
      * Pobiera wszystkie dokumenty pracownika.
      *
@@ -133,6 +169,31 @@ public class DocumentService {
         return document;
     }
 
+    /**
+     * Walidator dokumentu (ETag, Last-Modified) z metadanych, bez otwierania pliku.
+     * Plik w magazynie treści nigdy się nie zmienia, więc skrót z nazwy pliku jest silnym ETagiem;
+     * dla dokumentów zapisanych przed wprowadzeniem magazynu ETag wynika z rozmiaru i czasu modyfikacji.
+     *
+     * @param document metadane dokumentu
+     * @return walidator lub null, jeśli plik dokumentu nie istnieje
+     */
+    public FileStorageService.FileValidator getDocumentValidator(EmployeeDocument document) {
+        long lastModified = document.getUploadDate() != null
+                ? document.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0;
+        Matcher matcher = CONTENT_ADDRESSED_NAME.matcher(String.valueOf(document.getFileName()));
+        if (matcher.matches()) {
+            return FileStorageService.FileValidator.fromHash(matcher.group(1), lastModified);
+        }
+        try {
+            Path filePath = Paths.get(document.getFilePath());
+            return FileStorageService.FileValidator.fromAttributes(Files.size(filePath),
+                    Files.getLastModifiedTime(filePath).toMillis());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
     /**
      * Ładuje plik dokumentu jako Resource.
      *
@@ -148,28 +209,56 @@ public class DocumentService {
     }
 
     /**
-     * Usuwa dokument.
+     * Usuwa dokument. Plik jest usuwany z dysku tylko wtedy, gdy nie wskazuje na niego żaden inny dokument.
      *
      * @param email email pracownika
      * @param documentId ID dokumentu
-     * @return true jeśli dokument został usunięty
+     * @return true jeśli plik dokumentu został usunięty z dysku (false - plik jest nadal używany lub go nie było)
      * @throws IOException jeśli wystąpi błąd usuwania
      */
     public boolean deleteDocument(String email, String documentId) throws IOException {
         EmployeeDocument document = getEmployeeDocument(email, documentId);
-        
-        // Usuń plik z dysku
-        Path filePath = Paths.get(document.getFilePath());
-        boolean deleted = Files.deleteIfExists(filePath);
-        
-        // Usuń metadane z pamięci
-        documentsStore.remove(documentId);
-        
-        log.info("Usunięto dokument {} dla pracownika {}", documentId, email);
-        
+
+        boolean deleted = false;
+        synchronized (fileReferences) {
+            // Usuń metadane z pamięci
+            changeListener.documentRemoved(documentId);
+            if (documentsStore.remove(documentId) == null) {
+                return false; // usunięty równolegle
+            }
+
+            // Usuń plik z dysku razem z ostatnim odwołaniem
+            if (releaseReference(document.getFilePath()) == 0) {
+                deleted = Files.deleteIfExists(Paths.get(document.getFilePath()));
+            }
+        }
+
+        log.info("Usunięto dokument {} dla pracownika {}{}", documentId, email,
+                deleted ? "" : " (plik nadal używany przez inne dokumenty)");
+
         return deleted;
     }
 
+    /**
+     * Liczba dokumentów wskazujących na plik.
+     *
+     * @param filePath ścieżka pliku (EmployeeDocument.getFilePath())
+     */
+    public int getReferenceCount(String filePath) {
+        synchronized (fileReferences) {
+            return fileReferences.getOrDefault(filePath, 0);
+        }
+    }
+
+    // Wywoływane pod blokadą fileReferences; zwraca pozostałą liczbę odwołań
+    private int releaseReference(String filePath) {
+        if (filePath == null) {
+            return -1;
+        }
+        Integer remaining = fileReferences.computeIfPresent(filePath, (path, count) -> count > 1 ? count - 1 : null);
+        return remaining == null ? 0 : remaining;
+    }
+
     /**
      * Pobiera liczbę dokumentów pracownika.
      *
@@ -190,4 +279,45 @@ public class DocumentService {
     public List<EmployeeDocument> getAllDocuments() {
         return new ArrayList<>(documentsStore.values());
     }
+
+    /**
+     * Wykonuje odczyt, w trakcie którego żaden zapis ani usunięcie dokumentu nie jest w toku
+     * (monitor fileReferences) - dla migawki dziennika.
+     */
+    <T> T readConsistent(Supplier<T> action) {
+        synchronized (fileReferences) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Zapis metadanych dokumentu przy odtwarzaniu stanu z dziennika (bez powiadamiania odbiorcy zmian).
+     */
+    void restoreDocument(EmployeeDocument document) {
+        synchronized (fileReferences) {
+            EmployeeDocument previous = documentsStore.put(document.getId(), document);
+            if (previous != null) {
+                releaseReference(previous.getFilePath());
+            }
+            if (document.getFilePath() != null) {
+                fileReferences.merge(document.getFilePath(), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Usunięcie metadanych dokumentu przy odtwarzaniu stanu z dziennika (bez powiadamiania odbiorcy zmian).
+     */
+    void restoreRemoval(String documentId) {
+        synchronized (fileReferences) {
+            EmployeeDocument removed = documentsStore.remove(documentId);
+            if (removed != null) {
+                releaseReference(removed.getFilePath());
+            }
+        }
+    }
+
+    void setChangeListener(DocumentChangeListener listener) {
+        this.changeListener = listener != null ? listener : DocumentChangeListener.NONE;
+    }
 }
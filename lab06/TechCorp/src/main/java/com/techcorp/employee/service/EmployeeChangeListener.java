@@ -0,0 +1,37 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+
+/**
+ * Odbiorca zmian w EmployeeService (np. dziennik zapisu).
+ * Metody wywoływane są pod blokadą zapisu danego emaila, przed zastosowaniem zmiany w pamięci -
+ * wyjątek z metody przerywa zmianę, a kolejność wywołań dla jednego emaila odpowiada kolejności zmian.
+ */
+interface EmployeeChangeListener {
+
+    EmployeeChangeListener NONE = new EmployeeChangeListener() {
+        @Override
+        public void employeeSaved(Employee employee) {
+        }
+
+        @Override
+        public void employeeReplaced(String oldEmail, Employee employee) {
+        }
+
+        @Override
+        public void employeeRemoved(String email) {
+        }
+    };
+
+    /**
+     * Pracownik został dodany lub zmienił się jego stan (status, zdjęcie) - employee to pełny nowy stan.
+     */
+    void employeeSaved(Employee employee);
+
+    /**
+     * Dane pracownika zostały zastąpione (email mógł się zmienić).
+     */
+    void employeeReplaced(String oldEmail, Employee employee);
+
+    void employeeRemoved(String email);
+}
@@ -0,0 +1,256 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kolumnowa, niemodyfikowalna migawka pracowników do zapytań analitycznych.
+ * Każdy atrybut leży w osobnej tablicy typu prostego: firma jako identyfikator ze słownika nazw,
+ * stanowisko i status jako numery porządkowe enumów, wynagrodzenie jako double[].
+ * Agregacje to proste pętle po tablicach (bez obiektów Employee i bez unboxingu),
+ * które JIT może rozwinąć i zwektoryzować.
+ */
+public final class EmployeeColumns {
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final EmploymentStatus[] STATUSES = EmploymentStatus.values();
+
+    // Bazowe stawki stanowisk indeksowane numerem porządkowym stanowiska
+    private static final double[] BASE_SALARIES = new double[POSITIONS.length];
+
+    static {
+        for (Position position : POSITIONS) {
+            BASE_SALARIES[position.ordinal()] = position.getBaseSalary();
+        }
+    }
+
+    private final int size;
+    private final String[] companyNames;
+    private final Map<String, Integer> companyIds;
+    private final int[] companies;
+    private final byte[] positions;
+    private final byte[] statuses;
+    private final double[] salaries;
+
+    private EmployeeColumns(int size, String[] companyNames, Map<String, Integer> companyIds,
+                            int[] companies, byte[] positions, byte[] statuses, double[] salaries) {
+        this.size = size;
+        this.companyNames = companyNames;
+        this.companyIds = companyIds;
+        this.companies = companies;
+        this.positions = positions;
+        this.statuses = statuses;
+        this.salaries = salaries;
+    }
+
+    /**
+     * Buduje migawkę z podanych pracowników (kolekcja nie może się zmieniać w trakcie budowania).
+     */
+    public static EmployeeColumns of(Collection<Employee> employees) {
+        int size = employees.size();
+        int[] companies = new int[size];
+        byte[] positions = new byte[size];
+        byte[] statuses = new byte[size];
+        double[] salaries = new double[size];
+        Map<String, Integer> companyIds = new HashMap<>();
+
+        int row = 0;
+        for (Employee employee : employees) {
+            Integer id = companyIds.get(employee.getCompany());
+            if (id == null) {
+                id = companyIds.size();
+                companyIds.put(employee.getCompany(), id);
+            }
+            companies[row] = id;
+            positions[row] = (byte) employee.getPosition().ordinal();
+            statuses[row] = (byte) employee.getStatus().ordinal();
+            salaries[row] = employee.getSalary();
+            row++;
+        }
+
+        String[] companyNames = new String[companyIds.size()];
+        companyIds.forEach((company, id) -> companyNames[id] = company);
+        return new EmployeeColumns(size, companyNames, companyIds, companies, positions, statuses, salaries);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Nazwy firm ze słownika (kolejność = identyfikatory firm w kolumnie).
+     */
+    public List<String> getCompanies() {
+        return List.of(companyNames);
+    }
+
+    public double averageSalary() {
+        if (size == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += salaries[i];
+        }
+        return sum / size;
+    }
+
+    public double maxSalary() {
+        if (size == 0) {
+            return 0;
+        }
+        double max = salaries[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, salaries[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Średnie wynagrodzenie w firmie; 0, jeśli firma nie ma pracowników.
+     */
+    public double averageSalaryByCompany(String company) {
+        Integer id = companyIds.get(company);
+        if (id == null) {
+            return 0;
+        }
+        int companyId = id;
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (companies[i] == companyId) {
+                sum += salaries[i];
+                count++;
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Średnie wynagrodzenie każdej firmy - jeden przebieg po kolumnach z sumami w tablicach indeksowanych identyfikatorem firmy.
+     */
+    public Map<String, Double> averageSalaryByCompany() {
+        double[] sums = new double[companyNames.length];
+        long[] counts = new long[companyNames.length];
+        for (int i = 0; i < size; i++) {
+            sums[companies[i]] += salaries[i];
+            counts[companies[i]]++;
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int id = 0; id < companyNames.length; id++) {
+            result.put(companyNames[id], sums[id] / counts[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Najwyższe wynagrodzenie w każdej firmie.
+     */
+    public Map<String, Double> maxSalaryByCompany() {
+        double[] max = new double[companyNames.length];
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < size; i++) {
+            int id = companies[i];
+            max[id] = Math.max(max[id], salaries[i]);
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int id = 0; id < companyNames.length; id++) {
+            result.put(companyNames[id], max[id]);
+        }
+        return result;
+    }
+
+    public Map<String, Long> countByCompany() {
+        long[] counts = new long[companyNames.length];
+        for (int i = 0; i < size; i++) {
+            counts[companies[i]]++;
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int id = 0; id < companyNames.length; id++) {
+            result.put(companyNames[id], counts[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Liczba pracowników na stanowiskach (pomija puste stanowiska, jak countEmployeesOnPositions()).
+     */
+    public Map<Position, Long> countByPosition() {
+        long[] counts = new long[POSITIONS.length];
+        for (int i = 0; i < size; i++) {
+            counts[positions[i]]++;
+        }
+        Map<Position, Long> result = new EnumMap<>(Position.class);
+        for (Position position : POSITIONS) {
+            if (counts[position.ordinal()] > 0) {
+                result.put(position, counts[position.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liczba pracowników według statusu zatrudnienia (pomija statusy bez pracowników).
+     */
+    public Map<EmploymentStatus, Long> countByStatus() {
+        long[] counts = new long[STATUSES.length];
+        for (int i = 0; i < size; i++) {
+            counts[statuses[i]]++;
+        }
+        Map<EmploymentStatus, Long> result = new EnumMap<>(EmploymentStatus.class);
+        for (EmploymentStatus status : STATUSES) {
+            if (counts[status.ordinal()] > 0) {
+                result.put(status, counts[status.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Średnie wynagrodzenie na każdym stanowisku w danej firmie (pomija stanowiska bez pracowników).
+     */
+    public Map<Position, Double> averageSalaryByPosition(String company) {
+        Map<Position, Double> result = new EnumMap<>(Position.class);
+        Integer id = companyIds.get(company);
+        if (id == null) {
+            return result;
+        }
+        int companyId = id;
+        double[] sums = new double[POSITIONS.length];
+        long[] counts = new long[POSITIONS.length];
+        for (int i = 0; i < size; i++) {
+            if (companies[i] == companyId) {
+                sums[positions[i]] += salaries[i];
+                counts[positions[i]]++;
+            }
+        }
+        for (Position position : POSITIONS) {
+            int ordinal = position.ordinal();
+            if (counts[ordinal] > 0) {
+                result.put(position, sums[ordinal] / counts[ordinal]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liczba pracowników z wynagrodzeniem poniżej bazowej stawki stanowiska (jak validateSalaryConsistency()).
+     */
+    public long countBelowBaseSalary() {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            if (salaries[i] < BASE_SALARIES[positions[i]]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.CompanyStatistics;
+import com.techcorp.employee.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Grupa pracowników w indeksie pomocniczym EmployeeService (firma, stanowisko lub status)
+ * razem z agregatem wynagrodzeń tej grupy.
+ * Członkowie są posortowani malejąco po wynagrodzeniu, więc najlepiej zarabiający jest zawsze pierwszy.
+ */
+final class EmployeeGroup {
+
+    // Malejąco po wynagrodzeniu, przy remisie po emailu (email jest unikalny)
+    static final Comparator<Employee> BY_SALARY_DESC = Comparator
+            .comparingDouble(Employee::getSalary).reversed()
+            .thenComparing(Employee::getEmail);
+
+    private final NavigableSet<Employee> members = new TreeSet<>(BY_SALARY_DESC);
+    private final SalaryAggregate salaries = new SalaryAggregate();
+
+    synchronized void add(Employee employee) {
+        if (members.add(employee)) {
+            salaries.add(employee.getSalary());
+        }
+    }
+
+    synchronized void remove(Employee employee) {
+        if (members.remove(employee)) {
+            salaries.remove(employee.getSalary());
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    synchronized long getCount() {
+        return salaries.getCount();
+    }
+
+    synchronized double getAverageSalary() {
+        return salaries.getAverageSalary();
+    }
+
+    synchronized Optional<Employee> getTopEarner() {
+        return members.isEmpty() ? Optional.empty() : Optional.of(members.first());
+    }
+
+    // Wszystkie statystyki grupy odczytane jednocześnie - liczba, średnia oraz najlepiej zarabiający
+    synchronized CompanyStatistics getStatistics() {
+        if (members.isEmpty()) {
+            return new CompanyStatistics(0, 0, "None", 0);
+        }
+        Employee top = members.first();
+        return new CompanyStatistics(
+                salaries.getCount(),
+                salaries.getAverageSalary(),
+                top.getFirstName() + " " + top.getLastName(),
+                top.getSalary());
+    }
+
+    synchronized List<Employee> getMembers() {
+        return new ArrayList<>(members);
+    }
+}
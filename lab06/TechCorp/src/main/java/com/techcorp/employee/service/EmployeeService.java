@@ -5,18 +5,93 @@ import com.techcorp.employee.model.CompanyStatistics;
 import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.model.Position;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.text.Collator;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
+/**
+ * Magazyn pracowników na stercie (domyślny, app.storage=heap) - obiekty Employee z indeksami i agregatami
+ * aktualizowanymi przy każdej zmianie. Przy app.storage=offheap zastępuje go OffHeapEmployeeService.
+ */
 @Service
+@ConditionalOnProperty(name = "app.storage", havingValue = "heap", matchIfMissing = true)
 public class EmployeeService {
 
-    private final Set<Employee> employees;
+    // Liczba pasów blokad zapisu - zapisy dotyczące różnych emaili zwykle trafiają w różne pasy i nie czekają na siebie
+    private static final int LOCK_STRIPES = 64;
+
+    // Indeks główny: znormalizowany (małe litery) email -> pracownik, odczyt pojedynczego pracownika bez blokad
+    private final ConcurrentMap<String, Employee> employees;
+
+    // Indeks uporządkowany po znormalizowanym emailu - stronicowanie kursorem w O(log n + rozmiar strony)
+    private final ConcurrentNavigableMap<String, Employee> employeesByEmailOrder;
+
+    // Indeks uporządkowany po (nazwisko w porządku polskiego alfabetu, email) - lista posortowana
+    // po nazwisku i wyszukiwanie po prefiksie nazwiska w O(log n + rozmiar wyniku), bez sortowania przy odczycie
+    private final ConcurrentNavigableMap<LastNameKey, Employee> employeesByLastName;
+
+    // Indeksy pomocnicze z agregatami wynagrodzeń, aktualizowane przy każdej zmianie -
+    // zapytanie kosztuje tyle, ile wynosi rozmiar wyniku, a statystyki są dostępne w O(1)
+    private final ConcurrentMap<String, EmployeeGroup> employeesByCompany;
+    private final Map<Position, EmployeeGroup> employeesByPosition;
+    private final Map<EmploymentStatus, EmployeeGroup> employeesByStatus;
+    private final SalaryAggregate allSalaries;
+
+    // Kolumnowa migawka do zapytań analitycznych - budowana przy pierwszym odczycie,
+    // unieważniana (null) przy każdej zmianie danych
+    private volatile EmployeeColumns columns;
+
+    // Wersja danych - zwiększana przy każdej zmianie, wyznacza walidatory (ETag) raportów generowanych z danych.
+    // Znacznik startu odróżnia wersje sprzed i po restarcie, bo licznik zaczyna się od zera
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private volatile long lastModified = System.currentTimeMillis();
+
+    // Wersja danych każdej firmy - wartość dataVersion z ostatniej zmiany jej pracowników (tylko rośnie);
+    // pozwala unieważniać wyniki wyliczone dla jednej firmy bez ruszania pozostałych
+    private final ConcurrentMap<String, Long> companyVersions = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] writeLocks;
+
+    // Zapisy biorą blokadę współdzieloną (mogą działać równolegle), blokadę wyłączną - tylko kopie całego zbioru,
+    // które muszą odpowiadać jednemu momentowi: migawka dziennika (PersistenceService) i migawka kolumnowa.
+    // Zwykłe odczyty nie biorą żadnej blokady - grupy pilnują spójności swoich agregatów same
+    private final ReadWriteLock snapshotLock;
+
+    // Odbiorca zmian (dziennik zapisu) - wywoływany przed zastosowaniem każdej zmiany
+    volatile EmployeeChangeListener changeListener = EmployeeChangeListener.NONE;
 
     public EmployeeService() {
-        this.employees = new HashSet<>();
+        this.employees = new ConcurrentHashMap<>();
+        this.employeesByEmailOrder = new ConcurrentSkipListMap<>();
+        this.employeesByLastName = new ConcurrentSkipListMap<>();
+        this.employeesByCompany = new ConcurrentHashMap<>();
+        // Mapy EnumMap wypełniane raz w konstruktorze - później zmieniają się tylko grupy (synchronizowane)
+        this.employeesByPosition = new EnumMap<>(Position.class);
+        for (Position position : Position.values()) {
+            employeesByPosition.put(position, new EmployeeGroup());
+        }
+        this.employeesByStatus = new EnumMap<>(EmploymentStatus.class);
+        for (EmploymentStatus status : EmploymentStatus.values()) {
+            employeesByStatus.put(status, new EmployeeGroup());
+        }
+        this.allSalaries = new SalaryAggregate();
+        this.writeLocks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
+        this.snapshotLock = new ReentrantReadWriteLock();
     }
 
     // Dodawanie nowego pracownika do systemu z walidacją unikalności adresu email przed dodaniem
@@ -24,19 +99,173 @@ public class EmployeeService {
         if (employee == null) {
             throw new IllegalArgumentException("Employee cannot be null");
         }
-        if (isEmailTaken(employee.getEmail())) {
-            throw new DuplicateEmailException(employee.getEmail());
+        String key = emailKey(employee.getEmail());
+        return write(() -> {
+            if (employees.containsKey(key)) {
+                throw new DuplicateEmailException(employee.getEmail());
+            }
+            changeListener.employeeSaved(employee);
+            employees.put(key, employee);
+            index(employee);
+            return true;
+        }, key);
+    }
+
+    // Dodawanie partii pracowników (import) - blokada współdzielona brana jest raz na całą partię,
+    // a blokada pasa osobno dla każdego pracownika. Duplikat nie przerywa partii:
+    // added[i] == false oznacza, że email i-tego pracownika był już zajęty
+    public boolean[] addEmployees(List<Employee> batch) {
+        for (Employee employee : batch) {
+            if (employee == null) {
+                throw new IllegalArgumentException("Employee cannot be null");
+            }
+        }
+        boolean[] added = new boolean[batch.size()];
+        snapshotLock.readLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Employee employee = batch.get(i);
+                String key = emailKey(employee.getEmail());
+                ReentrantLock lock = writeLocks[stripe(key)];
+                lock.lock();
+                try {
+                    if (!employees.containsKey(key)) {
+                        changeListener.employeeSaved(employee);
+                        employees.put(key, employee);
+                        index(employee);
+                        added[i] = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
         }
-        return employees.add(employee);
+        return added;
     }
 
-    private boolean isEmailTaken(String email) {
-        return employees.stream().anyMatch(e -> e.getEmail().equalsIgnoreCase(email));
+    // Dopisanie pracownika do indeksów pomocniczych (wywoływane pod blokadą zapisu)
+    private void index(Employee employee) {
+        employeesByEmailOrder.put(emailKey(employee.getEmail()), employee);
+        employeesByLastName.put(lastNameKey(employee), employee);
+        employeesByCompany.compute(employee.getCompany(), (company, group) -> {
+            EmployeeGroup result = group != null ? group : new EmployeeGroup();
+            result.add(employee);
+            return result;
+        });
+        employeesByPosition.get(employee.getPosition()).add(employee);
+        employeesByStatus.get(employee.getStatus()).add(employee);
+        allSalaries.add(employee.getSalary());
+        dataChanged(employee.getCompany());
     }
 
-    // Wyświetlanie listy wszystkich pracowników w systemie
+    // Usunięcie pracownika z indeksów pomocniczych (wywoływane pod blokadą zapisu)
+    private void unindex(Employee employee) {
+        employeesByEmailOrder.remove(emailKey(employee.getEmail()), employee);
+        employeesByLastName.remove(lastNameKey(employee), employee);
+        employeesByCompany.computeIfPresent(employee.getCompany(), (company, group) -> {
+            group.remove(employee);
+            return group.isEmpty() ? null : group;
+        });
+        employeesByPosition.get(employee.getPosition()).remove(employee);
+        employeesByStatus.get(employee.getStatus()).remove(employee);
+        allSalaries.remove(employee.getSalary());
+        dataChanged(employee.getCompany());
+    }
+
+    // Unieważnienie migawki kolumnowej i nowa wersja danych (wywoływane pod blokadą zapisu, po zastosowaniu zmiany -
+    // kto odczyta nową wersję, zobaczy też zmienione dane)
+    void dataChanged(String company) {
+        columns = null;
+        long version = dataVersion.incrementAndGet();
+        companyVersions.merge(company, version, Math::max);
+        lastModified = System.currentTimeMillis();
+    }
+
+    // Bieżąca wersja danych - rośnie przy każdej zmianie pracowników
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    // Wersja danych jako tekst unikalny także między restartami aplikacji - do budowania ETagów.
+    // Odczytana przed wygenerowaniem raportu jest bezpieczna: raport zawiera dane co najmniej z tej wersji
+    public String getDataVersionTag() {
+        return instanceTag + "-" + dataVersion.get();
+    }
+
+    // Wersja danych jednej firmy - zmienia się tylko przy zmianie jej pracowników; 0 dla firmy bez żadnych zmian
+    public long getCompanyDataVersion(String company) {
+        return companyVersions.getOrDefault(company, 0L);
+    }
+
+    // Czas ostatniej zmiany danych (ms od epoki) - dla nagłówka Last-Modified raportów
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    // Klucz indeksu - email bez rozróżniania wielkości liter (jak equalsIgnoreCase)
+    static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    static LastNameKey lastNameKey(Employee employee) {
+        return LastNameKey.of(employee.getLastName(), emailKey(employee.getEmail()));
+    }
+
+    // Wyświetlanie listy wszystkich pracowników w systemie (uporządkowanej po emailu).
+    // Kopia bez blokad - zmiany trwające w czasie kopiowania mogą być w niej widoczne lub nie,
+    // ale każdy email występuje co najwyżej raz (indeks uporządkowany przeglądany jest rosnąco)
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees);
+        return new ArrayList<>(employeesByEmailOrder.values());
+    }
+
+    // Strona listy pracowników uporządkowanej po znormalizowanym emailu (stronicowanie kursorem).
+    // after - email ostatniego pracownika z poprzedniej strony (null = pierwsza strona), wielkość liter bez znaczenia.
+    // Strony czytane są bez blokad - zmiany wykonane między stronami są widoczne na kolejnych stronach.
+    public List<Employee> getEmployeesPage(String after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Collection<Employee> source = after == null || after.isBlank()
+                ? employeesByEmailOrder.values()
+                : employeesByEmailOrder.tailMap(emailKey(after), false).values();
+
+        List<Employee> page = new ArrayList<>(Math.min(limit, 256));
+        Iterator<Employee> iterator = source.iterator();
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    // Kursor następnej strony dla ostatniego pracownika bieżącej strony
+    public static String pageCursor(Employee employee) {
+        return emailKey(employee.getEmail());
+    }
+
+    // Kolumnowa migawka wszystkich pracowników do agregacji w pętlach po tablicach typów prostych.
+    // Migawka nie zmienia się - po zapisie kolejne wywołanie zbuduje nową (koszt O(n) raz na serię zmian).
+    public EmployeeColumns getColumnarSnapshot() {
+        EmployeeColumns current = columns;
+        if (current != null) {
+            return current;
+        }
+        // Budowanie i zapamiętanie pod blokadą wyłączną - żaden zapis nie unieważni migawki w trakcie budowania
+        return readConsistent(() -> {
+            EmployeeColumns snapshot = columns;
+            if (snapshot == null) {
+                snapshot = EmployeeColumns.of(employees.values());
+                columns = snapshot;
+            }
+            return snapshot;
+        });
+    }
+
+    // Widok tylko do odczytu na wszystkich pracowników (w kolejności getAllEmployees()) - bez kopiowania listy.
+    // Iteracja jest słabo spójna (nie blokuje zapisów), więc nadaje się do strumieniowego eksportu dużych zbiorów.
+    public Collection<Employee> getEmployeesView() {
+        return Collections.unmodifiableCollection(employeesByEmailOrder.values());
     }
 
     // Wyszukiwanie pracownika po adresie email
@@ -44,12 +273,10 @@ public class EmployeeService {
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("Email cannot be null or blank");
         }
-        return employees.stream()
-                .filter(e -> e.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        return Optional.ofNullable(employees.get(emailKey(email)));
     }
 
-    // Aktualizacja danych pracownika
+    // Aktualizacja danych pracownika - usunięcie starego i wstawienie nowego wpisu jest atomowe
     public Optional<Employee> updateEmployee(String email, Employee updatedEmployee) {
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("Email cannot be null or blank");
@@ -57,14 +284,24 @@ public class EmployeeService {
         if (updatedEmployee == null) {
             throw new IllegalArgumentException("Updated employee cannot be null");
         }
-        
-        Optional<Employee> existingEmployee = findEmployeeByEmail(email);
-        if (existingEmployee.isPresent()) {
-            employees.remove(existingEmployee.get());
-            employees.add(updatedEmployee);
+
+        String oldKey = emailKey(email);
+        String newKey = emailKey(updatedEmployee.getEmail());
+        return write(() -> {
+            Employee existing = employees.get(oldKey);
+            if (existing == null) {
+                return Optional.empty();
+            }
+            if (!newKey.equals(oldKey) && employees.containsKey(newKey)) {
+                throw new DuplicateEmailException(updatedEmployee.getEmail());
+            }
+            changeListener.employeeReplaced(existing.getEmail(), updatedEmployee);
+            employees.remove(oldKey);
+            unindex(existing);
+            employees.put(newKey, updatedEmployee);
+            index(updatedEmployee);
             return Optional.of(updatedEmployee);
-        }
-        return Optional.empty();
+        }, oldKey, newKey);
     }
 
     // Usuwanie pracownika z systemu
@@ -72,12 +309,18 @@ public class EmployeeService {
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("Email cannot be null or blank");
         }
-        
-        Optional<Employee> employee = findEmployeeByEmail(email);
-        if (employee.isPresent()) {
-            return employees.remove(employee.get());
-        }
-        return false;
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee removed = employees.get(key);
+            if (removed == null) {
+                return false;
+            }
+            changeListener.employeeRemoved(removed.getEmail());
+            employees.remove(key);
+            unindex(removed);
+            return true;
+        }, key);
     }
 
     // Aktualizacja statusu pracownika
@@ -88,13 +331,120 @@ public class EmployeeService {
         if (newStatus == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        
-        Optional<Employee> employee = findEmployeeByEmail(email);
-        if (employee.isPresent()) {
-            employee.get().setStatus(newStatus);
-            return employee;
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee employee = employees.get(key);
+            if (employee == null) {
+                return Optional.empty();
+            }
+            EmploymentStatus oldStatus = employee.getStatus();
+            changeListener.employeeSaved(copyOf(employee, newStatus, employee.getPhotoFileName()));
+            employee.setStatus(newStatus);
+            if (oldStatus != newStatus) {
+                employeesByStatus.get(oldStatus).remove(employee);
+                employeesByStatus.get(newStatus).add(employee);
+                dataChanged(employee.getCompany());
+            }
+            return Optional.of(employee);
+        }, key);
+    }
+
+    // Ustawienie nazwy pliku ze zdjęciem profilowym pracownika
+    public Optional<Employee> updateEmployeePhoto(String email, String photoFileName) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee employee = employees.get(key);
+            if (employee == null) {
+                return Optional.empty();
+            }
+            changeListener.employeeSaved(copyOf(employee, employee.getStatus(), photoFileName));
+            employee.setPhotoFileName(photoFileName);
+            dataChanged(employee.getCompany());
+            return Optional.of(employee);
+        }, key);
+    }
+
+    // Zapis pracownika z zastąpieniem istniejącego o tym samym emailu - odtwarzanie stanu z dziennika
+    // (bez powiadamiania odbiorcy zmian; wielokrotne zastosowanie daje ten sam wynik)
+    void restoreEmployee(Employee employee) {
+        String key = emailKey(employee.getEmail());
+        write(() -> {
+            Employee existing = employees.put(key, employee);
+            if (existing != null) {
+                unindex(existing);
+            }
+            index(employee);
+            return null;
+        }, key);
+    }
+
+    // Usunięcie pracownika przy odtwarzaniu stanu z dziennika (bez powiadamiania odbiorcy zmian)
+    void restoreRemoval(String email) {
+        String key = emailKey(email);
+        write(() -> {
+            Employee removed = employees.remove(key);
+            if (removed != null) {
+                unindex(removed);
+            }
+            return null;
+        }, key);
+    }
+
+    void setChangeListener(EmployeeChangeListener listener) {
+        this.changeListener = listener != null ? listener : EmployeeChangeListener.NONE;
+    }
+
+    static Employee copyOf(Employee employee, EmploymentStatus status, String photoFileName) {
+        Employee copy = new Employee(employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getCompany(), employee.getPosition(), employee.getSalary(), status);
+        copy.setPhotoFileName(photoFileName);
+        return copy;
+    }
+
+    // Wykonuje zapis pod blokadami pasów odpowiadających podanym kluczom (zawsze w rosnącej kolejności - brak zakleszczeń)
+    <T> T write(Supplier<T> action, String... keys) {
+        int[] stripes = Arrays.stream(keys)
+                .mapToInt(EmployeeService::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        snapshotLock.readLock().lock();
+        try {
+            for (int stripe : stripes) {
+                writeLocks[stripe].lock();
+            }
+            try {
+                return action.get();
+            } finally {
+                for (int i = stripes.length - 1; i >= 0; i--) {
+                    writeLocks[stripes[i]].unlock();
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & 0x7fffffff) % LOCK_STRIPES;
+    }
+
+    // Wykonuje odczyt na spójnym obrazie danych - żaden zapis nie jest w trakcie, nowe czekają na koniec odczytu.
+    // Blokuje wszystkie zapisy i inne takie odczyty, więc tylko dla kopii całego zbioru: migawki kolumnowej
+    // i migawki dziennika (PersistenceService przełącza w niej segment dziennika i kopiuje stan)
+    <T> T readConsistent(Supplier<T> action) {
+        snapshotLock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            snapshotLock.writeLock().unlock();
         }
-        return Optional.empty();
     }
 
     // Wyszukiwanie pracowników po statusie zatrudnienia
@@ -102,46 +452,75 @@ public class EmployeeService {
         if (status == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        return employees.stream()
-                .filter(e -> e.getStatus() == status)
-                .toList();
+        return employeesByStatus.get(status).getMembers();
     }
 
-    // Wyszukiwanie pracowników zatrudnionych w konkretnej firmie - zaimplementuj jako operacje filtrowania kolekcji z wykorzystaniem Stream API.
+    // Wyszukiwanie pracowników zatrudnionych w konkretnej firmie - odczyt z indeksu firm
     public List<Employee> findEmployeesInCompany(String company) {
         if (company == null || company.isBlank()) {
             throw new IllegalArgumentException("Company name cannot be null or blank");
         }
-        return employees.stream()
-                .filter(e -> e.getCompany().equals(company))
-                .toList();
+        EmployeeGroup group = employeesByCompany.get(company);
+        return group != null ? group.getMembers() : List.of();
     }
 
-    // Prezentacja pracowników w kolejności alfabetycznej według nazwiska - użyj Comparator do zdefiniowania porządku sortowania.
+    // Prezentacja pracowników w kolejności alfabetycznej według nazwiska (alfabet polski, przy równych nazwiskach - email).
+    // Odczyt gotowego porządku z indeksu nazwisk - bez sortowania i bez blokad (jak getAllEmployees()).
     public List<Employee> getEmployeesSortedByLastName() {
-        return employees.stream()
-                .sorted(Comparator.comparing(Employee::getLastName))
-                .toList();
+        return new ArrayList<>(employeesByLastName.values());
+    }
+
+    // Pracownicy, których nazwisko zaczyna się od podanego prefiksu (bez rozróżniania wielkości liter), posortowani jak wyżej.
+    // Przegląd zaczyna się od pierwszego pasującego klucza i kończy za ostatnim nazwiskiem o tych samych literach podstawowych.
+    public List<Employee> findEmployeesByLastNamePrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Last name prefix cannot be null or blank");
+        }
+        Collator primary = LastNameKey.primaryCollator();
+        List<Employee> result = new ArrayList<>();
+        for (Employee employee : employeesByLastName.tailMap(LastNameKey.lowerBound(prefix), true).values()) {
+            String lastName = employee.getLastName();
+            String head = lastName.length() > prefix.length() ? lastName.substring(0, prefix.length()) : lastName;
+            if (primary.compare(head, prefix) > 0) {
+                break;
+            }
+            // Nazwiska różniące się od prefiksu tylko znakami diakrytycznymi spoza alfabetu polskiego (np. "Ko" i "Kö") leżą w tym samym zakresie
+            if (lastName.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                result.add(employee);
+            }
+        }
+        return result;
     }
 
     // Grupowanie pracowników według zajmowanego stanowiska - operacja powinna zwrócić strukturę Map, gdzie kluczem jest stanowisko, a wartością lista pracowników na tym stanowisku.
+    // Odczyty z wielu grup nie biorą blokady: każda grupa jest spójna sama w sobie, a zmiana trwająca w trakcie odczytu
+    // może być widoczna w jednych grupach i jeszcze niewidoczna w innych.
     public Map<Position, List<Employee>> getEmployeesGroupedByPosition() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getPosition));
+        Map<Position, List<Employee>> grouped = new EnumMap<>(Position.class);
+        employeesByPosition.forEach((position, group) -> {
+            List<Employee> members = group.getMembers();
+            if (!members.isEmpty()) {
+                grouped.put(position, members);
+            }
+        });
+        return grouped;
     }
 
-    // Zliczanie liczby pracowników na każdym stanowisku - wynik w formie Map mapującej stanowisko na liczbę pracowników.
+    // Zliczanie liczby pracowników na każdym stanowisku - odczyt bieżących liczników (pomija puste stanowiska).
     public Map<Position, Long> countEmployeesOnPositions() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(Employee::getPosition, Collectors.counting()));
+        Map<Position, Long> counts = new EnumMap<>(Position.class);
+        employeesByPosition.forEach((position, group) -> {
+            long count = group.getCount();
+            if (count > 0) {
+                counts.put(position, count);
+            }
+        });
+        return counts;
     }
 
-    // Obliczanie średniego wynagrodzenia w całej organizacji - operacja agregująca dane finansowe wszystkich pracowników.
+    // Obliczanie średniego wynagrodzenia w całej organizacji - z bieżącego agregatu, bez przeglądania pracowników.
     public double averageSalary() {
-        return employees.stream()
-                .mapToDouble(Employee::getSalary)
-                .average()
-                .orElse(0);
+        return allSalaries.getAverageSalary();
     }
 
     // Obliczanie średniego wynagrodzenia w konkretnej firmie
@@ -149,11 +528,8 @@ public class EmployeeService {
         if (company == null || company.isBlank()) {
             throw new IllegalArgumentException("Company name cannot be null or blank");
         }
-        return employees.stream()
-                .filter(e -> e.getCompany().equals(company))
-                .mapToDouble(Employee::getSalary)
-                .average()
-                .orElse(0);
+        EmployeeGroup group = employeesByCompany.get(company);
+        return group != null ? group.getAverageSalary() : 0;
     }
 
     // Pobieranie najwyższego wynagrodzenia w konkretnej firmie
@@ -161,57 +537,64 @@ public class EmployeeService {
         if (company == null || company.isBlank()) {
             throw new IllegalArgumentException("Company name cannot be null or blank");
         }
-        return employees.stream()
-                .filter(e -> e.getCompany().equals(company))
-                .mapToDouble(Employee::getSalary)
-                .max()
-                .orElse(0);
+        EmployeeGroup group = employeesByCompany.get(company);
+        return group != null
+                ? group.getTopEarner().map(Employee::getSalary).orElse(0.0)
+                : 0.0;
     }
 
     // Rozkład pracowników według statusu zatrudnienia
     public Map<String, Long> getEmployeeStatusDistribution() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(
-                    e -> e.getStatus().name(),
-                    Collectors.counting()
-                ));
+        Map<String, Long> distribution = new HashMap<>();
+        employeesByStatus.forEach((status, group) -> {
+            long count = group.getCount();
+            if (count > 0) {
+                distribution.put(status.name(), count);
+            }
+        });
+        return distribution;
     }
 
-    // Identyfikacja pracownika z najwyższym wynagrodzeniem - operacja znajdowania maksimum z wykorzystaniem Optional do obsługi potencjalnie pustej kolekcji.
+    // Identyfikacja pracownika z najwyższym wynagrodzeniem - maksimum z najlepiej zarabiających w każdej firmie.
     public Optional<Employee> getEmployeeWithHighestSalary() {
-        return employees.stream()
-                .max(Comparator.comparing(Employee::getSalary));
+        Employee highest = null;
+        for (EmployeeGroup group : employeesByCompany.values()) {
+            Employee top = group.getTopEarner().orElse(null);
+            if (top != null && (highest == null || top.getSalary() > highest.getSalary())) {
+                highest = top;
+            }
+        }
+        return Optional.ofNullable(highest);
     }
 
     // Zwraca listę pracowników z wynagrodzeniem niższym niż bazowa stawka ich stanowiska
     public List<Employee> validateSalaryConsistency() {
-        return employees.stream()
+        return employeesByEmailOrder.values().stream()
                 .filter(e -> e.getSalary() < e.getPosition().getBaseSalary())
                 .toList();
     }
 
     // zwraca mapę, gdzie kluczem jest nazwa firmy, a wartością obiekt CompanyStatistics
+    // statystyki pochodzą z utrzymywanych grup firm - bez ponownego przeglądania pracowników
     public Map<String, CompanyStatistics> getCompanyStatistics() {
-        return employees.stream()
-                .collect(Collectors.groupingBy(
-                        Employee::getCompany,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> {
-                                    long count = list.size(); //liczba osób
-                                    double avgSalary = list.stream()
-                                            .mapToDouble(Employee::getSalary)
-                                            .average()
-                                            .orElse(0);
-
-                                    String highestPaidEmployee = list.stream()
-                                            .max(Comparator.comparing(Employee::getSalary))
-                                            .map(e -> e.getFirstName() + " " + e.getLastName())
-                                            .orElse("None");
-
-                                    return new CompanyStatistics(count, avgSalary, highestPaidEmployee);
-                                }
-                        )
-                ));
+        Map<String, CompanyStatistics> result = new HashMap<>();
+        employeesByCompany.forEach((company, group) -> {
+            CompanyStatistics stats = group.getStatistics();
+            if (stats.getEmployeeCount() > 0) {
+                result.put(company, stats);
+            }
+        });
+        return result;
+    }
+
+    // statystyki jednej firmy (liczba, średnia, najwyższe wynagrodzenie i najlepiej zarabiający)
+    // odczytane jednocześnie z grupy firmy; pusty Optional, jeśli firma nie ma pracowników
+    public Optional<CompanyStatistics> getCompanyStatistics(String company) {
+        EmployeeGroup group = employeesByCompany.get(company);
+        if (group == null) {
+            return Optional.empty();
+        }
+        CompanyStatistics stats = group.getStatistics();
+        return stats.getEmployeeCount() == 0 ? Optional.empty() : Optional.of(stats);
     }
 }
@@ -12,13 +12,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  Serwis do zarządzania plikami - zapis, odczyt, usuwanie i walidacja plików.
@@ -42,9 +50,16 @@ public class FileStorageService {
     // Dozwolone rozszerzenia dla zdjęć
     private static final List<String> ALLOWED_PHOTO_EXTENSIONS = Arrays.asList(".jpg", ".jpeg", ".png");
 
+    // Magazyny treści adresowanej skrótem SHA-256: {katalog}/{2 pierwsze znaki skrótu}/{skrót}{rozszerzenie}
+    private static final String BLOBS_DIRECTORY = "blobs";     // dokumenty pracowników (z licznikiem odwołań w DocumentService)
+    private static final String IMPORTS_DIRECTORY = "imports"; // pliki przesłane do importu
+
     private final Path uploadLocation;
     private final Path reportsLocation;
 
+    // Walidatory zdjęć profilowych: nazwa pliku -> ETag i czas modyfikacji, aktualizowane przy zapisie i usuwaniu
+    private final Map<String, FileValidator> photoValidators = new ConcurrentHashMap<>();
+
     /**
     Konstruktor z lokalizacjami katalogów z application.properties
     */
@@ -67,10 +82,11 @@ public class FileStorageService {
     }
 
     /**
-     Zapisuje plik przesłany przez użytkownika do katalogu uploads.
+     Zapisuje plik przesłany przez użytkownika do katalogu uploads/imports/.
+     Nazwa pliku to skrót SHA-256 treści, więc ten sam plik przesłany ponownie nie zajmuje dodatkowego miejsca.
 
      @param file plik do zapisania
-     @return unikalna nazwa zapisanego pliku
+     @return ścieżka zapisanego pliku względem katalogu uploads
      @throws IOException jeśli wystąpi błąd podczas zapisu
      @throws IllegalArgumentException jeśli plik nie przejdzie walidacji
      */
@@ -82,15 +98,117 @@ public class FileStorageService {
             throw new IllegalArgumentException("Nazwa pliku nie może być pusta");
         }
 
-        // Generuj unikalną nazwę pliku
-        String uniqueFilename = generateUniqueFilename(originalFilename);
-        Path targetLocation = this.uploadLocation.resolve(uniqueFilename);
+        StagedBlob staged = stage(file, this.uploadLocation.resolve(IMPORTS_DIRECTORY));
+        Path targetLocation = publishBlob(staged);
+        log.info("Zapisano plik: {} (rozmiar: {} bajtów)", targetLocation.getFileName(), staged.size());
 
-        // Zapisz plik
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        log.info("Zapisano plik: {} (rozmiar: {} bajtów)", uniqueFilename, file.getSize());
+        return this.uploadLocation.relativize(targetLocation).toString();
+    }
 
-        return uniqueFilename;
+    /**
+     Zapisuje treść dokumentu do pliku tymczasowego w magazynie uploads/blobs/, licząc SHA-256
+     w trakcie kopiowania. Dokument trafia pod docelową nazwę dopiero w publishBlob - rozdzielenie
+     pozwala DocumentService opublikować plik i zwiększyć licznik odwołań atomowo względem usuwania.
+
+     @param file plik dokumentu
+     @return plik tymczasowy ze skrótem treści
+     @throws IOException jeśli wystąpi błąd podczas zapisu
+     */
+    public StagedBlob stageEmployeeDocument(MultipartFile file) throws IOException {
+        validateFile(file);
+        return stage(file, this.uploadLocation.resolve(BLOBS_DIRECTORY));
+    }
+
+    /**
+     Przenosi plik tymczasowy pod nazwę wynikającą ze skrótu. Jeśli plik o tej treści już istnieje,
+     plik tymczasowy jest usuwany i zwracana jest ścieżka istniejącego.
+
+     @return ścieżka pliku w magazynie
+     */
+    public Path publishBlob(StagedBlob staged) throws IOException {
+        Path target = blobPath(staged);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(staged.tempFile());
+            log.debug("Treść {} jest już zapisana - pominięto kopię", target.getFileName());
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    /**
+     Ścieżka, pod którą publishBlob umieści treść (uploads/blobs/{hh}/{sha256}{rozszerzenie}).
+     */
+    public Path blobPath(StagedBlob staged) {
+        return staged.directory()
+                .resolve(staged.hash().substring(0, 2))
+                .resolve(staged.hash() + staged.extension());
+    }
+
+    /**
+     Usuwa plik tymczasowy, który nie został opublikowany (np. po błędzie).
+     */
+    public void discardBlob(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.tempFile());
+        } catch (IOException e) {
+            log.warn("Nie udało się usunąć pliku tymczasowego {}: {}", staged.tempFile(), e.getMessage());
+        }
+    }
+
+    private StagedBlob stage(MultipartFile file, Path directory) throws IOException {
+        String extension = getFileExtension(file.getOriginalFilename()).toLowerCase(Locale.ROOT);
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StagedBlob(directory, temp, HexFormat.of().formatHex(digest.digest()), extension, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     Treść zapisana do pliku tymczasowego, jeszcze nieopublikowana w magazynie.
+
+     @param directory katalog magazynu
+     @param hash skrót SHA-256 treści (hex)
+     @param extension rozszerzenie oryginalnego pliku (małe litery, z kropką) lub pusty string
+     */
+    public record StagedBlob(Path directory, Path tempFile, String hash, String extension, long size) {
+    }
+
+    /**
+     Walidator zapisanego pliku dla żądań warunkowych (If-None-Match, If-Modified-Since, If-Range).
+
+     @param etag silny ETag w cudzysłowie
+     @param lastModified czas modyfikacji (ms od epoki)
+     */
+    public record FileValidator(String etag, long lastModified) {
+
+        /**
+         Walidator ze skrótu treści (SHA-256, hex).
+         */
+        public static FileValidator fromHash(String hash, long lastModified) {
+            return new FileValidator("\"" + hash + "\"", lastModified);
+        }
+
+        /**
+         Walidator z rozmiaru i czasu modyfikacji - gdy skrót treści nie jest znany.
+         */
+        public static FileValidator fromAttributes(long size, long lastModified) {
+            return new FileValidator("\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"",
+                    lastModified);
+        }
     }
 
     /**
@@ -316,38 +434,6 @@ public class FileStorageService {
         return reportsLocation;
     }
 
-    /**
-    Zapisuje dokument pracownika w podkatalogu documents/{email}/.
-    
-    @param employeeEmail email pracownika
-    @param file plik do zapisania
-    @return unikalna nazwa zapisanego pliku
-    @throws IOException jeśli wystąpi błąd podczas zapisu
-    */
-    public String saveEmployeeDocument(String employeeEmail, MultipartFile file) throws IOException {
-        validateFile(file);
-
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isEmpty()) {
-            throw new IllegalArgumentException("Nazwa pliku nie może być pusta");
-        }
-
-        // Utwórz katalog documents/{email}/ jeśli nie istnieje
-        Path documentsPath = this.uploadLocation.resolve("documents").resolve(employeeEmail);
-        Files.createDirectories(documentsPath);
-
-        // Generuj unikalną nazwę pliku
-        String uniqueFilename = generateUniqueFilename(originalFilename);
-        Path targetLocation = documentsPath.resolve(uniqueFilename);
-
-        // Zapisz plik
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        log.info("Zapisano dokument pracownika {}: {} (rozmiar: {} bajtów)", 
-                employeeEmail, uniqueFilename, file.getSize());
-
-        return uniqueFilename;
-    }
-
     /**
      * Ładuje plik z podanej ścieżki jako Resource.
      *
@@ -397,11 +483,18 @@ public class FileStorageService {
         Path targetLocation = photosPath.resolve(fileName);
 
         try {
-            // Zapisz plik (nadpisz jeśli istnieje)
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // Zapisz plik (nadpisz jeśli istnieje), licząc skrót treści dla ETaga
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            }
+            photoValidators.put(fileName, FileValidator.fromHash(HexFormat.of().formatHex(digest.digest()),
+                    Files.getLastModifiedTime(targetLocation).toMillis()));
             log.info("Zapisano zdjęcie profilowe dla: {} (rozmiar: {} bajtów)", 
                     employeeEmail, file.getSize());
             return fileName;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         } catch (IOException e) {
             log.error("Błąd podczas zapisu zdjęcia: {}", e.getMessage(), e);
             throw new FileStorageException("Nie można zapisać zdjęcia profilowego", e);
@@ -441,6 +534,36 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Walidator zdjęcia profilowego (ETag, Last-Modified) - bez otwierania pliku.
+     * Zdjęcia zapisane od startu aplikacji mają ETag ze skrótu SHA-256 treści, pozostałe -
+     * z rozmiaru i czasu modyfikacji pliku.
+     *
+     * @param photoFileName nazwa pliku zdjęcia
+     * @return walidator lub null, jeśli plik nie istnieje
+     */
+    public FileValidator getPhotoValidator(String photoFileName) {
+        Path photosPath = this.uploadLocation.resolve("photos");
+        Path photoPath = photosPath.resolve(photoFileName).normalize();
+
+        if (!photoPath.startsWith(photosPath)) {
+            throw new SecurityException("Próba dostępu do pliku poza dozwolonym katalogiem");
+        }
+
+        FileValidator cached = photoValidators.get(photoFileName);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            FileValidator validator = FileValidator.fromAttributes(Files.size(photoPath),
+                    Files.getLastModifiedTime(photoPath).toMillis());
+            photoValidators.putIfAbsent(photoFileName, validator);
+            return validator;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * Usuwa zdjęcie profilowe pracownika.
      *
@@ -457,6 +580,7 @@ public class FileStorageService {
         }
 
         try {
+            photoValidators.remove(photoFileName);
             boolean deleted = Files.deleteIfExists(photoPath);
             if (deleted) {
                 log.info("Usunięto zdjęcie: {}", photoFileName);
@@ -5,62 +5,265 @@ import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.ImportSummary;
 import com.techcorp.employee.model.Position;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 @Service
 public class ImportService {
+    // Liczba pracowników dodawanych do EmployeeService jednym wywołaniem podczas importu
+    static final int IMPORT_BATCH_SIZE = 1000;
+
+    // Minimalny rozmiar zakresu pliku przy imporcie równoległym - mniejsze pliki nie opłaca się dzielić
+    private static final long PARALLEL_MIN_CHUNK_BYTES = 1024 * 1024;
+
+    private static final String XML_EMPLOYEE = "employee";
+    private static final Set<String> XML_FIELDS = Set.of("firstName", "lastName", "email", "company", "position", "salary");
+
+    // Fabryka StAX jest bezpieczna wątkowo po konfiguracji; encje zewnętrzne są wyłączone (XXE)
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
     private final EmployeeService employeeService;
 
     public ImportService(EmployeeService employeeService) {
         this.employeeService = employeeService;
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
     public ImportSummary importFromCsv(String path) {
-        ImportSummary summary = new ImportSummary();
-        int lineNumber = 0;
+        try (InputStream in = Files.newInputStream(Path.of(path))) {
+            return importFromCsv(in);
+        } catch (IOException e) {
+            ImportSummary summary = new ImportSummary();
+            summary.addError(0, "Error reading file: " + e.getMessage());
+            return summary;
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            String line;
+    /**
+     * Importuje pracowników z CSV czytanego bezpośrednio ze strumienia (np. z uploadu multipart),
+     * bez zapisywania pliku na dysk. Rekordy są parsowane na bieżąco, a pracownicy
+     * dodawani partiami po {@value #IMPORT_BATCH_SIZE}.
+     *
+     * @param in strumień z danymi CSV (UTF-8, pierwsza linia to nagłówek); nie jest zamykany
+     * @return podsumowanie importu
+     */
+    public ImportSummary importFromCsv(InputStream in) {
+        ImportSummary summary = new ImportSummary();
+        CsvRecordReader records = new CsvRecordReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Employee> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int[] batchLines = new int[IMPORT_BATCH_SIZE];
 
+        try {
             // pominięcie nagłówka
-            reader.readLine();
-            lineNumber = 1;
+            if (!records.next()) {
+                return summary;
+            }
 
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) {
+            while (records.next()) {
+                if (records.isBlankRecord()) {
                     continue;
                 }
 
+                int lineNumber = records.recordLine();
                 try {
-                    Employee employee = parseEmployee(line);
-                    boolean added = employeeService.addEmployee(employee);
-                    if (added) {
-                        summary.importedCount();
-                    } else {
-                        summary.addError(lineNumber, "Duplicate email: " + employee.getEmail());
+                    Employee employee = parseEmployee(records);
+                    batchLines[batch.size()] = lineNumber;
+                    batch.add(employee);
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        flushBatch(batch, batchLines, summary);
                     }
-                } catch (InvalidDataException e) {
+                } catch (InvalidDataException | IllegalArgumentException e) {
+                    // najpierw zapisujemy oczekującą partię, żeby błędy zachowały kolejność linii
+                    flushBatch(batch, batchLines, summary);
                     summary.addError(lineNumber, e.getMessage());
                 }
             }
         } catch (IOException e) {
             summary.addError(0, "Error reading file: " + e.getMessage());
+        } finally {
+            flushBatch(batch, batchLines, summary);
+        }
+
+        return summary;
+    }
+
+    /**
+     * Równoległy import zapisanego pliku CSV (np. z katalogu uploadów).
+     * Plik jest dzielony na zakresy bajtów wyrównane do końca rekordu, zakresy są parsowane
+     * na wspólnej puli fork-join, a wyniki scalane w kolejności pliku. Podsumowanie
+     * (liczba, treść i kolejność błędów, numery linii) jest takie samo jak przy imporcie sekwencyjnym,
+     * również dla duplikatów emaili występujących w różnych zakresach.
+     *
+     * @param path ścieżka do pliku CSV (UTF-8, pierwsza linia to nagłówek)
+     * @return podsumowanie importu
+     */
+    public ImportSummary importFromCsvParallel(String path) {
+        return importFromCsvParallel(Path.of(path), PARALLEL_MIN_CHUNK_BYTES);
+    }
+
+    ImportSummary importFromCsvParallel(Path path, long minChunkBytes) {
+        ImportSummary summary = new ImportSummary();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long chunkBytes = Math.max(minChunkBytes,
+                    channel.size() / (ForkJoinPool.getCommonPoolParallelism() * 4L));
+            List<CsvChunkSplitter.Chunk> chunks = CsvChunkSplitter.split(channel, chunkBytes);
+
+            // 1. parsowanie zakresów równolegle (parallelStream zachowuje kolejność wyników)
+            List<ParsedChunk> parsed = IntStream.range(0, chunks.size())
+                    .parallel()
+                    .mapToObj(i -> parseChunk(channel, chunks.get(i), i == 0))
+                    .toList();
+
+            // 2. duplikaty w obrębie pliku - wygrywa pierwsze wystąpienie, jak przy imporcie sekwencyjnym
+            Set<String> seenEmails = new HashSet<>();
+            for (ParsedChunk chunk : parsed) {
+                for (int i = 0; i < chunk.rows.size(); i++) {
+                    ParsedRow row = chunk.rows.get(i);
+                    if (row.employee() != null && !seenEmails.add(row.emailKey())) {
+                        chunk.duplicateInFile[i] = true;
+                    }
+                }
+            }
+
+            // 3. dodawanie do EmployeeService równolegle - emaile są już unikalne w obrębie pliku
+            parsed.parallelStream().forEach(this::insertChunk);
+
+            // 4. podsumowanie w kolejności linii pliku
+            int lineOffset = 0;
+            for (ParsedChunk chunk : parsed) {
+                for (int i = 0; i < chunk.rows.size(); i++) {
+                    ParsedRow row = chunk.rows.get(i);
+                    int lineNumber = lineOffset + row.line();
+                    if (row.error() != null) {
+                        summary.addError(lineNumber, row.error());
+                    } else if (chunk.added[i]) {
+                        summary.importedCount();
+                    } else {
+                        summary.addError(lineNumber, "Duplicate email: " + row.employee().getEmail());
+                    }
+                }
+                lineOffset += chunk.lineCount;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            summary.addError(0, "Error reading file: " + e.getMessage());
         }
 
         return summary;
     }
 
+    private ParsedChunk parseChunk(FileChannel channel, CsvChunkSplitter.Chunk range, boolean skipHeader) {
+        ParsedChunk chunk = new ParsedChunk();
+        CsvRecordReader records = new CsvRecordReader(
+                new InputStreamReader(CsvChunkSplitter.open(channel, range), StandardCharsets.UTF_8));
+        try {
+            if (skipHeader && !records.next()) {
+                return chunk;
+            }
+            while (records.next()) {
+                if (records.isBlankRecord()) {
+                    continue;
+                }
+                try {
+                    Employee employee = parseEmployee(records);
+                    chunk.rows.add(new ParsedRow(records.recordLine(), employee,
+                            employee.getEmail().toLowerCase(Locale.ROOT), null));
+                } catch (InvalidDataException | IllegalArgumentException e) {
+                    chunk.rows.add(new ParsedRow(records.recordLine(), null, null, e.getMessage()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.lineCount = records.linesRead();
+        chunk.duplicateInFile = new boolean[chunk.rows.size()];
+        chunk.added = new boolean[chunk.rows.size()];
+        return chunk;
+    }
+
+    private void insertChunk(ParsedChunk chunk) {
+        int[] rowIndexes = new int[IMPORT_BATCH_SIZE];
+        List<Employee> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (int i = 0; i < chunk.rows.size(); i++) {
+            Employee employee = chunk.rows.get(i).employee();
+            if (employee == null || chunk.duplicateInFile[i]) {
+                continue;
+            }
+            rowIndexes[batch.size()] = i;
+            batch.add(employee);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                insertBatch(chunk, rowIndexes, batch);
+            }
+        }
+        insertBatch(chunk, rowIndexes, batch);
+    }
+
+    private void insertBatch(ParsedChunk chunk, int[] rowIndexes, List<Employee> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        boolean[] added = employeeService.addEmployees(batch);
+        for (int i = 0; i < added.length; i++) {
+            chunk.added[rowIndexes[i]] = added[i];
+        }
+        batch.clear();
+    }
+
+    // Wynik parsowania jednego zakresu pliku; numery linii są względne (od 1 w obrębie zakresu)
+    private static final class ParsedChunk {
+        private final List<ParsedRow> rows = new ArrayList<>();
+        private boolean[] duplicateInFile;
+        private boolean[] added;
+        private int lineCount;
+    }
+
+    // Sparsowany rekord: pracownik albo komunikat błędu
+    private record ParsedRow(int line, Employee employee, String emailKey, String error) {
+    }
+
+    // Dodaje partię do EmployeeService i zapisuje wynik każdego wiersza (lub elementu XML) w podsumowaniu
+    private void flushBatch(List<Employee> batch, int[] batchLines, ImportSummary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        boolean[] added = employeeService.addEmployees(batch);
+        for (int i = 0; i < added.length; i++) {
+            if (added[i]) {
+                summary.importedCount();
+            } else {
+                summary.addError(batchLines[i], "Duplicate email: " + batch.get(i).getEmail());
+            }
+        }
+        batch.clear();
+    }
+
     /**
      * Importuje pracowników z pliku XML.
      * 
@@ -68,56 +271,139 @@ public class ImportService {
      * @return podsumowanie importu
      */
     public ImportSummary importFromXml(String path) {
+        try (InputStream in = Files.newInputStream(Path.of(path))) {
+            return importFromXml(in);
+        } catch (IOException e) {
+            ImportSummary summary = new ImportSummary();
+            summary.addError(0, "Error reading XML file: " + e.getMessage());
+            return summary;
+        }
+    }
+
+    /**
+     * Importuje pracowników z XML parserem strumieniowym (StAX).
+     * Elementy {@code <employee>} są czytane pojedynczo, bez budowania drzewa DOM - w pamięci zostają
+     * tylko sparsowani pracownicy. Do systemu trafiają dopiero po poprawnym przeczytaniu całego dokumentu:
+     * w uszkodzonym lub uciętym dokumencie nic nie jest importowane (jak przy parsowaniu DOM).
+     * Błędy są numerowane kolejnym numerem elementu {@code <employee>}.
+     *
+     * @param in strumień z dokumentem XML; nie jest zamykany
+     * @return podsumowanie importu
+     */
+    public ImportSummary importFromXml(InputStream in) {
         ImportSummary summary = new ImportSummary();
-        int employeeIndex = 0;
+        List<XmlElement> elements = new ArrayList<>();
+        XMLStreamReader reader = null;
 
         try {
-            File xmlFile = new File(path);
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlFile);
-            doc.getDocumentElement().normalize();
-
-            NodeList employeeNodes = doc.getElementsByTagName("employee");
-
-            for (int i = 0; i < employeeNodes.getLength(); i++) {
-                employeeIndex = i + 1;
-                Node node = employeeNodes.item(i);
-
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    try {
-                        Element element = (Element) node;
-                        Employee employee = parseXmlEmployee(element);
-                        
-                        boolean added = employeeService.addEmployee(employee);
-                        if (added) {
-                            summary.importedCount();
-                        } else {
-                            summary.addError(employeeIndex, "Duplicate email: " + employee.getEmail());
-                        }
-                    } catch (InvalidDataException | IllegalArgumentException e) {
-                        summary.addError(employeeIndex, e.getMessage());
-                    }
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            Map<String, String> fields = new HashMap<>();
+            int employeeIndex = 0;
+
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT
+                        || !XML_EMPLOYEE.equals(reader.getLocalName())) {
+                    continue;
+                }
+                employeeIndex++;
+                readXmlEmployeeFields(reader, fields);
+
+                try {
+                    elements.add(new XmlElement(employeeIndex, parseXmlEmployee(fields), null));
+                } catch (InvalidDataException | IllegalArgumentException e) {
+                    elements.add(new XmlElement(employeeIndex, null, e.getMessage()));
                 }
             }
         } catch (Exception e) {
             summary.addError(0, "Error reading XML file: " + e.getMessage());
+            return summary;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nic do zrobienia - strumień wejściowy zamyka wywołujący
+                }
+            }
+        }
+
+        // Dokument poprawny - dodawanie partiami, błędy w kolejności elementów
+        List<Employee> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int[] batchIndexes = new int[IMPORT_BATCH_SIZE];
+        for (XmlElement element : elements) {
+            if (element.error() != null) {
+                flushBatch(batch, batchIndexes, summary);
+                summary.addError(element.index(), element.error());
+                continue;
+            }
+            batchIndexes[batch.size()] = element.index();
+            batch.add(element.employee());
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                flushBatch(batch, batchIndexes, summary);
+            }
         }
+        flushBatch(batch, batchIndexes, summary);
 
         return summary;
     }
 
+    // Sparsowany element <employee>: pracownik albo komunikat błędu walidacji
+    private record XmlElement(int index, Employee employee, String error) {
+    }
+
     /**
-     * Parsuje element XML reprezentujący pracownika.
+     * Czyta pola bieżącego elementu {@code <employee>} aż do jego znacznika zamykającego.
+     * Liczy się pierwsze wystąpienie pola w elemencie (na dowolnej głębokości);
+     * pole bez tekstu ma wartość null.
      */
-    private Employee parseXmlEmployee(Element element) throws InvalidDataException {
+    private void readXmlEmployeeFields(XMLStreamReader reader, Map<String, String> fields) throws XMLStreamException {
+        fields.clear();
+        int depth = 1;
+        String currentField = null;
+        int currentFieldDepth = 0;
+        StringBuilder text = new StringBuilder();
+
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (currentField == null && XML_FIELDS.contains(name) && !fields.containsKey(name)) {
+                        currentField = name;
+                        currentFieldDepth = depth;
+                        text.setLength(0);
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (currentField != null && depth == currentFieldDepth) {
+                        text.append(reader.getText());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (currentField != null && depth == currentFieldDepth) {
+                        fields.put(currentField, text.length() > 0 ? text.toString() : null);
+                        currentField = null;
+                    }
+                    depth--;
+                }
+                default -> {
+                    // komentarze i instrukcje przetwarzania są pomijane
+                }
+            }
+        }
+    }
+
+    /**
+     * Parsuje pola elementu XML reprezentującego pracownika.
+     */
+    private Employee parseXmlEmployee(Map<String, String> fields) throws InvalidDataException {
         try {
-            String firstName = getTagValue("firstName", element);
-            String lastName = getTagValue("lastName", element);
-            String email = getTagValue("email", element);
-            String company = getTagValue("company", element);
-            String positionStr = getTagValue("position", element);
-            String salaryStr = getTagValue("salary", element);
+            String firstName = fields.get("firstName");
+            String lastName = fields.get("lastName");
+            String email = fields.get("email");
+            String company = fields.get("company");
+            String positionStr = fields.get("position");
+            String salaryStr = fields.get("salary");
 
             if (firstName == null || lastName == null || email == null || 
                 company == null || positionStr == null || salaryStr == null) {
@@ -151,46 +437,34 @@ public class ImportService {
         }
     }
 
-    /**
-     * Pomocnicza metoda do odczytywania wartości z elementu XML.
-     */
-    private String getTagValue(String tag, Element element) {
-        NodeList nodeList = element.getElementsByTagName(tag);
-        if (nodeList.getLength() > 0) {
-            Node node = nodeList.item(0);
-            if (node != null && node.getFirstChild() != null) {
-                return node.getFirstChild().getNodeValue();
-            }
+    private Employee parseEmployee(CsvRecordReader record) throws InvalidDataException {
+        if (record.hasUnterminatedQuote()) {
+            throw new InvalidDataException("Unterminated quoted field");
         }
-        return null;
-    }
-
-    private Employee parseEmployee(String line) throws InvalidDataException {
-        String[] parts = line.split(",");
-        if (parts.length != 6) {
+        if (record.fieldCount() != 6) {
             throw new InvalidDataException("Invalid number of fields in a file");
         }
 
-        String firstName = parts[0].trim();
-        String lastName = parts[1].trim();
-        String email = parts[2].trim();
-        String company = parts[3].trim();
+        String firstName = record.field(0);
+        String lastName = record.field(1);
+        String email = record.field(2);
+        String company = record.field(3);
 
         Position position;
         try {
-            position = Position.valueOf(parts[4].trim().toUpperCase());
+            position = Position.valueOf(record.field(4).toUpperCase());
         } catch (IllegalArgumentException e) {
-            throw new InvalidDataException("Invalid position: " + parts[4].trim());
+            throw new InvalidDataException("Invalid position: " + record.field(4));
         }
 
         double salary;
         try {
-            salary = Double.parseDouble(parts[5].trim());
+            salary = Double.parseDouble(record.field(5));
             if (salary <= 0) {
                 throw new InvalidDataException("Salary must be positive");
             }
         } catch (NumberFormatException e) {
-            throw new InvalidDataException("Invalid salary format: " + parts[5].trim());
+            throw new InvalidDataException("Invalid salary format: " + record.field(5));
         }
 
         return new Employee(firstName, lastName, email, company, position, salary);
@@ -0,0 +1,71 @@
+package com.techcorp.employee.service;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * Klucz indeksu nazwisk: nazwisko w porządku alfabetu polskiego (Collator dla pl-PL), a przy równych
+ * nazwiskach - znormalizowany email, dzięki czemu klucz jest unikalny dla każdego pracownika.
+ * Nazwisko zamieniane jest raz na CollationKey - porównania w indeksie to już tylko porównania tablic bajtów.
+ */
+final class LastNameKey implements Comparable<LastNameKey> {
+
+    private static final Locale POLISH = Locale.forLanguageTag("pl-PL");
+
+    // Porządek indeksu: "Łukasik" po "Lis", "Świątek" po "Szymański"; małe litery przed wielkimi
+    // (metody Collatora są synchronizowane, więc jedna instancja może być współdzielona)
+    private static final Collator COLLATOR = Collator.getInstance(POLISH);
+
+    private final CollationKey lastName;
+    private final String email;
+
+    private LastNameKey(CollationKey lastName, String email) {
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    static LastNameKey of(String lastName, String emailKey) {
+        return new LastNameKey(COLLATOR.getCollationKey(lastName), emailKey);
+    }
+
+    /**
+     * Najmniejszy możliwy klucz dla nazwisk zaczynających się od prefiksu (bez rozróżniania wielkości liter).
+     */
+    static LastNameKey lowerBound(String prefix) {
+        return new LastNameKey(COLLATOR.getCollationKey(prefix.toLowerCase(POLISH)), "");
+    }
+
+    /**
+     * Collator porównujący tylko litery podstawowe (bez wielkości liter i znaków diakrytycznych) -
+     * wyznacza koniec zakresu przy wyszukiwaniu po prefiksie. Nowa instancja dla każdego zapytania,
+     * żeby równoległe zapytania nie czekały na siebie.
+     */
+    static Collator primaryCollator() {
+        Collator collator = (Collator) COLLATOR.clone();
+        collator.setStrength(Collator.PRIMARY);
+        return collator;
+    }
+
+    @Override
+    public int compareTo(LastNameKey other) {
+        int result = lastName.compareTo(other.lastName);
+        return result != 0 ? result : email.compareTo(other.email);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LastNameKey other)) {
+            return false;
+        }
+        return compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return email.hashCode();
+    }
+}
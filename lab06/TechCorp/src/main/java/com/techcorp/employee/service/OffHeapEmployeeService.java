@@ -0,0 +1,429 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.CompanyStatistics;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * EmployeeService przechowujący pracowników w OffHeapEmployeeStore (app.storage=offheap) -
+ * dla bardzo dużych zbiorów, przy których obiekty Employee na stercie obciążają GC.
+ *
+ * Zapisy przechodzą przez te same blokady pasów, odbiorcę zmian (dziennik) i wersje danych co w EmployeeService,
+ * więc trwałość, ETagi raportów i migawki działają bez zmian. Na stercie nie ma indeksów pomocniczych ani agregatów:
+ * odczyt po emailu korzysta z indeksu magazynu, a pozostałe zapytania przeglądają wszystkie rekordy (O(n)).
+ * Zwracane obiekty Employee są kopiami - zmiany trzeba zapisać metodami serwisu.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage", havingValue = "offheap")
+public class OffHeapEmployeeService extends EmployeeService {
+
+    private final OffHeapEmployeeStore store;
+
+    // Kolumnowa migawka razem z wersją danych, z której powstała
+    private volatile ColumnsSnapshot columns;
+
+    public OffHeapEmployeeService(
+            @Value("${app.storage.offheap.segment-bytes:" + OffHeapEmployeeStore.DEFAULT_SEGMENT_BYTES + "}") int segmentBytes) {
+        this.store = new OffHeapEmployeeStore(segmentBytes);
+    }
+
+    @Override
+    public boolean addEmployee(Employee employee) {
+        if (employee == null) {
+            throw new IllegalArgumentException("Employee cannot be null");
+        }
+        String key = emailKey(employee.getEmail());
+        return write(() -> {
+            if (store.contains(key)) {
+                throw new DuplicateEmailException(employee.getEmail());
+            }
+            changeListener.employeeSaved(employee);
+            store.add(employee);
+            dataChanged(employee.getCompany());
+            return true;
+        }, key);
+    }
+
+    @Override
+    public boolean[] addEmployees(List<Employee> batch) {
+        for (Employee employee : batch) {
+            if (employee == null) {
+                throw new IllegalArgumentException("Employee cannot be null");
+            }
+        }
+        boolean[] added = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Employee employee = batch.get(i);
+            String key = emailKey(employee.getEmail());
+            added[i] = write(() -> {
+                if (store.contains(key)) {
+                    return false;
+                }
+                changeListener.employeeSaved(employee);
+                store.add(employee);
+                dataChanged(employee.getCompany());
+                return true;
+            }, key);
+        }
+        return added;
+    }
+
+    @Override
+    public Optional<Employee> updateEmployee(String email, Employee updatedEmployee) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        if (updatedEmployee == null) {
+            throw new IllegalArgumentException("Updated employee cannot be null");
+        }
+
+        String oldKey = emailKey(email);
+        String newKey = emailKey(updatedEmployee.getEmail());
+        return write(() -> {
+            Employee existing = store.findByEmail(oldKey).orElse(null);
+            if (existing == null) {
+                return Optional.empty();
+            }
+            if (!newKey.equals(oldKey) && store.contains(newKey)) {
+                throw new DuplicateEmailException(updatedEmployee.getEmail());
+            }
+            changeListener.employeeReplaced(existing.getEmail(), updatedEmployee);
+            store.update(oldKey, updatedEmployee);
+            dataChanged(existing.getCompany());
+            dataChanged(updatedEmployee.getCompany());
+            return Optional.of(updatedEmployee);
+        }, oldKey, newKey);
+    }
+
+    @Override
+    public boolean deleteEmployee(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee removed = store.findByEmail(key).orElse(null);
+            if (removed == null) {
+                return false;
+            }
+            changeListener.employeeRemoved(removed.getEmail());
+            store.delete(key);
+            dataChanged(removed.getCompany());
+            return true;
+        }, key);
+    }
+
+    @Override
+    public Optional<Employee> updateEmployeeStatus(String email, EmploymentStatus newStatus) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        if (newStatus == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee employee = store.findByEmail(key).orElse(null);
+            if (employee == null) {
+                return Optional.empty();
+            }
+            changeListener.employeeSaved(copyOf(employee, newStatus, employee.getPhotoFileName()));
+            Optional<Employee> updated = store.updateStatus(key, newStatus);
+            if (employee.getStatus() != newStatus) {
+                dataChanged(employee.getCompany());
+            }
+            return updated;
+        }, key);
+    }
+
+    @Override
+    public Optional<Employee> updateEmployeePhoto(String email, String photoFileName) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+
+        String key = emailKey(email);
+        return write(() -> {
+            Employee employee = store.findByEmail(key).orElse(null);
+            if (employee == null) {
+                return Optional.empty();
+            }
+            Employee updated = copyOf(employee, employee.getStatus(), photoFileName);
+            changeListener.employeeSaved(updated);
+            store.update(key, updated);
+            dataChanged(employee.getCompany());
+            return Optional.of(updated);
+        }, key);
+    }
+
+    @Override
+    void restoreEmployee(Employee employee) {
+        String key = emailKey(employee.getEmail());
+        write(() -> {
+            Employee existing = store.findByEmail(key).orElse(null);
+            if (existing != null) {
+                store.update(key, employee);
+                dataChanged(existing.getCompany());
+            } else {
+                store.add(employee);
+            }
+            dataChanged(employee.getCompany());
+            return null;
+        }, key);
+    }
+
+    @Override
+    void restoreRemoval(String email) {
+        String key = emailKey(email);
+        write(() -> {
+            Employee removed = store.findByEmail(key).orElse(null);
+            if (removed != null) {
+                store.delete(key);
+                dataChanged(removed.getCompany());
+            }
+            return null;
+        }, key);
+    }
+
+    @Override
+    public Optional<Employee> findEmployeeByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        return store.findByEmail(email);
+    }
+
+    // Wszyscy pracownicy uporządkowani po emailu (jak w EmployeeService) - dekodowanie i sortowanie przy każdym odczycie
+    @Override
+    public List<Employee> getAllEmployees() {
+        return new ArrayList<>(byEmail().values());
+    }
+
+    // Strona listy - jeden przegląd magazynu z zachowaniem tylko limit najmniejszych emaili po kursorze
+    @Override
+    public List<Employee> getEmployeesPage(String after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        String cursor = after == null || after.isBlank() ? null : emailKey(after);
+        TreeMap<String, Employee> page = new TreeMap<>();
+        store.forEach(employee -> {
+            String key = emailKey(employee.getEmail());
+            if (cursor == null || key.compareTo(cursor) > 0) {
+                page.put(key, employee);
+                if (page.size() > limit) {
+                    page.pollLastEntry();
+                }
+            }
+        });
+        return new ArrayList<>(page.values());
+    }
+
+    @Override
+    public EmployeeColumns getColumnarSnapshot() {
+        ColumnsSnapshot current = columns;
+        if (current != null && current.version() == getDataVersion()) {
+            return current.columns();
+        }
+        // Pod blokadą wyłączną wersja danych nie zmienia się w trakcie budowania
+        return readConsistent(() -> {
+            ColumnsSnapshot snapshot = columns;
+            if (snapshot == null || snapshot.version() != getDataVersion()) {
+                List<Employee> all = new ArrayList<>(store.size());
+                store.forEach(all::add);
+                snapshot = new ColumnsSnapshot(getDataVersion(), EmployeeColumns.of(all));
+                columns = snapshot;
+            }
+            return snapshot.columns();
+        });
+    }
+
+    // Zdekodowana kopia w kolejności getAllEmployees() - magazyn nie udostępnia widoku bez dekodowania
+    @Override
+    public Collection<Employee> getEmployeesView() {
+        return Collections.unmodifiableList(getAllEmployees());
+    }
+
+    @Override
+    public List<Employee> findEmployeesByStatus(EmploymentStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        return select(employee -> employee.getStatus() == status);
+    }
+
+    @Override
+    public List<Employee> findEmployeesInCompany(String company) {
+        if (company == null || company.isBlank()) {
+            throw new IllegalArgumentException("Company name cannot be null or blank");
+        }
+        return select(employee -> employee.getCompany().equals(company));
+    }
+
+    @Override
+    public List<Employee> getEmployeesSortedByLastName() {
+        return new ArrayList<>(byLastName(employee -> true).values());
+    }
+
+    @Override
+    public List<Employee> findEmployeesByLastNamePrefix(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Last name prefix cannot be null or blank");
+        }
+        return new ArrayList<>(byLastName(
+                employee -> employee.getLastName().regionMatches(true, 0, prefix, 0, prefix.length())).values());
+    }
+
+    @Override
+    public Map<Position, List<Employee>> getEmployeesGroupedByPosition() {
+        Map<Position, List<Employee>> grouped = new EnumMap<>(Position.class);
+        store.forEach(employee -> grouped.computeIfAbsent(employee.getPosition(), position -> new ArrayList<>())
+                .add(employee));
+        grouped.values().forEach(members -> members.sort(EmployeeGroup.BY_SALARY_DESC));
+        return grouped;
+    }
+
+    @Override
+    public Map<Position, Long> countEmployeesOnPositions() {
+        Map<Position, Long> counts = new EnumMap<>(Position.class);
+        store.forEach(employee -> counts.merge(employee.getPosition(), 1L, Long::sum));
+        return counts;
+    }
+
+    // Średnia z pól o stałym położeniu w rekordach - bez dekodowania tekstów
+    @Override
+    public double averageSalary() {
+        return store.averageSalary();
+    }
+
+    @Override
+    public double averageSalaryByCompany(String company) {
+        if (company == null || company.isBlank()) {
+            throw new IllegalArgumentException("Company name cannot be null or blank");
+        }
+        return totals(company).getAverageSalary();
+    }
+
+    @Override
+    public Double getHighestSalaryInCompany(String company) {
+        if (company == null || company.isBlank()) {
+            throw new IllegalArgumentException("Company name cannot be null or blank");
+        }
+        Employee top = totals(company).top;
+        return top != null ? top.getSalary() : 0.0;
+    }
+
+    @Override
+    public Map<String, Long> getEmployeeStatusDistribution() {
+        Map<String, Long> distribution = new HashMap<>();
+        store.forEach(employee -> distribution.merge(employee.getStatus().name(), 1L, Long::sum));
+        return distribution;
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeWithHighestSalary() {
+        GroupTotals totals = new GroupTotals();
+        store.forEach(totals::add);
+        return Optional.ofNullable(totals.top);
+    }
+
+    @Override
+    public List<Employee> validateSalaryConsistency() {
+        return byEmail().values().stream()
+                .filter(e -> e.getSalary() < e.getPosition().getBaseSalary())
+                .toList();
+    }
+
+    @Override
+    public Map<String, CompanyStatistics> getCompanyStatistics() {
+        Map<String, GroupTotals> byCompany = new HashMap<>();
+        store.forEach(employee -> byCompany.computeIfAbsent(employee.getCompany(), company -> new GroupTotals())
+                .add(employee));
+        Map<String, CompanyStatistics> result = new HashMap<>();
+        byCompany.forEach((company, totals) -> result.put(company, totals.getStatistics()));
+        return result;
+    }
+
+    @Override
+    public Optional<CompanyStatistics> getCompanyStatistics(String company) {
+        GroupTotals totals = totals(company);
+        return totals.top == null ? Optional.empty() : Optional.of(totals.getStatistics());
+    }
+
+    private NavigableMap<String, Employee> byEmail() {
+        NavigableMap<String, Employee> sorted = new TreeMap<>();
+        store.forEach(employee -> sorted.put(emailKey(employee.getEmail()), employee));
+        return sorted;
+    }
+
+    private NavigableMap<LastNameKey, Employee> byLastName(Predicate<Employee> filter) {
+        NavigableMap<LastNameKey, Employee> sorted = new TreeMap<>();
+        store.forEach(employee -> {
+            if (filter.test(employee)) {
+                sorted.put(lastNameKey(employee), employee);
+            }
+        });
+        return sorted;
+    }
+
+    // Pracownicy spełniający warunek w kolejności grup EmployeeService (malejąco po wynagrodzeniu)
+    private List<Employee> select(Predicate<Employee> filter) {
+        List<Employee> result = new ArrayList<>();
+        store.forEach(employee -> {
+            if (filter.test(employee)) {
+                result.add(employee);
+            }
+        });
+        result.sort(EmployeeGroup.BY_SALARY_DESC);
+        return result;
+    }
+
+    private GroupTotals totals(String company) {
+        GroupTotals totals = new GroupTotals();
+        store.forEach(employee -> {
+            if (employee.getCompany().equals(company)) {
+                totals.add(employee);
+            }
+        });
+        return totals;
+    }
+
+    private record ColumnsSnapshot(long version, EmployeeColumns columns) {
+    }
+
+    // Agregat jednego przeglądu: liczba, suma wynagrodzeń i najlepiej zarabiający - bez zapamiętywania członków grupy
+    private static final class GroupTotals {
+
+        private final SalaryAggregate salaries = new SalaryAggregate();
+        private Employee top;
+
+        void add(Employee employee) {
+            salaries.add(employee.getSalary());
+            if (top == null || EmployeeGroup.BY_SALARY_DESC.compare(employee, top) < 0) {
+                top = employee;
+            }
+        }
+
+        double getAverageSalary() {
+            return salaries.getAverageSalary();
+        }
+
+        CompanyStatistics getStatistics() {
+            return new CompanyStatistics(
+                    salaries.getCount(),
+                    salaries.getAverageSalary(),
+                    top.getFirstName() + " " + top.getLastName(),
+                    top.getSalary());
+        }
+    }
+}
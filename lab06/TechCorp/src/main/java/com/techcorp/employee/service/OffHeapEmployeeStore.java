@@ -0,0 +1,584 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.dto.EmployeeDTO;
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Magazyn pracowników poza stertą - alternatywa dla map obiektów Employee przy dziesiątkach milionów rekordów.
+ *
+ * Rekordy zapisywane są w zwartym formacie binarnym w segmentach ByteBuffer.allocateDirect,
+ * więc GC nie przegląda milionów obiektów Employee i String. Na stercie zostają tylko:
+ * indeks emaili (tablice long[]/int[] z adresowaniem otwartym - bez obiektu na rekord)
+ * i słownik nazw firm. Obiekty Employee / EmployeeDTO tworzone są dopiero przy odczycie
+ * i są kopiami - zmiany trzeba zapisać przez update() lub updateStatus().
+ *
+ * Format rekordu (wyrównany do 8 bajtów):
+ * <pre>
+ *  0  int    długość rekordu w bajtach
+ *  4  byte   1 = aktywny, 0 = usunięty
+ *  5  byte   numer porządkowy Position
+ *  6  byte   numer porządkowy EmploymentStatus
+ *  8  double wynagrodzenie
+ * 16  int    identyfikator firmy w słowniku
+ * 20  short + UTF-8: imię, nazwisko, email, nazwa pliku zdjęcia (długość -1 = brak zdjęcia)
+ * </pre>
+ * Usunięcie oznacza rekord jako nieaktywny, aktualizacja dopisuje nową wersję na końcu.
+ * Gdy nieaktywne rekordy zajmują więcej niż połowę pamięci, magazyn jest kompaktowany.
+ */
+public final class OffHeapEmployeeStore {
+
+    static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int LENGTH = 0;
+    private static final int FLAGS = 4;
+    private static final int POSITION = 5;
+    private static final int STATUS = 6;
+    private static final int SALARY = 8;
+    private static final int COMPANY = 16;
+    private static final int STRINGS = 20;
+
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 0;
+    private static final short NO_VALUE = -1;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final EmploymentStatus[] STATUSES = EmploymentStatus.values();
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private final int segmentBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private List<ByteBuffer> segments = new ArrayList<>();
+    private int writePosition;
+
+    // Indeks emaili: adresowanie otwarte z sondowaniem liniowym; 0 = pusty slot, w pozostałych adres rekordu + 1
+    private long[] slots = new long[INITIAL_INDEX_CAPACITY];
+    private int[] slotHashes = new int[INITIAL_INDEX_CAPACITY];
+    private int size;
+
+    private final List<String> companyNames = new ArrayList<>();
+    private final Map<String, Integer> companyIds = new HashMap<>();
+
+    private long usedBytes;
+    private long deletedBytes;
+
+    public OffHeapEmployeeStore() {
+        this(DEFAULT_SEGMENT_BYTES);
+    }
+
+    public OffHeapEmployeeStore(int segmentBytes) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes");
+        }
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Dodaje pracownika; rzuca DuplicateEmailException, jeśli email (bez rozróżniania wielkości liter) jest zajęty.
+     */
+    public boolean add(Employee employee) {
+        if (employee == null) {
+            throw new IllegalArgumentException("Employee cannot be null");
+        }
+        String key = emailKey(employee.getEmail());
+        int hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            if (findSlot(key, hash) >= 0) {
+                throw new DuplicateEmailException(employee.getEmail());
+            }
+            insertSlot(hash, append(employee));
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sprawdzenie zajętości emaila bez dekodowania rekordu.
+     */
+    public boolean contains(String email) {
+        if (email == null || email.isBlank()) {
+            return false;
+        }
+        String key = emailKey(email);
+        lock.readLock().lock();
+        try {
+            return findSlot(key, hash(key)) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Employee> findByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        String key = emailKey(email);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            return slot < 0 ? Optional.empty() : Optional.of(decodeEmployee(slots[slot] - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Odczyt od razu jako DTO (np. dla REST) - bez pośredniego obiektu Employee.
+     */
+    public Optional<EmployeeDTO> findDtoByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        String key = emailKey(email);
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            return slot < 0 ? Optional.empty() : Optional.of(decodeDto(slots[slot] - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zastępuje dane pracownika (również email); pusty Optional, jeśli pracownik nie istnieje.
+     */
+    public Optional<Employee> update(String email, Employee updatedEmployee) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        if (updatedEmployee == null) {
+            throw new IllegalArgumentException("Updated employee cannot be null");
+        }
+        String oldKey = emailKey(email);
+        String newKey = emailKey(updatedEmployee.getEmail());
+        lock.writeLock().lock();
+        try {
+            int oldHash = hash(oldKey);
+            int slot = findSlot(oldKey, oldHash);
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            int newHash = hash(newKey);
+            if (!newKey.equals(oldKey) && findSlot(newKey, newHash) >= 0) {
+                throw new DuplicateEmailException(updatedEmployee.getEmail());
+            }
+            // Najpierw zapis nowej wersji - jeśli rekord jest za duży, stara wersja zostaje nienaruszona
+            long address = append(updatedEmployee);
+            markDeleted(slots[slot] - 1);
+            removeSlot(slot);
+            insertSlot(newHash, address);
+            compactIfNeeded();
+            return Optional.of(updatedEmployee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Zmiana statusu w miejscu - status ma stałą szerokość, więc rekord nie jest przepisywany.
+     */
+    public Optional<Employee> updateStatus(String email, EmploymentStatus newStatus) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        if (newStatus == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        String key = emailKey(email);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            long address = slots[slot] - 1;
+            segment(address).put(offset(address) + STATUS, (byte) newStatus.ordinal());
+            return Optional.of(decodeEmployee(address));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean delete(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email cannot be null or blank");
+        }
+        String key = emailKey(email);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash(key));
+            if (slot < 0) {
+                return false;
+            }
+            markDeleted(slots[slot] - 1);
+            removeSlot(slot);
+            size--;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Przekazuje kolejnych pracowników (w kolejności zapisu), dekodując po jednym -
+     * w pamięci naraz jest tylko bieżący obiekt, jeśli odbiorca go nie zatrzymuje.
+     */
+    public void forEach(Consumer<Employee> action) {
+        lock.readLock().lock();
+        try {
+            for (int s = 0; s < segments.size(); s++) {
+                ByteBuffer segment = segments.get(s);
+                int end = s == segments.size() - 1 ? writePosition : segment.limit();
+                for (int offset = 0; offset < end; offset += segment.getInt(offset + LENGTH)) {
+                    if (segment.get(offset + FLAGS) == LIVE) {
+                        action.accept(decodeEmployee(address(s, offset)));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Średnie wynagrodzenie - odczyt tylko pól o stałym położeniu, bez dekodowania tekstów.
+     */
+    public double averageSalary() {
+        lock.readLock().lock();
+        try {
+            double sum = 0;
+            long count = 0;
+            for (int s = 0; s < segments.size(); s++) {
+                ByteBuffer segment = segments.get(s);
+                int end = s == segments.size() - 1 ? writePosition : segment.limit();
+                for (int offset = 0; offset < end; offset += segment.getInt(offset + LENGTH)) {
+                    if (segment.get(offset + FLAGS) == LIVE) {
+                        sum += segment.getDouble(offset + SALARY);
+                        count++;
+                    }
+                }
+            }
+            return count == 0 ? 0 : sum / count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bajty poza stertą zajęte przez rekordy (aktywne i usunięte, jeszcze nieodzyskane).
+     */
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Przepisuje aktywne rekordy do nowych segmentów i odbudowuje indeks; stare segmenty zwolni GC.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            List<ByteBuffer> oldSegments = segments;
+            int oldWritePosition = writePosition;
+            segments = new ArrayList<>();
+            writePosition = 0;
+            usedBytes = 0;
+            deletedBytes = 0;
+            int capacity = INITIAL_INDEX_CAPACITY;
+            while (capacity < size * 2) {
+                capacity <<= 1;
+            }
+            slots = new long[capacity];
+            slotHashes = new int[capacity];
+
+            for (int s = 0; s < oldSegments.size(); s++) {
+                ByteBuffer segment = oldSegments.get(s);
+                int end = s == oldSegments.size() - 1 ? oldWritePosition : segment.limit();
+                for (int offset = 0; offset < end; offset += segment.getInt(offset + LENGTH)) {
+                    if (segment.get(offset + FLAGS) == LIVE) {
+                        long address = copyRecord(segment, offset);
+                        insertSlot(hash(emailKey(readEmail(address))), address);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedBytes > segmentBytes && deletedBytes * 2 > usedBytes) {
+            compact();
+        }
+    }
+
+    // --- zapis rekordów ---
+
+    private long append(Employee employee) {
+        byte[] firstName = utf8(employee.getFirstName());
+        byte[] lastName = utf8(employee.getLastName());
+        byte[] email = utf8(employee.getEmail());
+        byte[] photo = employee.getPhotoFileName() != null ? utf8(employee.getPhotoFileName()) : null;
+
+        int length = STRINGS + 2 + firstName.length + 2 + lastName.length + 2 + email.length
+                + 2 + (photo != null ? photo.length : 0);
+        length = (length + 7) & ~7;
+        if (length > segmentBytes) {
+            throw new IllegalArgumentException("Employee record is too large: " + length + " bytes");
+        }
+
+        long address = reserve(length);
+        ByteBuffer segment = segment(address);
+        int offset = offset(address);
+        segment.putInt(offset + LENGTH, length);
+        segment.put(offset + FLAGS, LIVE);
+        segment.put(offset + POSITION, (byte) employee.getPosition().ordinal());
+        segment.put(offset + STATUS, (byte) employee.getStatus().ordinal());
+        segment.putDouble(offset + SALARY, employee.getSalary());
+        segment.putInt(offset + COMPANY, companyId(employee.getCompany()));
+        int position = offset + STRINGS;
+        position = putString(segment, position, firstName);
+        position = putString(segment, position, lastName);
+        position = putString(segment, position, email);
+        putString(segment, position, photo);
+        return address;
+    }
+
+    private long copyRecord(ByteBuffer source, int sourceOffset) {
+        int length = source.getInt(sourceOffset + LENGTH);
+        long address = reserve(length);
+        segment(address).put(offset(address), source, sourceOffset, length);
+        return address;
+    }
+
+    // Rezerwuje miejsce na rekord; rekord nigdy nie jest dzielony między segmenty
+    private long reserve(int length) {
+        if (segments.isEmpty() || writePosition + length > segmentBytes) {
+            if (!segments.isEmpty()) {
+                // koniec poprzedniego segmentu - forEach czyta go do limitu
+                segments.get(segments.size() - 1).limit(writePosition);
+            }
+            segments.add(ByteBuffer.allocateDirect(segmentBytes));
+            writePosition = 0;
+        }
+        long address = address(segments.size() - 1, writePosition);
+        writePosition += length;
+        usedBytes += length;
+        return address;
+    }
+
+    private void markDeleted(long address) {
+        ByteBuffer segment = segment(address);
+        int offset = offset(address);
+        segment.put(offset + FLAGS, DELETED);
+        deletedBytes += segment.getInt(offset + LENGTH);
+    }
+
+    private int companyId(String company) {
+        Integer id = companyIds.get(company);
+        if (id == null) {
+            id = companyNames.size();
+            companyNames.add(company);
+            companyIds.put(company, id);
+        }
+        return id;
+    }
+
+    private static int putString(ByteBuffer segment, int position, byte[] value) {
+        if (value == null) {
+            segment.putShort(position, NO_VALUE);
+            return position + 2;
+        }
+        segment.putShort(position, (short) value.length);
+        segment.put(position + 2, value);
+        return position + 2 + value.length;
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Employee field is too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    // --- odczyt rekordów ---
+
+    private Employee decodeEmployee(long address) {
+        ByteBuffer segment = segment(address);
+        int offset = offset(address);
+        int position = offset + STRINGS;
+        String firstName = getString(segment, position);
+        position += stringBytes(segment, position);
+        String lastName = getString(segment, position);
+        position += stringBytes(segment, position);
+        String email = getString(segment, position);
+        position += stringBytes(segment, position);
+        String photo = getString(segment, position);
+
+        Employee employee = new Employee(firstName, lastName, email,
+                companyNames.get(segment.getInt(offset + COMPANY)),
+                POSITIONS[segment.get(offset + POSITION)],
+                segment.getDouble(offset + SALARY),
+                STATUSES[segment.get(offset + STATUS)]);
+        employee.setPhotoFileName(photo);
+        return employee;
+    }
+
+    private EmployeeDTO decodeDto(long address) {
+        ByteBuffer segment = segment(address);
+        int offset = offset(address);
+        int position = offset + STRINGS;
+        String firstName = getString(segment, position);
+        position += stringBytes(segment, position);
+        String lastName = getString(segment, position);
+        position += stringBytes(segment, position);
+        String email = getString(segment, position);
+
+        return new EmployeeDTO(firstName, lastName, email,
+                companyNames.get(segment.getInt(offset + COMPANY)),
+                POSITIONS[segment.get(offset + POSITION)].name(),
+                segment.getDouble(offset + SALARY),
+                STATUSES[segment.get(offset + STATUS)].name());
+    }
+
+    private String readEmail(long address) {
+        ByteBuffer segment = segment(address);
+        int position = offset(address) + STRINGS;
+        position += stringBytes(segment, position);
+        position += stringBytes(segment, position);
+        return getString(segment, position);
+    }
+
+    private static String getString(ByteBuffer segment, int position) {
+        short length = segment.getShort(position);
+        if (length == NO_VALUE) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(ByteBuffer segment, int position) {
+        short length = segment.getShort(position);
+        return 2 + (length == NO_VALUE ? 0 : length);
+    }
+
+    private ByteBuffer segment(long address) {
+        return segments.get((int) (address >>> 32));
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static long address(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    // --- indeks emaili ---
+
+    private int findSlot(String key, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && emailKey(readEmail(slots[slot] - 1)).equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int hash, long address) {
+        if ((size + 1) * 2 > slots.length) {
+            resizeIndex();
+        }
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = address + 1;
+        slotHashes[slot] = hash;
+    }
+
+    // Usunięcie z przesunięciem kolejnych wpisów wstecz - bez znaczników usunięcia w tablicy
+    private void removeSlot(int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = slotHashes[next] & mask;
+            // wpis można przesunąć do dziury, jeśli jego pozycja docelowa nie leży między dziurą a nim
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                slotHashes[hole] = slotHashes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+        slotHashes[hole] = 0;
+    }
+
+    private void resizeIndex() {
+        long[] oldSlots = slots;
+        int[] oldHashes = slotHashes;
+        slots = new long[oldSlots.length * 2];
+        slotHashes = new int[oldSlots.length * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = oldSlots[i];
+                slotHashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    // Rozproszenie bitów hashCode - sondowanie liniowe źle znosi skupione wartości
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
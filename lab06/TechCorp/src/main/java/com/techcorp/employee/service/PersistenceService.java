@@ -0,0 +1,516 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.FileStorageException;
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Trwałość danych EmployeeService i metadanych dokumentów DocumentService:
+ * dziennik zmian (WriteAheadLog) oraz okresowe migawki w zwartym formacie binarnym.
+ *
+ * Każda zmiana jest zapisywana do dziennika przed zastosowaniem w pamięci jako pełny nowy stan
+ * pracownika/dokumentu albo jego usunięcie - ponowne zastosowanie wpisu daje ten sam wynik.
+ * Migawka wstrzymuje zapisy tylko na czas przełączenia dziennika na nowy segment i skopiowania stanu
+ * (bez zapisu na dysk) - wszystko, co zawiera stary segment, jest wtedy w kopii, więc po wczytaniu migawki
+ * i odtworzeniu segmentów od nowego numeru stan jest zawsze aktualny.
+ *
+ * Trwałość jest wsadowa: wpis trafia do bufora dziennika, a fsync wykonuje się co flush-interval-ms.
+ * Zmiana potwierdzona klientowi może więc zginąć przy awarii procesu lub systemu, jeśli nastąpi przed
+ * najbliższym fsync - okno utraty to flush-interval-ms (domyślnie 50 ms) plus czas samego zapisu.
+ *
+ * Przy starcie recover() wczytuje najnowszą poprawną migawkę i odtwarza dziennik od jej segmentu.
+ * Import z CSV, XML i zewnętrznego API jest pomijany tylko wtedy, gdy w katalogu jest znacznik
+ * IMPORT_MARKER (markImportCompleted()) - stan po przerwanym imporcie nie blokuje jego powtórzenia.
+ *
+ * Trwałość jest domyślnie wyłączona (app.persistence.enabled=false); katalog danych app.persistence.directory
+ * jest względny wobec katalogu roboczego aplikacji, tak jak katalogi uploadów i raportów.
+ */
+@Service
+public class PersistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceService.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x54435331; // "TCS1"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    // Plik-znacznik zapisywany po zakończeniu importu startowego
+    static final String IMPORT_MARKER = "import-completed";
+
+    // Typy wpisów dziennika
+    private static final byte EMPLOYEE_SAVED = 1;
+    private static final byte EMPLOYEE_REPLACED = 2;
+    private static final byte EMPLOYEE_REMOVED = 3;
+    private static final byte DOCUMENT_SAVED = 4;
+    private static final byte DOCUMENT_REMOVED = 5;
+
+    private final EmployeeService employeeService;
+    private final DocumentService documentService;
+    private final boolean enabled;
+    private final Path directory;
+    private final long flushIntervalMillis;
+    private final long snapshotThresholdBytes;
+
+    private final Object snapshotMonitor = new Object();
+    private volatile WriteAheadLog wal;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean recovered;
+    private volatile boolean importCompleted;
+
+    public PersistenceService(
+            EmployeeService employeeService,
+            DocumentService documentService,
+            @Value("${app.persistence.enabled:false}") boolean enabled,
+            @Value("${app.persistence.directory:data/}") String directory,
+            @Value("${app.persistence.flush-interval-ms:50}") long flushIntervalMillis,
+            @Value("${app.persistence.snapshot-threshold-bytes:67108864}") long snapshotThresholdBytes) {
+        this.employeeService = employeeService;
+        this.documentService = documentService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.snapshotThresholdBytes = snapshotThresholdBytes;
+    }
+
+    /**
+     * Odtworzenie stanu przy tworzeniu beana - przed przyjęciem pierwszego żądania i przed importem startowym.
+     */
+    @PostConstruct
+    void start() throws IOException {
+        recovered = recover();
+    }
+
+    /**
+     * Czy przy starcie odtworzono dane z migawki lub dziennika.
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Czy import startowy został kiedyś ukończony na tym katalogu danych - wtedy odtworzony stan jest kompletny
+     * i import można pominąć. Odtworzone dane bez znacznika pochodzą z przerwanego importu.
+     */
+    public boolean isImportCompleted() {
+        return importCompleted;
+    }
+
+    /**
+     * Zapisuje znacznik ukończenia importu startowego. Najpierw wymusza zapis dziennika na dysk,
+     * więc znacznik nigdy nie wyprzedza zaimportowanych danych.
+     */
+    public void markImportCompleted() throws IOException {
+        WriteAheadLog current = wal;
+        if (current == null) {
+            return;
+        }
+        current.sync();
+        try (FileChannel marker = FileChannel.open(directory.resolve(IMPORT_MARKER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            marker.force(true);
+        }
+        importCompleted = true;
+    }
+
+    /**
+     * Odtwarza stan z migawki i dziennika, a następnie zaczyna rejestrować zmiany.
+     * Musi być wywołane przed pierwszą zmianą danych (np. przed importem przy starcie aplikacji).
+     *
+     * @return true, jeśli odtworzono jakiekolwiek dane (o pominięciu importu decyduje isImportCompleted())
+     */
+    public synchronized boolean recover() throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        if (wal != null) {
+            throw new IllegalStateException("Persistence has already been started");
+        }
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        importCompleted = Files.exists(directory.resolve(IMPORT_MARKER));
+
+        long firstSegment = loadLatestSnapshot();
+        boolean recovered = firstSegment >= 0;
+        firstSegment = Math.max(firstSegment, 0);
+
+        long[] replayed = {0};
+        long lastSegment = WriteAheadLog.replay(directory, firstSegment, record -> {
+            applyRecord(record);
+            replayed[0]++;
+        });
+        recovered |= replayed[0] > 0;
+
+        wal = new WriteAheadLog(directory, Math.max(lastSegment + 1, firstSegment));
+        Journal journal = new Journal();
+        employeeService.setChangeListener(journal);
+        documentService.setChangeListener(journal);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "persistence-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushAndSnapshotIfNeeded,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        if (recovered) {
+            log.info("Odtworzono stan z {}: {} pracowników, {} dokumentów ({} wpisów dziennika) w {} ms",
+                    directory, employeeService.getEmployeesView().size(), documentService.getAllDocuments().size(),
+                    replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return recovered;
+    }
+
+    /**
+     * Zapisuje migawkę bieżącego stanu i usuwa segmenty dziennika, które obejmuje.
+     */
+    public void snapshot() throws IOException {
+        WriteAheadLog current = wal;
+        if (current == null) {
+            return;
+        }
+        synchronized (snapshotMonitor) {
+            // Przełączenie segmentu i kopia stanu przy wstrzymanych zapisach: zmiana zapisana do starego segmentu
+            // jest już zastosowana w pamięci (trafi do migawki), a każda późniejsza trafi do nowego segmentu
+            SnapshotState state;
+            try {
+                state = employeeService.readConsistent(() -> documentService.readConsistent(() -> {
+                    try {
+                        return new SnapshotState(current.rotate(), employeeService.getAllEmployees(),
+                                documentService.getAllDocuments());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long firstSegment = state.firstSegment();
+            List<Employee> employees = state.employees();
+            List<EmployeeDocument> documents = state.documents();
+
+            Path target = snapshotPath(firstSegment);
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 64 * 1024), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(firstSegment);
+                out.writeInt(employees.size());
+                for (Employee employee : employees) {
+                    writeEmployee(out, employee);
+                }
+                out.writeInt(documents.size());
+                for (EmployeeDocument document : documents) {
+                    writeDocument(out, document);
+                }
+                out.writeInt((int) checked.getChecksum().getValue());
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long segment : listSnapshots()) {
+                if (segment < firstSegment) {
+                    Files.deleteIfExists(snapshotPath(segment));
+                }
+            }
+            current.deleteSegmentsBefore(firstSegment);
+            log.info("Zapisano migawkę {}: {} pracowników, {} dokumentów", target.getFileName(),
+                    employees.size(), documents.size());
+        }
+    }
+
+    /**
+     * Przy zamykaniu aplikacji: migawka (kolejny start nie musi odtwarzać dziennika) i zamknięcie dziennika.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        WriteAheadLog current = wal;
+        if (current == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            snapshot();
+        } catch (IOException e) {
+            log.error("Nie udało się zapisać migawki przy zamykaniu: {}", e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        employeeService.setChangeListener(null);
+        documentService.setChangeListener(null);
+        try {
+            current.close();
+        } catch (IOException e) {
+            log.error("Nie udało się zamknąć dziennika: {}", e.getMessage(), e);
+        }
+        wal = null;
+    }
+
+    /**
+     * Wymusza zapis na dysk wszystkich zarejestrowanych zmian.
+     */
+    public void sync() throws IOException {
+        WriteAheadLog current = wal;
+        if (current != null) {
+            current.sync();
+        }
+    }
+
+    private void flushAndSnapshotIfNeeded() {
+        try {
+            WriteAheadLog current = wal;
+            if (current == null) {
+                return;
+            }
+            current.sync();
+            if (current.currentSegmentBytes() > snapshotThresholdBytes) {
+                snapshot();
+            }
+        } catch (Exception e) {
+            log.error("Błąd zapisu dziennika: {}", e.getMessage(), e);
+        }
+    }
+
+    // --- odtwarzanie ---
+
+    // Wczytuje najnowszą poprawną migawkę; zwraca numer pierwszego segmentu dziennika do odtworzenia albo -1
+    private long loadLatestSnapshot() throws IOException {
+        List<Long> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path path = snapshotPath(snapshots.get(i));
+            try {
+                return loadSnapshot(path);
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Pominięto uszkodzoną migawkę {}: {}", path, e.getMessage());
+            }
+        }
+        return -1;
+    }
+
+    private long loadSnapshot(Path path) throws IOException {
+        List<Employee> employees;
+        List<EmployeeDocument> documents;
+        long firstSegment;
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unknown snapshot format");
+            }
+            firstSegment = in.readLong();
+            int employeeCount = in.readInt();
+            employees = new ArrayList<>(employeeCount);
+            for (int i = 0; i < employeeCount; i++) {
+                employees.add(readEmployee(in));
+            }
+            int documentCount = in.readInt();
+            documents = new ArrayList<>(documentCount);
+            for (int i = 0; i < documentCount; i++) {
+                documents.add(readDocument(in));
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+        }
+        // Stan stosowany dopiero po sprawdzeniu sumy kontrolnej całego pliku
+        employees.forEach(employeeService::restoreEmployee);
+        documents.forEach(documentService::restoreDocument);
+        return firstSegment;
+    }
+
+    private void applyRecord(byte[] record) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            byte type = in.readByte();
+            switch (type) {
+                case EMPLOYEE_SAVED -> employeeService.restoreEmployee(readEmployee(in));
+                case EMPLOYEE_REPLACED -> {
+                    String oldEmail = in.readUTF();
+                    Employee employee = readEmployee(in);
+                    employeeService.restoreRemoval(oldEmail);
+                    employeeService.restoreEmployee(employee);
+                }
+                case EMPLOYEE_REMOVED -> employeeService.restoreRemoval(in.readUTF());
+                case DOCUMENT_SAVED -> documentService.restoreDocument(readDocument(in));
+                case DOCUMENT_REMOVED -> documentService.restoreRemoval(in.readUTF());
+                default -> throw new IllegalStateException("Unknown WAL record type: " + type);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed WAL record", e);
+        }
+    }
+
+    // --- format binarny ---
+
+    private static void writeEmployee(DataOutput out, Employee employee) throws IOException {
+        out.writeUTF(employee.getFirstName());
+        out.writeUTF(employee.getLastName());
+        out.writeUTF(employee.getEmail());
+        out.writeUTF(employee.getCompany());
+        out.writeUTF(employee.getPosition().name());
+        out.writeDouble(employee.getSalary());
+        out.writeUTF(employee.getStatus().name());
+        writeNullable(out, employee.getPhotoFileName());
+    }
+
+    private static Employee readEmployee(DataInput in) throws IOException {
+        Employee employee = new Employee(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                Position.valueOf(in.readUTF()), in.readDouble(), EmploymentStatus.valueOf(in.readUTF()));
+        employee.setPhotoFileName(readNullable(in));
+        return employee;
+    }
+
+    private static void writeDocument(DataOutput out, EmployeeDocument document) throws IOException {
+        out.writeUTF(document.getId());
+        writeNullable(out, document.getEmployeeEmail());
+        writeNullable(out, document.getFileName());
+        writeNullable(out, document.getOriginalFileName());
+        writeNullable(out, document.getFileType() != null ? document.getFileType().name() : null);
+        writeNullable(out, document.getUploadDate() != null ? document.getUploadDate().toString() : null);
+        writeNullable(out, document.getFilePath());
+    }
+
+    private static EmployeeDocument readDocument(DataInput in) throws IOException {
+        EmployeeDocument document = new EmployeeDocument();
+        document.setId(in.readUTF());
+        document.setEmployeeEmail(readNullable(in));
+        document.setFileName(readNullable(in));
+        document.setOriginalFileName(readNullable(in));
+        String fileType = readNullable(in);
+        document.setFileType(fileType != null ? DocumentType.valueOf(fileType) : null);
+        String uploadDate = readNullable(in);
+        document.setUploadDate(uploadDate != null ? LocalDateTime.parse(uploadDate) : null);
+        document.setFilePath(readNullable(in));
+        return document;
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private List<Long> listSnapshots() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path snapshotPath(long firstSegment) {
+        return directory.resolve(String.format("snapshot-%020d.bin", firstSegment));
+    }
+
+    /**
+     * Zapis zmian do dziennika - wywoływany przez serwisy przed zastosowaniem zmiany.
+     */
+    private final class Journal implements EmployeeChangeListener, DocumentChangeListener {
+
+        @Override
+        public void employeeSaved(Employee employee) {
+            append(EMPLOYEE_SAVED, out -> writeEmployee(out, employee));
+        }
+
+        @Override
+        public void employeeReplaced(String oldEmail, Employee employee) {
+            append(EMPLOYEE_REPLACED, out -> {
+                out.writeUTF(oldEmail);
+                writeEmployee(out, employee);
+            });
+        }
+
+        @Override
+        public void employeeRemoved(String email) {
+            append(EMPLOYEE_REMOVED, out -> out.writeUTF(email));
+        }
+
+        @Override
+        public void documentSaved(EmployeeDocument document) {
+            append(DOCUMENT_SAVED, out -> writeDocument(out, document));
+        }
+
+        @Override
+        public void documentRemoved(String documentId) {
+            append(DOCUMENT_REMOVED, out -> out.writeUTF(documentId));
+        }
+
+        private void append(byte type, RecordWriter writer) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(type);
+                writer.write(out);
+                WriteAheadLog current = wal;
+                if (current == null) {
+                    throw new IOException("WAL is closed");
+                }
+                current.append(bytes.toByteArray());
+            } catch (IOException e) {
+                throw new FileStorageException("Nie udało się zapisać zmiany w dzienniku: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    private record SnapshotState(long firstSegment, List<Employee> employees, List<EmployeeDocument> documents) {
+    }
+}
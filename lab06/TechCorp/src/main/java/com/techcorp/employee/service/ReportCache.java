@@ -0,0 +1,215 @@
+package com.techcorp.employee.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pamięć podręczna wygenerowanych raportów, kluczowana nazwą raportu i wersją danych, z których powstał.
+ *
+ * Wpis jest ważny tylko dla tej samej wersji - po zmianie danych pierwsze odczytanie z nową wersją
+ * usuwa stary wpis, więc nic nie trzeba unieważniać z zewnątrz. W pamięci trzymane jest najwyżej
+ * maxBytes bajtów; po przekroczeniu usuwane są najdawniej używane wpisy (LRU). Przy włączonym zrzucaniu
+ * na dysk usunięte wpisy trafiają do katalogu raportów (pliki z prefiksem SPILL_PREFIX) i przy kolejnym
+ * trafieniu są z niego wczytywane zamiast generowane od nowa.
+ */
+final class ReportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCache.class);
+
+    static final String SPILL_PREFIX = "cache_";
+
+    private final long maxBytes;
+    private final FileStorageService spillStorage; // null - bez zrzucania na dysk
+
+    // accessOrder = true - iteracja od najdawniej używanego wpisu
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Spilled> spilled = new HashMap<>();
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    ReportCache(long maxBytes, FileStorageService spillStorage) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.spillStorage = spillStorage;
+        if (spillStorage != null) {
+            removeSpillFiles(spillStorage.getReportsLocation());
+        }
+    }
+
+    /**
+     * Raport dla klucza w podanej wersji danych albo null, jeśli trzeba go wygenerować.
+     */
+    byte[] get(String key, long version) {
+        Spilled onDisk;
+        List<String> staleFiles = new ArrayList<>();
+        synchronized (this) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (entry.version() == version) {
+                    hits.incrementAndGet();
+                    return entry.content();
+                }
+                remove(key);
+            }
+            onDisk = spilled.get(key);
+            if (onDisk != null && onDisk.version() != version) {
+                spilled.remove(key);
+                staleFiles.add(onDisk.filename());
+                onDisk = null;
+            }
+        }
+        deleteSpillFiles(staleFiles);
+
+        if (onDisk != null) {
+            byte[] content = readSpillFile(onDisk.filename());
+            if (content != null) {
+                diskHits.incrementAndGet();
+                put(key, version, content);
+                return content;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Zapamiętuje raport wygenerowany z danych w podanej wersji (odczytanej przed generowaniem).
+     * Raport większy niż cała pamięć podręczna nie jest zapamiętywany.
+     */
+    void put(String key, long version, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+        List<String> staleFiles = new ArrayList<>();
+        List<Map.Entry<String, Entry>> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = memory.get(key);
+            if (previous != null && previous.version() > version) {
+                return; // w międzyczasie zapamiętano nowszy raport
+            }
+            remove(key);
+            Spilled onDisk = spilled.remove(key);
+            if (onDisk != null) {
+                staleFiles.add(onDisk.filename());
+            }
+            memory.put(key, new Entry(version, content));
+            bytes += content.length;
+
+            Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> victim = eldest.next();
+                eldest.remove();
+                bytes -= victim.getValue().content().length;
+                evictions.incrementAndGet();
+                evicted.add(victim);
+            }
+        }
+        deleteSpillFiles(staleFiles);
+        // Zapis na dysk poza blokadą - do jego końca raport po prostu nie jest w pamięci podręcznej
+        for (Map.Entry<String, Entry> victim : evicted) {
+            spill(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = memory.remove(key);
+        if (removed != null) {
+            bytes -= removed.content().length;
+        }
+    }
+
+    private void spill(String key, Entry entry) {
+        if (spillStorage == null) {
+            return;
+        }
+        try {
+            String filename = spillStorage.saveReportFile(SPILL_PREFIX + key + ".bin", entry.content());
+            Spilled previous;
+            synchronized (this) {
+                if (memory.containsKey(key)) {
+                    previous = new Spilled(entry.version(), filename); // w pamięci jest już nowszy wpis
+                } else {
+                    previous = spilled.put(key, new Spilled(entry.version(), filename));
+                }
+            }
+            if (previous != null) {
+                deleteSpillFiles(List.of(previous.filename()));
+            }
+        } catch (IOException e) {
+            log.warn("Nie udało się zapisać raportu {} na dysk: {}", key, e.getMessage());
+        }
+    }
+
+    private byte[] readSpillFile(String filename) {
+        try (InputStream in = spillStorage.loadReportFile(filename).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("Nie udało się odczytać raportu z dysku {}: {}", filename, e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteSpillFiles(List<String> filenames) {
+        for (String filename : filenames) {
+            try {
+                spillStorage.deleteReportFile(filename);
+            } catch (IOException e) {
+                log.warn("Nie udało się usunąć nieaktualnego raportu {}: {}", filename, e.getMessage());
+            }
+        }
+    }
+
+    // Pliki z poprzedniego uruchomienia - wersje danych liczone są od nowa, więc żaden nie jest już ważny
+    private static void removeSpillFiles(Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SPILL_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Nie udało się usunąć starych raportów z {}: {}", directory, e.getMessage());
+        }
+    }
+
+    synchronized Statistics getStatistics() {
+        return new Statistics(hits.get(), diskHits.get(), misses.get(), evictions.get(),
+                memory.size(), bytes, spilled.size());
+    }
+
+    /**
+     * @param hits       raporty zwrócone z pamięci
+     * @param diskHits   raporty wczytane z dysku
+     * @param misses     raporty do wygenerowania (brak wpisu lub nieaktualna wersja)
+     * @param evictions  wpisy usunięte z pamięci z powodu limitu rozmiaru
+     */
+    record Statistics(long hits, long diskHits, long misses, long evictions,
+                      int entries, long bytes, int spilledEntries) {
+    }
+
+    private record Entry(long version, byte[] content) {
+    }
+
+    private record Spilled(long version, String filename) {
+    }
+}
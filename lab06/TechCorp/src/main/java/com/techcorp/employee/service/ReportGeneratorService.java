@@ -12,28 +12,60 @@ import com.techcorp.employee.model.Employee;
 import com.techcorp.employee.model.Position;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Serwis do generowania raportów w różnych formatach (CSV, PDF).
+ *
+ * Raporty PDF ze statystykami firm są zapamiętywane (ReportCache) razem z wersją danych firmy -
+ * dopóki pracownicy firmy się nie zmienią, raport jest zwracany bez ponownego składania dokumentu,
+ * a zmiana w jednej firmie nie unieważnia raportów pozostałych.
  */
 @Service
 public class ReportGeneratorService {
 
     private static final Logger log = LoggerFactory.getLogger(ReportGeneratorService.class);
 
+    private static final String CSV_HEADER = "First Name,Last Name,Email,Company,Position,Salary\n";
+    private static final int CSV_STREAM_BUFFER_SIZE = 8192;
+
     private final EmployeeService employeeService;
     private final FileStorageService fileStorageService;
+    private final ReportCache pdfCache; // null - raporty PDF generowane przy każdym żądaniu
 
+    /**
+     * Bez pamięci podręcznej raportów PDF.
+     */
     public ReportGeneratorService(EmployeeService employeeService, FileStorageService fileStorageService) {
+        this(employeeService, fileStorageService, 0, false);
+    }
+
+    /**
+     * @param cacheMaxBytes limit pamięci na zapamiętane raporty PDF; 0 - bez pamięci podręcznej
+     * @param cacheSpill    czy raporty usunięte z pamięci zapisywać w katalogu raportów
+     */
+    @Autowired
+    public ReportGeneratorService(EmployeeService employeeService, FileStorageService fileStorageService,
+                                  @Value("${app.reports.cache.max-bytes:0}") long cacheMaxBytes,
+                                  @Value("${app.reports.cache.spill:false}") boolean cacheSpill) {
         this.employeeService = employeeService;
         this.fileStorageService = fileStorageService;
+        this.pdfCache = cacheMaxBytes > 0
+                ? new ReportCache(cacheMaxBytes, cacheSpill ? fileStorageService : null)
+                : null;
     }
 
     /**
@@ -57,6 +89,28 @@ public class ReportGeneratorService {
         return generateCsvContent(employees);
     }
 
+    /**
+     * Zapisuje raport CSV ze wszystkimi pracownikami bezpośrednio do strumienia wyjściowego.
+     * Wiersze nie są gromadzone w pamięci - zużycie sterty nie zależy od liczby pracowników.
+     *
+     * @param out strumień docelowy (np. odpowiedź HTTP); nie jest zamykany
+     * @throws IOException jeśli wystąpi błąd zapisu
+     */
+    public void writeAllEmployeesCsvReport(OutputStream out) throws IOException {
+        writeCsvContent(employeeService.getEmployeesView(), out);
+    }
+
+    /**
+     * Zapisuje raport CSV dla wybranej firmy bezpośrednio do strumienia wyjściowego.
+     *
+     * @param companyName nazwa firmy
+     * @param out strumień docelowy; nie jest zamykany
+     * @throws IOException jeśli wystąpi błąd zapisu
+     */
+    public void writeCompanyCsvReport(String companyName, OutputStream out) throws IOException {
+        writeCsvContent(employeeService.findEmployeesInCompany(companyName), out);
+    }
+
     /**
      * Generuje zawartość CSV z listy pracowników.
      */
@@ -64,22 +118,47 @@ public class ReportGeneratorService {
         StringBuilder csv = new StringBuilder();
         
         // Nagłówek
-        csv.append("First Name,Last Name,Email,Company,Position,Salary\n");
+        csv.append(CSV_HEADER);
         
         // Dane
         for (Employee emp : employees) {
-            csv.append(escapeCsv(emp.getFirstName())).append(",");
-            csv.append(escapeCsv(emp.getLastName())).append(",");
-            csv.append(escapeCsv(emp.getEmail())).append(",");
-            csv.append(escapeCsv(emp.getCompany())).append(",");
-            csv.append(emp.getPosition()).append(",");
-            csv.append(emp.getSalary()).append("\n");
+            appendCsvRow(csv, emp);
         }
         
         log.info("Wygenerowano raport CSV z {} pracownikami", employees.size());
         return csv.toString().getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * Zapisuje CSV wiersz po wierszu. Jeden bufor wiersza i jeden bufor zapisu są używane
+     * ponownie dla wszystkich pracowników.
+     */
+    private void writeCsvContent(Iterable<Employee> employees, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_STREAM_BUFFER_SIZE);
+        StringBuilder row = new StringBuilder(128);
+        long count = 0;
+
+        writer.write(CSV_HEADER);
+        for (Employee emp : employees) {
+            row.setLength(0);
+            appendCsvRow(row, emp);
+            writer.append(row);
+            count++;
+        }
+        writer.flush();
+
+        log.info("Wysłano strumieniowo raport CSV z {} pracownikami", count);
+    }
+
+    private void appendCsvRow(StringBuilder csv, Employee emp) {
+        csv.append(escapeCsv(emp.getFirstName())).append(",");
+        csv.append(escapeCsv(emp.getLastName())).append(",");
+        csv.append(escapeCsv(emp.getEmail())).append(",");
+        csv.append(escapeCsv(emp.getCompany())).append(",");
+        csv.append(emp.getPosition()).append(",");
+        csv.append(emp.getSalary()).append("\n");
+    }
+
     /**
      * Eskejpuje wartości CSV (dodaje cudzysłowy jeśli zawiera przecinek lub cudzysłów).
      */
@@ -94,19 +173,31 @@ public class ReportGeneratorService {
     }
 
     /**
-     * Generuje raport PDF ze statystykami firmy.
+     * Generuje raport PDF ze statystykami firmy albo zwraca zapamiętany, jeśli dane firmy się nie zmieniły.
      *
      * @param companyName nazwa firmy
      * @return tablica bajtów reprezentująca plik PDF
      * @throws IOException jeśli wystąpi błąd podczas generowania PDF
      */
     public byte[] generateCompanyStatisticsPdfReport(String companyName) throws IOException {
-        Map<String, CompanyStatistics> allStats = employeeService.getCompanyStatistics();
-        CompanyStatistics stats = allStats.get(companyName);
-        
-        if (stats == null) {
-            throw new IllegalArgumentException("Firma nie istnieje: " + companyName);
+        if (pdfCache == null) {
+            return renderCompanyStatisticsPdfReport(companyName);
+        }
+        // Wersja odczytana przed generowaniem - raport zawiera dane co najmniej z tej wersji
+        long version = employeeService.getCompanyDataVersion(companyName);
+        byte[] cached = pdfCache.get(companyName, version);
+        if (cached != null) {
+            log.debug("Raport PDF dla firmy {} z pamięci podręcznej (wersja {})", companyName, version);
+            return cached;
         }
+        byte[] pdf = renderCompanyStatisticsPdfReport(companyName);
+        pdfCache.put(companyName, version, pdf);
+        return pdf;
+    }
+
+    private byte[] renderCompanyStatisticsPdfReport(String companyName) throws IOException {
+        CompanyStatistics stats = employeeService.getCompanyStatistics(companyName)
+                .orElseThrow(() -> new IllegalArgumentException("Firma nie istnieje: " + companyName));
 
         List<Employee> companyEmployees = employeeService.findEmployeesInCompany(companyName);
 
@@ -168,7 +259,11 @@ public class ReportGeneratorService {
             document.add(new Paragraph("\n"));
             document.add(new Paragraph("Pracownicy według stanowisk").setFontSize(16).setBold());
             
-            Map<Position, Long> positionCounts = employeeService.countEmployeesOnPositions();
+            // Tylko pracownicy firmy - raport zależy wyłącznie od jej danych
+            Map<Position, Long> positionCounts = new EnumMap<>(Position.class);
+            for (Employee emp : companyEmployees) {
+                positionCounts.merge(emp.getPosition(), 1L, Long::sum);
+            }
             for (Map.Entry<Position, Long> entry : positionCounts.entrySet()) {
                 document.add(new Paragraph(String.format("%s: %d pracowników", 
                         entry.getKey().toString(), entry.getValue())));
@@ -219,4 +314,11 @@ public class ReportGeneratorService {
         String filename = "statistics_" + companyName.replaceAll("[^a-zA-Z0-9]", "_") + ".pdf";
         return fileStorageService.saveReportFile(filename, pdfContent);
     }
+
+    /**
+     * Statystyki pamięci podręcznej raportów PDF; null, jeśli jest wyłączona.
+     */
+    ReportCache.Statistics getPdfCacheStatistics() {
+        return pdfCache != null ? pdfCache.getStatistics() : null;
+    }
 }
@@ -0,0 +1,266 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ReportQueueFullException;
+import com.techcorp.employee.model.ReportJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchroniczne generowanie raportów CSV i PDF - żądanie HTTP tylko zleca zadanie, a raport powstaje w tle.
+ *
+ * Zadania wykonuje stała pula threads wątków z kolejką o pojemności queue-capacity; przy pełnej kolejce
+ * zlecenie jest odrzucane (ReportQueueFullException, 503), zamiast gromadzić zadania bez końca.
+ * Zlecenie identyczne z oczekującym lub trwającym zadaniem (ten sam typ, firma i wersja danych) zwraca
+ * istniejące zadanie - taki raport miałby tę samą treść.
+ *
+ * Wynik jest zapisywany w katalogu raportów (FileStorageService.saveReportFile, prefiks JOB_FILE_PREFIX).
+ * Zakończone zadania i ich pliki są usuwane po retention-ms; przy okazji usuwane są też pliki zadań
+ * starsze niż retention-ms, o których serwis nic nie wie (np. z poprzedniego uruchomienia).
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    static final String JOB_FILE_PREFIX = "job_";
+
+    private final ReportGeneratorService reportGeneratorService;
+    private final FileStorageService fileStorageService;
+    private final EmployeeService employeeService;
+    private final long retentionMillis;
+    private final long cleanupIntervalMillis;
+
+    private final ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleanupScheduler;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    // Zadania oczekujące i trwające według tego, co generują - do wykrywania powtórzonych zleceń
+    private final Map<JobKey, ReportJob> pending = new HashMap<>();
+
+    public ReportJobService(ReportGeneratorService reportGeneratorService,
+                            FileStorageService fileStorageService,
+                            EmployeeService employeeService,
+                            @Value("${app.reports.jobs.threads:2}") int threads,
+                            @Value("${app.reports.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${app.reports.jobs.retention-ms:3600000}") long retentionMillis,
+                            @Value("${app.reports.jobs.cleanup-interval-ms:60000}") long cleanupIntervalMillis) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Report job threads must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Report job queue capacity must be positive");
+        }
+        this.reportGeneratorService = reportGeneratorService;
+        this.fileStorageService = fileStorageService;
+        this.employeeService = employeeService;
+        this.retentionMillis = retentionMillis;
+        this.cleanupIntervalMillis = cleanupIntervalMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    void start() {
+        if (cleanupIntervalMillis <= 0) {
+            return;
+        }
+        cleanupScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-job-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleanupScheduler.scheduleWithFixedDelay(this::cleanup, 0, cleanupIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (cleanupScheduler != null) {
+            cleanupScheduler.shutdownNow();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Zleca wygenerowanie raportu.
+     *
+     * @param type    CSV (company == null - wszyscy pracownicy) lub PDF (wymaga firmy)
+     * @param company nazwa firmy
+     * @return nowe zadanie albo istniejące zadanie generujące ten sam raport
+     * @throws IllegalArgumentException dla raportu PDF bez firmy lub dla nieistniejącej firmy
+     * @throws ReportQueueFullException gdy kolejka zadań jest pełna
+     */
+    public ReportJob submit(ReportJob.Type type, String company) {
+        if (type == null) {
+            throw new IllegalArgumentException("Report type cannot be null");
+        }
+        String normalizedCompany = company != null && !company.isBlank() ? company.trim() : null;
+        if (type == ReportJob.Type.PDF) {
+            if (normalizedCompany == null) {
+                throw new IllegalArgumentException("Company name is required for PDF report");
+            }
+            if (employeeService.getCompanyStatistics(normalizedCompany).isEmpty()) {
+                throw new IllegalArgumentException("Firma nie istnieje: " + normalizedCompany);
+            }
+        }
+
+        // Wersja odczytana przed generowaniem - zadanie z tą samą wersją daje raport z tymi samymi danymi
+        long version = normalizedCompany != null
+                ? employeeService.getCompanyDataVersion(normalizedCompany)
+                : employeeService.getDataVersion();
+        JobKey key = new JobKey(type, normalizedCompany, version);
+
+        synchronized (pending) {
+            ReportJob existing = pending.get(key);
+            if (existing != null) {
+                log.debug("Zlecenie raportu {} dla {} połączone z zadaniem {}", type, normalizedCompany, existing.getId());
+                return existing;
+            }
+            ReportJob job = new ReportJob(type, normalizedCompany, downloadName(type, normalizedCompany));
+            // Rejestracja przed przekazaniem do puli - zadanie może się zakończyć, zanim execute() wróci
+            pending.put(key, job);
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(() -> run(job, key));
+            } catch (RejectedExecutionException e) {
+                pending.remove(key);
+                jobs.remove(job.getId());
+                throw new ReportQueueFullException("Kolejka raportów jest pełna, spróbuj ponownie później", e);
+            }
+            log.info("Zlecono raport {}{} (zadanie {})", type,
+                    normalizedCompany != null ? " dla firmy " + normalizedCompany : "", job.getId());
+            return job;
+        }
+    }
+
+    private void run(ReportJob job, JobKey key) {
+        job.started();
+        long start = System.nanoTime();
+        try {
+            byte[] content = switch (job.getType()) {
+                case CSV -> job.getCompany() != null
+                        ? reportGeneratorService.generateCompanyCsvReport(job.getCompany())
+                        : reportGeneratorService.generateAllEmployeesCsvReport();
+                case PDF -> reportGeneratorService.generateCompanyStatisticsPdfReport(job.getCompany());
+            };
+            String fileName = fileStorageService.saveReportFile(JOB_FILE_PREFIX + job.getDownloadName(), content);
+            job.completed(fileName, content.length);
+            log.info("Zadanie {} zakończone: {} ({} bajtów) w {} ms", job.getId(), fileName, content.length,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Zadanie {} zakończone błędem: {}", job.getId(), e.getMessage(), e);
+            job.failed(e.getMessage());
+        } finally {
+            synchronized (pending) {
+                pending.remove(key, job);
+            }
+        }
+    }
+
+    public Optional<ReportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Plik wyniku zakończonego zadania.
+     *
+     * @throws IllegalStateException gdy zadanie nie zakończyło się sukcesem
+     * @throws IOException gdy plik nie istnieje (np. usunięty po czasie przechowywania)
+     */
+    public Resource loadResult(ReportJob job) throws IOException {
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            throw new IllegalStateException("Report job is not completed: " + job.getId());
+        }
+        return fileStorageService.loadReportFile(job.getFileName());
+    }
+
+    /**
+     * Usuwa zakończone zadania starsze niż retention-ms razem z plikami wyników oraz osierocone pliki zadań.
+     *
+     * @return liczba usuniętych plików
+     */
+    public int cleanup() {
+        Instant cutoff = Instant.now().minusMillis(retentionMillis);
+        int deleted = 0;
+        for (ReportJob job : jobs.values()) {
+            if (job.isFinished() && job.getCompletedAt().isBefore(cutoff) && jobs.remove(job.getId(), job)) {
+                if (job.getFileName() != null && deleteReportFile(job.getFileName())) {
+                    deleted++;
+                }
+            }
+        }
+
+        Path directory = fileStorageService.getReportsLocation();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return deleted;
+        }
+        Set<String> live = jobs.values().stream()
+                .map(ReportJob::getFileName)
+                .filter(name -> name != null)
+                .collect(Collectors.toSet());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, JOB_FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!live.contains(name) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && deleteReportFile(name)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Nie udało się przejrzeć katalogu raportów {}: {}", directory, e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Usunięto {} plików raportów starszych niż {} ms", deleted, retentionMillis);
+        }
+        return deleted;
+    }
+
+    private boolean deleteReportFile(String fileName) {
+        try {
+            return fileStorageService.deleteReportFile(fileName);
+        } catch (IOException e) {
+            log.warn("Nie udało się usunąć raportu {}: {}", fileName, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String downloadName(ReportJob.Type type, String company) {
+        String safeCompany = company != null ? company.replaceAll("[^a-zA-Z0-9]", "_") : null;
+        return switch (type) {
+            case CSV -> safeCompany != null ? "employees_" + safeCompany + ".csv" : "employees_all.csv";
+            case PDF -> "statistics_" + safeCompany + ".pdf";
+        };
+    }
+
+    private record JobKey(ReportJob.Type type, String company, long version) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.techcorp.employee.service;
+
+/**
+ * Bieżący agregat wynagrodzeń (liczba pracowników i suma pensji).
+ * Aktualizowany przyrostowo przy każdej zmianie, dzięki czemu średnia jest dostępna w O(1).
+ */
+final class SalaryAggregate {
+
+    private long count;
+    private double salarySum;
+
+    synchronized void add(double salary) {
+        count++;
+        salarySum += salary;
+    }
+
+    synchronized void remove(double salary) {
+        count--;
+        // Po usunięciu ostatniego pracownika zerujemy sumę, żeby nie kumulować błędów zaokrągleń
+        salarySum = count == 0 ? 0 : salarySum - salary;
+    }
+
+    synchronized long getCount() {
+        return count;
+    }
+
+    synchronized double getAverageSalary() {
+        return count == 0 ? 0 : salarySum / count;
+    }
+}
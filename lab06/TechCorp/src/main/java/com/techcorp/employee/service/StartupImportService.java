@@ -0,0 +1,211 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Import danych startowych z trzech źródeł: pliku CSV z classpath, beanów XML i zewnętrznego REST API.
+ *
+ * Pobieranie z API (najwolniejsze źródło) rusza od razu asynchronicznie i trwa równolegle z importem CSV;
+ * beany XML są już wczytane przez Springa. Samo dodawanie do systemu odbywa się zawsze w tej samej
+ * kolejności priorytetów: CSV, XML, API - przy konfliktach emaili wygrywa źródło o wyższym priorytecie
+ * niezależnie od tego, które skończyło się wczytywać pierwsze, a odrzucony wpis trafia do błędów
+ * podsumowania swojego źródła razem z nazwą źródła, które zachowało email.
+ *
+ * Stan importu (getState) i podsumowania źródeł są dostępne przez GET /api/status/readiness.
+ */
+@Service
+public class StartupImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupImportService.class);
+
+    public enum State {
+        NOT_STARTED, IMPORTING, READY
+    }
+
+    /**
+     * Źródła danych startowych w kolejności priorytetu.
+     */
+    public enum Source {
+        CSV, XML, API
+    }
+
+    private final EmployeeService employeeService;
+    private final ImportService importService;
+    private final ApiService apiService;
+    private final List<Employee> xmlEmployees;
+    private final String csvFile;
+
+    private final Map<Source, ImportSummary> summaries = new ConcurrentHashMap<>();
+    // Klucz emaila -> źródło, które go dodało (do opisu konfliktów)
+    private final Map<String, Source> owners = new HashMap<>();
+    private volatile State state = State.NOT_STARTED;
+
+    public StartupImportService(EmployeeService employeeService,
+                                ImportService importService,
+                                ApiService apiService,
+                                @Qualifier("xmlEmployees") List<Employee> xmlEmployees,
+                                @Value("${app.import.csv-file}") String csvFile) {
+        this.employeeService = employeeService;
+        this.importService = importService;
+        this.apiService = apiService;
+        this.xmlEmployees = xmlEmployees;
+        this.csvFile = csvFile;
+    }
+
+    /**
+     * Uruchamia import. Wraca po dodaniu źródeł lokalnych (CSV i XML); import z API kończy się w tle.
+     *
+     * @return future zakończone po imporcie wszystkich źródeł (również przy błędzie API)
+     * @throws IllegalStateException jeśli import był już uruchomiony
+     */
+    public CompletableFuture<Map<Source, ImportSummary>> start() {
+        synchronized (this) {
+            if (state != State.NOT_STARTED) {
+                throw new IllegalStateException("Startup import already started");
+            }
+            state = State.IMPORTING;
+        }
+
+        CompletableFuture<List<Employee>> apiFetch = fetchFromApi();
+
+        // Pracownicy sprzed importu (np. odtworzeni po przerwanym imporcie) nie pochodzą z żadnego źródła
+        Set<String> existing = new HashSet<>();
+        for (Employee employee : employeeService.getEmployeesView()) {
+            existing.add(emailKey(employee.getEmail()));
+        }
+        ImportSummary csvSummary = importCsvFromClasspath();
+        synchronized (owners) {
+            for (Employee employee : employeeService.getEmployeesView()) {
+                String key = emailKey(employee.getEmail());
+                if (!existing.contains(key)) {
+                    owners.putIfAbsent(key, Source.CSV);
+                }
+            }
+        }
+        complete(Source.CSV, csvSummary);
+        complete(Source.XML, addAll(Source.XML, xmlEmployees));
+
+        // handle() jest dołączane dopiero po dodaniu CSV i XML, więc API nigdy ich nie wyprzedzi
+        return apiFetch.handle((employees, error) -> {
+            ImportSummary apiSummary;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                log.error("Błąd podczas pobierania danych z API: {}", cause.getMessage(), cause);
+                apiSummary = new ImportSummary();
+                apiSummary.addError(0, "Error fetching employees from API: " + cause.getMessage());
+            } else {
+                log.info("Pobrano z API: {} pracowników", employees.size());
+                apiSummary = addAll(Source.API, employees);
+            }
+            complete(Source.API, apiSummary);
+            state = State.READY;
+            log.info("Import startowy zakończony");
+            return getSummaries();
+        });
+    }
+
+    /**
+     * Oznacza import jako zakończony bez importowania (stan odtworzony z trwałego zapisu).
+     */
+    public synchronized void markRestored() {
+        if (state == State.NOT_STARTED) {
+            state = State.READY;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Podsumowania źródeł już zaimportowanych, w kolejności priorytetu.
+     */
+    public Map<Source, ImportSummary> getSummaries() {
+        Map<Source, ImportSummary> copy = new EnumMap<>(Source.class);
+        copy.putAll(summaries);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private CompletableFuture<List<Employee>> fetchFromApi() {
+        try {
+            return apiService.fetchEmployeesFromApiAsync();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private ImportSummary importCsvFromClasspath() {
+        try (InputStream in = new ClassPathResource(csvFile).getInputStream()) {
+            log.debug("Przetwarzanie pliku: {}", csvFile);
+            return importService.importFromCsv(in);
+        } catch (Exception e) {
+            log.error("Błąd podczas importu '{}': {}", csvFile, e.getMessage(), e);
+            ImportSummary errorSummary = new ImportSummary();
+            errorSummary.addError(0, "Błąd podczas wczytywania: " + e.getMessage());
+            return errorSummary;
+        }
+    }
+
+    // Dodaje pracowników w kolejności listy; numer "linii" to pozycja na liście (od 1)
+    private ImportSummary addAll(Source source, List<Employee> employees) {
+        ImportSummary summary = new ImportSummary();
+        int position = 0;
+        for (Employee employee : employees) {
+            position++;
+            try {
+                employeeService.addEmployee(employee);
+                summary.importedCount();
+                synchronized (owners) {
+                    owners.put(emailKey(employee.getEmail()), source);
+                }
+            } catch (DuplicateEmailException e) {
+                Source owner;
+                synchronized (owners) {
+                    owner = owners.get(emailKey(employee.getEmail()));
+                }
+                summary.addError(position, "Duplicate email: " + employee.getEmail()
+                        + " (kept from " + (owner != null ? owner : "existing data") + ")");
+            } catch (IllegalArgumentException e) {
+                summary.addError(position, e.getMessage());
+            }
+        }
+        return summary;
+    }
+
+    private void complete(Source source, ImportSummary summary) {
+        summaries.put(source, summary);
+        log.info("Import {}: zaimportowano {} pracowników, błędy: {}",
+                source, summary.getImportedCount(), summary.getErrors().size());
+        summary.getErrors().forEach(error -> log.warn("{}: {}", source, error));
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+}
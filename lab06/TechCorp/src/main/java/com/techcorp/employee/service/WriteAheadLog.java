@@ -0,0 +1,238 @@
+package com.techcorp.employee.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Dziennik zapisu z wyprzedzeniem (write-ahead log) podzielony na pliki-segmenty wal-NNN.log.
+ *
+ * Każdy wpis to ramka: długość (int), suma CRC32 treści (int), treść. Wpisy trafiają najpierw
+ * do bufora w pamięci; sync() zapisuje bufor do pliku i wykonuje fsync - jedno fsync
+ * obejmuje wszystkie wpisy od poprzedniego wywołania (fsync wsadowe).
+ *
+ * Przy odtwarzaniu niekompletna lub uszkodzona ramka na końcu ostatniego segmentu
+ * (np. po awarii w trakcie zapisu) kończy odczyt, a segment jest obcinany do ostatniej poprawnej ramki.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{20})\\.log");
+
+    private final Path directory;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private long segment;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private long segmentBytes;
+    private boolean dirty;
+
+    /**
+     * Otwiera nowy (pusty) segment o podanym numerze do dopisywania.
+     */
+    WriteAheadLog(Path directory, long segment) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        openSegment(segment);
+    }
+
+    /**
+     * Dopisuje wpis do bufora; trwały staje się po najbliższym sync().
+     */
+    synchronized void append(byte[] record) throws IOException {
+        if (record.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("WAL record is too large: " + record.length + " bytes");
+        }
+        int frameBytes = FRAME_HEADER_BYTES + record.length;
+        if (buffer.remaining() < frameBytes) {
+            writeBuffer();
+            if (buffer.capacity() < frameBytes) {
+                buffer = ByteBuffer.allocate(frameBytes);
+            }
+        }
+        crc.reset();
+        crc.update(record);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+        segmentBytes += frameBytes;
+        dirty = true;
+    }
+
+    /**
+     * Zapisuje bufor do pliku i wymusza zapis na dysk (fsync), jeśli od ostatniego razu pojawiły się wpisy.
+     */
+    synchronized void sync() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        writeBuffer();
+        channel.force(false);
+        dirty = false;
+    }
+
+    /**
+     * Zamyka bieżący segment (po fsync) i otwiera następny.
+     *
+     * @return numer nowego segmentu - wszystkie wcześniejsze wpisy leżą w segmentach o mniejszych numerach
+     */
+    synchronized long rotate() throws IOException {
+        sync();
+        channel.close();
+        openSegment(segment + 1);
+        return segment;
+    }
+
+    /**
+     * Liczba bajtów zapisanych do bieżącego segmentu (łącznie z jeszcze niezsynchronizowanymi).
+     */
+    synchronized long currentSegmentBytes() {
+        return segmentBytes;
+    }
+
+    synchronized long currentSegment() {
+        return segment;
+    }
+
+    /**
+     * Usuwa segmenty o numerach mniejszych niż podany (ich zawartość jest już w migawce).
+     */
+    void deleteSegmentsBefore(long firstKept) throws IOException {
+        for (long number : listSegments(directory)) {
+            if (number < firstKept) {
+                Files.deleteIfExists(segmentPath(directory, number));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segment = number;
+        segmentBytes = channel.size();
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Odtwarza wpisy z segmentów o numerach >= fromSegment w kolejności zapisu.
+     *
+     * @return numer ostatniego istniejącego segmentu albo -1, jeśli nie ma żadnego
+     * @throws IllegalStateException jeśli uszkodzony jest segment inny niż ostatni
+     */
+    static long replay(Path directory, long fromSegment, Consumer<byte[]> consumer) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        for (long number : listSegments(directory)) {
+            if (number >= fromSegment) {
+                segments.add(number);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            Path path = segmentPath(directory, segments.get(i));
+            long validBytes = replaySegment(path, consumer);
+            long fileBytes = Files.size(path);
+            if (validBytes < fileBytes) {
+                if (!last) {
+                    throw new IllegalStateException("Corrupted WAL segment: " + path);
+                }
+                log.warn("Obcięto niekompletny koniec dziennika {}: {} -> {} bajtów", path, fileBytes, validBytes);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                    channel.force(true);
+                }
+            }
+        }
+        List<Long> all = listSegments(directory);
+        return all.isEmpty() ? -1 : all.get(all.size() - 1);
+    }
+
+    // Zwraca liczbę bajtów zajętych przez poprawne ramki
+    private static long replaySegment(Path path, Consumer<byte[]> consumer) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        long position = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            while (position + FRAME_HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                int length = header.getInt(0);
+                int checksum = header.getInt(4);
+                if (length < 0 || length > MAX_RECORD_BYTES || position + FRAME_HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(length);
+                readFully(channel, record, position + FRAME_HEADER_BYTES);
+                crc.reset();
+                crc.update(record.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(record.array());
+                position += FRAME_HEADER_BYTES + length;
+            }
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of WAL segment");
+            }
+        }
+    }
+
+    static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return numbers;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("wal-%020d.log", number));
+    }
+}
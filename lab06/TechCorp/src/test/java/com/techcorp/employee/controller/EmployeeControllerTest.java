@@ -102,6 +102,82 @@ class EmployeeControllerTest {
         verify(employeeService, never()).getAllEmployees();
     }
 
+    /**
+     * Test GET /api/employees?limit=N - strona z nagłówkiem Link do następnej strony
+     */
+    @Test
+    void testGetAllEmployees_WithLimit_ReturnsPageWithNextLink() throws Exception {
+        // Given
+        Employee emp1 = new Employee("Anna", "Nowak", "anna@example.com",
+                "TechCorp", Position.MANAGER, 12000, EmploymentStatus.ACTIVE);
+        Employee emp2 = new Employee("Jan", "Kowalski", "Jan+test@example.com",
+                "TechCorp", Position.DEVELOPER, 8000, EmploymentStatus.ACTIVE);
+        Employee emp3 = new Employee("Piotr", "Zieliński", "piotr@example.com",
+                "TechCorp", Position.INTERN, 3000, EmploymentStatus.ACTIVE);
+        when(employeeService.getEmployeesPage(null, 3)).thenReturn(Arrays.asList(emp1, emp2, emp3));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].email").value("Jan+test@example.com"))
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/employees?limit=2&after=jan%2Btest%40example.com>; rel=\"next\""));
+
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    /**
+     * Test GET /api/employees?after=X - ostatnia strona bez nagłówka Link
+     */
+    @Test
+    void testGetAllEmployees_LastPage_ReturnsNoNextLink() throws Exception {
+        // Given
+        Employee emp = new Employee("Piotr", "Zieliński", "piotr@example.com",
+                "TechCorp", Position.INTERN, 3000, EmploymentStatus.ACTIVE);
+        when(employeeService.getEmployeesPage("jan@example.com", EmployeeController.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(emp));
+
+        // When & Then
+        mockMvc.perform(get("/api/employees")
+                        .param("after", "jan@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value("piotr@example.com"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    /**
+     * Test GET /api/employees?limit=0 - nieprawidłowy rozmiar strony
+     */
+    @Test
+    void testGetAllEmployees_InvalidLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/employees")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/employees")
+                        .param("limit", String.valueOf(EmployeeController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).getEmployeesPage(any(), anyInt());
+    }
+
+    /**
+     * Test GET /api/employees?company=X&limit=N - stronicowanie nie łączy się z filtrem firmy
+     */
+    @Test
+    void testGetAllEmployees_PaginationWithCompanyFilter_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/employees")
+                        .param("company", "TechCorp")
+                        .param("limit", "10"))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).getEmployeesPage(any(), anyInt());
+        verify(employeeService, never()).findEmployeesInCompany(anyString());
+    }
+
     /**
      * Test GET /api/employees/{email} - zwraca konkretnego pracownika
      * Weryfikacja zwróconych danych
@@ -5,24 +5,35 @@ import com.techcorp.employee.exception.InvalidFileException;
 import com.techcorp.employee.model.*;
 import com.techcorp.employee.service.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -59,6 +70,9 @@ class FileUploadControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private ApiIngestionService apiIngestionService;
+
     @Nested
     class CsvImportTests {
 
@@ -80,15 +94,12 @@ class FileUploadControllerTest {
                 csvContent.getBytes(StandardCharsets.UTF_8)
             );
 
-            String savedFileName = "employees_uuid123.csv";
             ImportSummary expectedSummary = new ImportSummary();
             expectedSummary.importedCount();
             expectedSummary.importedCount();
 
             // When
-            when(fileStorageService.getUploadLocation()).thenReturn(java.nio.file.Paths.get("uploads"));
-            when(fileStorageService.saveUploadedFile(any())).thenReturn(savedFileName);
-            when(importService.importFromCsv(anyString())).thenReturn(expectedSummary);
+            when(importService.importFromCsv(any(InputStream.class))).thenReturn(expectedSummary);
 
             // Then
             mockMvc.perform(multipart("/api/files/import/csv")
@@ -99,8 +110,47 @@ class FileUploadControllerTest {
                     .andExpect(jsonPath("$.importedCount").value(2))
                     .andExpect(jsonPath("$.errorCount").value(0));
 
+            // plik jest parsowany bezpośrednio ze strumienia, bez zapisu na dysk
+            verify(importService).importFromCsv(any(InputStream.class));
+            verify(fileStorageService, never()).saveUploadedFile(any());
+            verify(importService, never()).importFromCsv(anyString());
+        }
+
+        /**
+         * Test równoległego importu CSV (parallel=true).
+         * Plik jest zapisywany w katalogu uploads i importowany z dysku.
+         */
+        @Test
+        void testImportCsv_ParallelMode_SavesFileAndImportsInParallel() throws Exception {
+            // Given
+            MockMultipartFile csvFile = new MockMultipartFile(
+                "file",
+                "employees.csv",
+                "text/csv",
+                "firstName,lastName,email,company,position,salary\nJan,Kowalski,jan@example.com,TechCorp,DEVELOPER,8000"
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+
+            ImportSummary expectedSummary = new ImportSummary();
+            expectedSummary.importedCount();
+
+            // When
+            when(fileStorageService.getUploadLocation()).thenReturn(java.nio.file.Paths.get("uploads"));
+            when(fileStorageService.saveUploadedFile(any())).thenReturn("employees_uuid.csv");
+            when(importService.importFromCsvParallel(anyString())).thenReturn(expectedSummary);
+
+            // Then
+            mockMvc.perform(multipart("/api/files/import/csv")
+                    .file(csvFile)
+                    .param("parallel", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.success").value(true))
+                    .andExpect(jsonPath("$.importedCount").value(1))
+                    .andExpect(jsonPath("$.errorCount").value(0));
+
             verify(fileStorageService).saveUploadedFile(any());
-            verify(importService).importFromCsv(anyString());
+            verify(importService).importFromCsvParallel(java.nio.file.Paths.get("uploads", "employees_uuid.csv").toString());
+            verify(importService, never()).importFromCsv(any(InputStream.class));
         }
 
         /**
@@ -124,9 +174,7 @@ class FileUploadControllerTest {
             summaryWithErrors.addError(2, "Invalid position: INVALID");
 
             // When
-            when(fileStorageService.getUploadLocation()).thenReturn(java.nio.file.Paths.get("uploads"));
-            when(fileStorageService.saveUploadedFile(any())).thenReturn("employees.csv");
-            when(importService.importFromCsv(anyString())).thenReturn(summaryWithErrors);
+            when(importService.importFromCsv(any(InputStream.class))).thenReturn(summaryWithErrors);
 
             // Then
             mockMvc.perform(multipart("/api/files/import/csv")
@@ -182,9 +230,7 @@ class FileUploadControllerTest {
             );
 
             // When - kontroler sam waliduje rozmiar przed zapisem
-            when(fileStorageService.getUploadLocation()).thenReturn(java.nio.file.Paths.get("uploads"));
-            when(fileStorageService.saveUploadedFile(any())).thenReturn("large.csv");
-            when(importService.importFromCsv(anyString())).thenThrow(
+            when(importService.importFromCsv(any(InputStream.class))).thenThrow(
                 new IllegalArgumentException("Plik jest za duży")
             );
 
@@ -245,6 +291,37 @@ class FileUploadControllerTest {
         }
     }
 
+    @Nested
+    class ApiImportTests {
+
+        /**
+         * Test importu z REST API.
+         * Weryfikuje status 200 OK i podsumowanie dla każdego źródła.
+         */
+        @Test
+        void testImportFromApi_ReturnsPerSourceSummary() throws Exception {
+            // Given
+            ApiIngestionSummary summary = new ApiIngestionSummary();
+            ApiIngestionSummary.SourceSummary tenantA = summary.addSource("http://hr-a/users");
+            tenantA.pageFetched();
+            tenantA.importedCount();
+            tenantA.importedCount();
+            ApiIngestionSummary.SourceSummary tenantB = summary.addSource("http://hr-b/users");
+            tenantB.addError(1, "API request failed with status code: 503");
+            when(apiIngestionService.ingest()).thenReturn(summary);
+
+            // When & Then
+            mockMvc.perform(post("/api/files/import/api"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.importedCount").value(2))
+                    .andExpect(jsonPath("$.sources[0].url").value("http://hr-a/users"))
+                    .andExpect(jsonPath("$.sources[0].pages").value(1))
+                    .andExpect(jsonPath("$.sources[1].errors[0]").value("Page 1: API request failed with status code: 503"));
+
+            verify(apiIngestionService).ingest();
+        }
+    }
+
     @Nested
     class CsvExportTests {
 
@@ -303,6 +380,40 @@ class FileUploadControllerTest {
             verify(reportGeneratorService).generateCompanyCsvReport("TechCorp");
             verify(reportGeneratorService, never()).generateAllEmployeesCsvReport();
         }
+
+        /**
+         * Test strumieniowego eksportu CSV (stream=true).
+         * Odpowiedź nie ma Content-Length, a raport w postaci byte[] nie jest generowany.
+         */
+        @Test
+        void testExportCsv_StreamMode_WritesRowsToResponse() throws Exception {
+            // Given
+            String csvContent = "First Name,Last Name,Email,Company,Position,Salary\n" +
+                               "Jan,Kowalski,jan@example.com,TechCorp,DEVELOPER,8000.0\n";
+
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(0);
+                out.write(csvContent.getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(reportGeneratorService).writeAllEmployeesCsvReport(any(OutputStream.class));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/files/export/csv").param("stream", "true"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition",
+                              containsString("attachment; filename=\"employees_all.csv\"")))
+                    .andExpect(header().string("Content-Type", "text/csv"))
+                    .andExpect(header().doesNotExist("Content-Length"))
+                    .andExpect(content().string(csvContent));
+
+            verify(reportGeneratorService).writeAllEmployeesCsvReport(any(OutputStream.class));
+            verify(reportGeneratorService, never()).generateAllEmployeesCsvReport();
+        }
     }
 
     @Nested
@@ -526,7 +637,7 @@ class FileUploadControllerTest {
             );
 
             // When
-            when(employeeService.getAllEmployees()).thenReturn(List.of(employee));
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
             when(fileStorageService.saveEmployeePhoto(eq(email), any())).thenReturn(photoFileName);
 
             // Then
@@ -555,7 +666,7 @@ class FileUploadControllerTest {
             );
 
             // When
-            when(employeeService.getAllEmployees()).thenReturn(List.of());
+            when(employeeService.findEmployeeByEmail("unknown@example.com")).thenReturn(Optional.empty());
 
             // Then
             mockMvc.perform(multipart("/api/files/photos/unknown@example.com")
@@ -584,7 +695,7 @@ class FileUploadControllerTest {
             );
 
             // When
-            when(employeeService.getAllEmployees()).thenReturn(List.of(employee));
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
             when(fileStorageService.saveEmployeePhoto(eq(email), any()))
                 .thenThrow(new InvalidFileException("Niedozwolony format zdjęcia: .gif"));
 
@@ -612,7 +723,7 @@ class FileUploadControllerTest {
             Resource photoResource = new ByteArrayResource("image data".getBytes());
 
             // When
-            when(employeeService.getAllEmployees()).thenReturn(List.of(employee));
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
             when(fileStorageService.loadEmployeePhoto(photoFileName)).thenReturn(photoResource);
 
             // Then
@@ -640,7 +751,7 @@ class FileUploadControllerTest {
             // Brak photoFileName
 
             // When
-            when(employeeService.getAllEmployees()).thenReturn(List.of(employee));
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
 
             // Then
             mockMvc.perform(get("/api/files/photos/{email}", email))
@@ -649,4 +760,298 @@ class FileUploadControllerTest {
             verify(fileStorageService, never()).loadEmployeePhoto(anyString());
         }
     }
+
+    @Nested
+    class RangeDownloadTests {
+
+        private static final String EMAIL = "jan@example.com";
+        private static final String DOC_ID = "doc-123";
+        private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+        @TempDir
+        Path tempDir;
+
+        private Path file;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            file = tempDir.resolve("contract.pdf");
+            Files.write(file, CONTENT);
+            Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-05-01T10:00:00Z")));
+
+            EmployeeDocument document = new EmployeeDocument(
+                EMAIL, "contract.pdf", "Umowa.pdf", DocumentType.CONTRACT, file.toString()
+            );
+            when(documentService.getEmployeeDocument(EMAIL, DOC_ID)).thenReturn(document);
+            when(documentService.loadDocumentFile(DOC_ID)).thenReturn(new UrlResource(file.toUri()));
+        }
+
+        /**
+         * Test pobrania całego pliku - długość, Accept-Ranges i Last-Modified.
+         */
+        @Test
+        void testDownloadDocument_NoRange_ReturnsWholeFileWithHeaders() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Accept-Ranges", "bytes"))
+                    .andExpect(header().longValue("Content-Length", CONTENT.length))
+                    .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 10:00:00 GMT"))
+                    .andExpect(header().string("Content-Type", "application/pdf"))
+                    .andExpect(header().string("Content-Disposition",
+                              containsString("attachment; filename=\"Umowa.pdf\"")))
+                    .andExpect(content().bytes(CONTENT));
+        }
+
+        /**
+         * Test zakresu - 206 z Content-Range i wycinkiem pliku.
+         */
+        @Test
+        void testDownloadDocument_Range_ReturnsPartialContent() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=10-14"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 10-14/20"))
+                    .andExpect(header().longValue("Content-Length", 5))
+                    .andExpect(content().string("abcde"));
+        }
+
+        /**
+         * Test wznawiania: zakres otwarty i sufiks.
+         */
+        @Test
+        void testDownloadDocument_OpenAndSuffixRanges_ReturnTail() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=15-"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 15-19/20"))
+                    .andExpect(content().string("fghij"));
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=-3"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 17-19/20"))
+                    .andExpect(content().string("hij"));
+        }
+
+        /**
+         * Test zakresu poza plikiem - 416 z rozmiarem pliku.
+         */
+        @Test
+        void testDownloadDocument_UnsatisfiableRange_Returns416() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=100-200"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string("Content-Range", "bytes */20"));
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=100-"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable());
+        }
+
+        /**
+         * Test If-Range: aktualna data - 206, nieaktualna - cały plik.
+         */
+        @Test
+        void testDownloadDocument_IfRange_PartialOnlyWhenUnchanged() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=0-3")
+                            .header("If-Range", "Wed, 01 May 2024 10:00:00 GMT"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(content().string("0123"));
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=0-3")
+                            .header("If-Range", "Tue, 30 Apr 2024 10:00:00 GMT"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(CONTENT));
+        }
+
+        /**
+         * Test kilku zakresów: sąsiednie są scalane, rozłączne dają cały plik.
+         */
+        @Test
+        void testDownloadDocument_MultipleRanges_MergedOrIgnored() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=4-5,0-3"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 0-5/20"))
+                    .andExpect(content().string("012345"));
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=0-1,10-11"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(CONTENT));
+        }
+
+        /**
+         * Test zakresu dla zdjęcia profilowego.
+         */
+        @Test
+        void testGetEmployeePhoto_Range_ReturnsPartialContent() throws Exception {
+            // Given
+            Path photo = tempDir.resolve("jan@example.com.png");
+            Files.write(photo, CONTENT);
+            Employee employee = new Employee("Jan", "Kowalski", EMAIL, "TechCorp", Position.DEVELOPER);
+            employee.setPhotoFileName(photo.getFileName().toString());
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
+            when(fileStorageService.loadEmployeePhoto(photo.getFileName().toString()))
+                    .thenReturn(new UrlResource(photo.toUri()));
+
+            // When & Then
+            mockMvc.perform(get("/api/files/photos/{email}", EMAIL).header("Range", "bytes=0-1"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Type", "image/png"))
+                    .andExpect(header().string("Content-Range", "bytes 0-1/20"))
+                    .andExpect(content().string("01"));
+        }
+    }
+
+    @Nested
+    class ConditionalGetTests {
+
+        private static final String EMAIL = "jan@example.com";
+        private static final String DOC_ID = "doc-123";
+        private static final String ETAG = "\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"";
+        private static final long LAST_MODIFIED = Instant.parse("2024-05-01T10:00:00Z").toEpochMilli();
+
+        @TempDir
+        Path tempDir;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            Path file = tempDir.resolve("contract.pdf");
+            Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+            EmployeeDocument document = new EmployeeDocument(
+                EMAIL, "contract.pdf", "Umowa.pdf", DocumentType.CONTRACT, file.toString()
+            );
+            when(documentService.getEmployeeDocument(EMAIL, DOC_ID)).thenReturn(document);
+            when(documentService.getDocumentValidator(document))
+                    .thenReturn(new FileStorageService.FileValidator(ETAG, LAST_MODIFIED));
+            when(documentService.loadDocumentFile(DOC_ID)).thenReturn(new UrlResource(file.toUri()));
+        }
+
+        /**
+         * Test nagłówków walidatora przy pobraniu dokumentu.
+         */
+        @Test
+        void testDownloadDocument_ReturnsValidatorHeaders() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", ETAG))
+                    .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 10:00:00 GMT"))
+                    .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        /**
+         * Test If-None-Match - 304 bez ładowania pliku.
+         */
+        @Test
+        void testDownloadDocument_IfNoneMatch_ReturnsNotModifiedWithoutLoadingFile() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("If-None-Match", ETAG))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", ETAG))
+                    .andExpect(content().bytes(new byte[0]));
+
+            verify(documentService, never()).loadDocumentFile(anyString());
+        }
+
+        /**
+         * Test If-Modified-Since - 304 dla daty nie starszej niż Last-Modified.
+         */
+        @Test
+        void testDownloadDocument_IfModifiedSince_ReturnsNotModified() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("If-Modified-Since", "Wed, 01 May 2024 10:00:00 GMT"))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("If-Modified-Since", "Tue, 30 Apr 2024 10:00:00 GMT"))
+                    .andExpect(status().isOk());
+        }
+
+        /**
+         * Test If-Range z ETagiem - zgodny daje 206, inny cały plik.
+         */
+        @Test
+        void testDownloadDocument_IfRangeWithEtag() throws Exception {
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=2-3")
+                            .header("If-Range", ETAG))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(content().string("23"));
+
+            mockMvc.perform(get("/api/files/documents/{email}/{documentId}", EMAIL, DOC_ID)
+                            .header("Range", "bytes=2-3")
+                            .header("If-Range", "\"other\""))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("0123456789"));
+        }
+
+        /**
+         * Test If-None-Match dla zdjęcia profilowego - 304 bez ładowania pliku.
+         */
+        @Test
+        void testGetEmployeePhoto_IfNoneMatch_ReturnsNotModified() throws Exception {
+            // Given
+            Employee employee = new Employee("Jan", "Kowalski", EMAIL, "TechCorp", Position.DEVELOPER);
+            employee.setPhotoFileName("jan@example.com.jpg");
+            when(employeeService.findEmployeeByEmail(employee.getEmail())).thenReturn(Optional.of(employee));
+            when(fileStorageService.getPhotoValidator("jan@example.com.jpg"))
+                    .thenReturn(new FileStorageService.FileValidator(ETAG, LAST_MODIFIED));
+
+            // When & Then
+            mockMvc.perform(get("/api/files/photos/{email}", EMAIL).header("If-None-Match", ETAG))
+                    .andExpect(status().isNotModified());
+
+            verify(fileStorageService, never()).loadEmployeePhoto(anyString());
+            verify(employeeService, never()).getAllEmployees();
+        }
+
+        /**
+         * Test ETagu raportu CSV - wersja danych; przy zgodności raport nie jest generowany.
+         */
+        @Test
+        void testExportCsv_EtagFromDataVersion() throws Exception {
+            // Given
+            when(employeeService.getDataVersionTag()).thenReturn("abc-7");
+            when(employeeService.getLastModified()).thenReturn(LAST_MODIFIED);
+            when(reportGeneratorService.generateAllEmployeesCsvReport()).thenReturn("a,b".getBytes());
+
+            // When & Then
+            mockMvc.perform(get("/api/files/export/csv"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues("ETag", "W/\"abc-7\""))
+                    .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 10:00:00 GMT"));
+
+            mockMvc.perform(get("/api/files/export/csv").header("If-None-Match", "W/\"abc-7\""))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/files/export/csv").param("stream", "true")
+                            .header("If-None-Match", "W/\"abc-7\""))
+                    .andExpect(status().isNotModified());
+
+            verify(reportGeneratorService, times(1)).generateAllEmployeesCsvReport();
+            verify(reportGeneratorService, never()).writeAllEmployeesCsvReport(any(OutputStream.class));
+        }
+
+        /**
+         * Test raportu PDF po zmianie danych - nieaktualny ETag, raport generowany od nowa.
+         */
+        @Test
+        void testGetCompanyStatisticsReport_DataChanged_RegeneratesReport() throws Exception {
+            // Given
+            when(employeeService.getDataVersionTag()).thenReturn("abc-8");
+            when(reportGeneratorService.generateCompanyStatisticsPdfReport("TechCorp")).thenReturn("PDF".getBytes());
+
+            // When & Then
+            mockMvc.perform(get("/api/files/reports/statistics/TechCorp").header("If-None-Match", "W/\"abc-8\""))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/files/reports/statistics/TechCorp").header("If-None-Match", "W/\"abc-7\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().stringValues("ETag", "W/\"abc-8\""))
+                    .andExpect(content().bytes("PDF".getBytes()));
+
+            verify(reportGeneratorService, times(1)).generateCompanyStatisticsPdfReport("TechCorp");
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.exception.GlobalExceptionHandler;
+import com.techcorp.employee.exception.ReportQueueFullException;
+import com.techcorp.employee.model.ReportJob;
+import com.techcorp.employee.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.UrlResource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testy kontrolera ReportJobController używające @WebMvcTest i MockMvc.
+ */
+@WebMvcTest
+@ContextConfiguration(classes = {ReportJobController.class, GlobalExceptionHandler.class})
+class ReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportJobService reportJobService;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test POST /api/files/reports/jobs - 202 Accepted z adresem stanu zadania
+     */
+    @Test
+    void testSubmitJob_ReturnsAcceptedWithLocation() throws Exception {
+        // Given
+        ReportJob job = new ReportJob(ReportJob.Type.PDF, "TechCorp", "statistics_TechCorp.pdf");
+        when(reportJobService.submit(ReportJob.Type.PDF, "TechCorp")).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(post("/api/files/reports/jobs").param("type", "pdf").param("company", "TechCorp"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/files/reports/jobs/" + job.getId())))
+                .andExpect(jsonPath("$.id").value(job.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.type").value("PDF"));
+    }
+
+    /**
+     * Test POST z nieznanym typem raportu - 400 Bad Request
+     */
+    @Test
+    void testSubmitJob_UnknownType_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/files/reports/jobs").param("type", "XLSX"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("XLSX")));
+
+        verify(reportJobService, never()).submit(any(), any());
+    }
+
+    /**
+     * Test POST przy pełnej kolejce - 503 Service Unavailable
+     */
+    @Test
+    void testSubmitJob_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        // Given
+        when(reportJobService.submit(ReportJob.Type.CSV, null))
+                .thenThrow(new ReportQueueFullException("Kolejka raportów jest pełna"));
+
+        // When & Then
+        mockMvc.perform(post("/api/files/reports/jobs").param("type", "CSV"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Kolejka raportów jest pełna"));
+    }
+
+    /**
+     * Test GET /api/files/reports/jobs/{id} - stan zadania lub 404
+     */
+    @Test
+    void testGetJob_ReturnsStatusOrNotFound() throws Exception {
+        // Given
+        ReportJob job = new ReportJob(ReportJob.Type.CSV, null, "employees_all.csv");
+        job.started();
+        when(reportJobService.getJob(job.getId())).thenReturn(Optional.of(job));
+        when(reportJobService.getJob("unknown")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/files/reports/jobs/{id}", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.startedAt").exists());
+
+        mockMvc.perform(get("/api/files/reports/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test pobrania wyniku niezakończonego zadania - 409 Conflict ze stanem zadania
+     */
+    @Test
+    void testDownloadResult_NotCompleted_ReturnsConflict() throws Exception {
+        // Given
+        ReportJob job = new ReportJob(ReportJob.Type.CSV, null, "employees_all.csv");
+        when(reportJobService.getJob(job.getId())).thenReturn(Optional.of(job));
+
+        // When & Then
+        mockMvc.perform(get("/api/files/reports/jobs/{id}/file", job.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        verify(reportJobService, never()).loadResult(any());
+    }
+
+    /**
+     * Test pobrania wyniku - plik z nazwą do pobrania i ETagiem; ponowne żądanie z ETagiem daje 304
+     */
+    @Test
+    void testDownloadResult_Completed_ReturnsFile() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("job_employees_all.csv"), "a,b\n", StandardCharsets.UTF_8);
+        ReportJob job = new ReportJob(ReportJob.Type.CSV, null, "employees_all.csv");
+        job.completed("job_employees_all.csv", 4);
+        when(reportJobService.getJob(job.getId())).thenReturn(Optional.of(job));
+        when(reportJobService.loadResult(job)).thenReturn(new UrlResource(file.toUri()));
+
+        // When & Then
+        mockMvc.perform(get("/api/files/reports/jobs/{id}/file", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"employees_all.csv\""))
+                .andExpect(header().string("ETag", "\"" + job.getId() + "\""))
+                .andExpect(content().string("a,b\n"));
+
+        mockMvc.perform(get("/api/files/reports/jobs/{id}/file", job.getId())
+                        .header("If-None-Match", "\"" + job.getId() + "\""))
+                .andExpect(status().isNotModified());
+
+        verify(reportJobService, times(1)).loadResult(job);
+    }
+}
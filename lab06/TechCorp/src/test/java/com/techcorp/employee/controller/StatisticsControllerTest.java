@@ -15,6 +15,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -76,13 +77,9 @@ class StatisticsControllerTest {
     @Test
     void testGetCompanyStatistics_ExistingCompany_ReturnsStatistics() throws Exception {
         // Given
-        CompanyStatistics stats = new CompanyStatistics(15L, 11500.0, "Jan Kowalski");
+        CompanyStatistics stats = new CompanyStatistics(15L, 11500.0, "Jan Kowalski", 25000.0);
         
-        Map<String, CompanyStatistics> allStats = new HashMap<>();
-        allStats.put("TechCorp", stats);
-        
-        when(employeeService.getCompanyStatistics()).thenReturn(allStats);
-        when(employeeService.getHighestSalaryInCompany("TechCorp")).thenReturn(25000.0);
+        when(employeeService.getCompanyStatistics("TechCorp")).thenReturn(Optional.of(stats));
 
         // When & Then
         mockMvc.perform(get("/api/statistics/company/TechCorp"))
@@ -94,8 +91,9 @@ class StatisticsControllerTest {
                 .andExpect(jsonPath("$.highestSalary").value(25000.0))
                 .andExpect(jsonPath("$.topEarnerName").value("Jan Kowalski"));
 
-        verify(employeeService, times(1)).getCompanyStatistics();
-        verify(employeeService, times(1)).getHighestSalaryInCompany("TechCorp");
+        verify(employeeService, times(1)).getCompanyStatistics("TechCorp");
+        verify(employeeService, never()).getCompanyStatistics();
+        verify(employeeService, never()).getHighestSalaryInCompany(anyString());
     }
 
     /**
@@ -104,8 +102,7 @@ class StatisticsControllerTest {
     @Test
     void testGetCompanyStatistics_NonExistingCompany_Returns404() throws Exception {
         // Given
-        Map<String, CompanyStatistics> allStats = new HashMap<>();
-        when(employeeService.getCompanyStatistics()).thenReturn(allStats);
+        when(employeeService.getCompanyStatistics("NonExistentCorp")).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(get("/api/statistics/company/NonExistentCorp"))
@@ -115,7 +112,7 @@ class StatisticsControllerTest {
                 .andExpect(jsonPath("$.status").value(404))
                 .andExpect(jsonPath("$.path").value("/api/statistics/company/NonExistentCorp"));
 
-        verify(employeeService, times(1)).getCompanyStatistics();
+        verify(employeeService, times(1)).getCompanyStatistics("NonExistentCorp");
         verify(employeeService, never()).getHighestSalaryInCompany(anyString());
     }
 
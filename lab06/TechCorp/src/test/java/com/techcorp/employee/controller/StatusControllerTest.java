@@ -0,0 +1,71 @@
+package com.techcorp.employee.controller;
+
+import com.techcorp.employee.exception.GlobalExceptionHandler;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.service.StartupImportService;
+import com.techcorp.employee.service.StartupImportService.Source;
+import com.techcorp.employee.service.StartupImportService.State;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testy kontrolera StatusController używające @WebMvcTest i MockMvc.
+ */
+@WebMvcTest
+@ContextConfiguration(classes = {StatusController.class, GlobalExceptionHandler.class})
+class StatusControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StartupImportService startupImportService;
+
+    /**
+     * Test GET /api/status/readiness w trakcie importu - 503 i podsumowania źródeł lokalnych
+     */
+    @Test
+    void testGetReadiness_Importing_Returns503() throws Exception {
+        // Given
+        ImportSummary csv = new ImportSummary();
+        csv.importedCount();
+        csv.addError(5, "Invalid position");
+        when(startupImportService.getState()).thenReturn(State.IMPORTING);
+        when(startupImportService.isReady()).thenReturn(false);
+        when(startupImportService.getSummaries()).thenReturn(Map.of(Source.CSV, csv));
+
+        // When & Then
+        mockMvc.perform(get("/api/status/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.state").value("IMPORTING"))
+                .andExpect(jsonPath("$.sources.CSV.importedCount").value(1))
+                .andExpect(jsonPath("$.sources.CSV.errors[0]").value("Line 5: Invalid position"))
+                .andExpect(jsonPath("$.sources.API").doesNotExist());
+    }
+
+    /**
+     * Test GET /api/status/readiness po imporcie - 200 OK
+     */
+    @Test
+    void testGetReadiness_Ready_ReturnsOk() throws Exception {
+        // Given
+        when(startupImportService.getState()).thenReturn(State.READY);
+        when(startupImportService.isReady()).thenReturn(true);
+        when(startupImportService.getSummaries()).thenReturn(Map.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/status/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("READY"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.model.ApiIngestionSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy pobierania z wielu stronicowanych źródeł na lokalnym serwerze-atrapie
+ * (stronicowanie jak w jsonplaceholder: ?_page=N&_limit=M).
+ */
+class ApiIngestionServiceTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long RESPONSE_DELAY_MS = 50;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService apiExecutor;
+    private EmployeeService employeeService;
+    private ApiService apiService;
+
+    // Liczba żądań obsługiwanych w tej chwili i największa zaobserwowana
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        apiExecutor = Executors.newFixedThreadPool(4);
+        employeeService = new EmployeeService();
+        apiService = new ApiService("http://unused", HttpClient.newHttpClient(), new Gson(), apiExecutor, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        apiExecutor.shutdownNow();
+    }
+
+    /**
+     * Test dwóch stronicowanych źródeł: wszystkie strony pobrane i scalone, podsumowanie dla każdego źródła.
+     */
+    @Test
+    void testIngest_TwoPagedTenants_ImportsAllPages() {
+        // Given
+        tenant("/tenant-a/users", "a", 25);
+        tenant("/tenant-b/users", "b", 7);
+
+        // When
+        ApiIngestionSummary summary = service(PAGE_SIZE, 3).ingest(List.of(url("/tenant-a/users"), url("/tenant-b/users")));
+
+        // Then
+        assertEquals(32, summary.getImportedCount());
+        assertEquals(32, employeeService.getAllEmployees().size());
+        ApiIngestionSummary.SourceSummary tenantA = summary.getSources().get(0);
+        assertEquals(url("/tenant-a/users"), tenantA.getUrl());
+        assertEquals(25, tenantA.getImportedCount());
+        assertEquals(3, tenantA.getPages());
+        assertTrue(tenantA.getErrors().isEmpty(), tenantA.getErrors().toString());
+        assertTrue(tenantA.getElapsedMillis() >= RESPONSE_DELAY_MS);
+        ApiIngestionSummary.SourceSummary tenantB = summary.getSources().get(1);
+        assertEquals(7, tenantB.getImportedCount());
+        assertEquals(1, tenantB.getPages());
+        assertTrue(employeeService.findEmployeeByEmail("a24@tenant.com").isPresent());
+    }
+
+    /**
+     * Test limitu równoległości - nigdy więcej żądań naraz niż max-concurrency, ale więcej niż jedno.
+     */
+    @Test
+    void testIngest_ConcurrencyCapRespected() {
+        // Given
+        tenant("/tenant-a/users", "a", 60);
+        tenant("/tenant-b/users", "b", 60);
+
+        // When
+        ApiIngestionSummary summary = service(PAGE_SIZE, 2).ingest(List.of(url("/tenant-a/users"), url("/tenant-b/users")));
+
+        // Then
+        assertEquals(120, summary.getImportedCount());
+        assertEquals(2, maxActive.get());
+        // z wyprzedzeniem pobieranych jest najwyżej max-concurrency - 1 stron za końcem źródła
+        int totalRequests = requests.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertTrue(totalRequests <= 14 + 2, "requests: " + totalRequests);
+    }
+
+    /**
+     * Test błędu jednej strony i duplikatów między źródłami - pozostałe źródło pobierane dalej,
+     * błędy przypisane do źródła i strony.
+     */
+    @Test
+    void testIngest_FailingPageAndDuplicates_ReportedPerSource() {
+        // Given
+        tenant("/tenant-a/users", "a", 15);
+        server.createContext("/tenant-b/users", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query.contains("_page=1&")) {
+                // pierwsza strona B powtarza dwa emaile z A
+                send(exchange, 200, "[" + entries("a", 0, 2) + "," + entries("b", 0, 8) + "]");
+            } else {
+                send(exchange, 503, "{}");
+            }
+        });
+
+        // When
+        ApiIngestionSummary summary = service(PAGE_SIZE, 1).ingest(List.of(url("/tenant-a/users"), url("/tenant-b/users")));
+
+        // Then
+        assertEquals(15, summary.getSources().get(0).getImportedCount());
+        ApiIngestionSummary.SourceSummary tenantB = summary.getSources().get(1);
+        assertEquals(8, tenantB.getImportedCount());
+        assertEquals(List.of(
+                "Page 1: Duplicate email: a0@tenant.com",
+                "Page 1: Duplicate email: a1@tenant.com",
+                "Page 2: API request failed with status code: 503"), tenantB.getErrors());
+        assertEquals(23, employeeService.getAllEmployees().size());
+    }
+
+    /**
+     * Test bez stronicowania (page-size = 0) - jedno żądanie na źródło, adres bez parametrów strony.
+     */
+    @Test
+    void testIngest_PagingDisabled_OneRequestPerSource() {
+        // Given
+        server.createContext("/users", exchange -> {
+            requests.computeIfAbsent("/users", key -> new AtomicInteger()).incrementAndGet();
+            assertNull(exchange.getRequestURI().getQuery());
+            send(exchange, 200, users("x", 0, 30));
+        });
+
+        // When
+        ApiIngestionSummary summary = service(0, 4).ingest(List.of(url("/users")));
+
+        // Then
+        assertEquals(30, summary.getImportedCount());
+        assertEquals(1, summary.getSources().get(0).getPages());
+        assertEquals(1, requests.get("/users").get());
+    }
+
+    private ApiIngestionService service(int pageSize, int maxConcurrency) {
+        return new ApiIngestionService(employeeService, apiService, List.of(), pageSize, "_page", "_limit", maxConcurrency);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    // Źródło z count użytkownikami, stronicowane parametrami _page i _limit
+    private void tenant(String path, String prefix, int count) {
+        server.createContext(path, exchange -> {
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(RESPONSE_DELAY_MS);
+                Map<String, String> params = new ConcurrentHashMap<>();
+                for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+                    String[] parts = pair.split("=");
+                    params.put(parts[0], parts[1]);
+                }
+                int page = Integer.parseInt(params.get("_page"));
+                int limit = Integer.parseInt(params.get("_limit"));
+                int from = Math.min(count, (page - 1) * limit);
+                int to = Math.min(count, from + limit);
+                active.decrementAndGet();
+                send(exchange, 200, users(prefix, from, to));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static String users(String prefix, int from, int to) {
+        return "[" + entries(prefix, from, to) + "]";
+    }
+
+    private static String entries(String prefix, int from, int to) {
+        StringBuilder json = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"Jan Kowalski\",\"email\":\"").append(prefix).append(i)
+                    .append("@tenant.com\",\"company\":{\"name\":\"Tenant ").append(prefix).append("\"}}");
+        }
+        return json.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
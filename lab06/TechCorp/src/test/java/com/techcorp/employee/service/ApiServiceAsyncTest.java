@@ -0,0 +1,202 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy asynchronicznego pobierania z API na lokalnym serwerze-atrapie (com.sun.net.httpserver).
+ */
+class ApiServiceAsyncTest {
+
+    private static final long READ_TIMEOUT_MS = 500;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService apiExecutor;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        // jeden wątek - test przekroczenia czasu sprawdza, że zablokowane parsowanie go zwalnia
+        apiExecutor = Executors.newSingleThreadExecutor();
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        apiExecutor.shutdownNow();
+    }
+
+    /**
+     * Test strumieniowego parsowania dużej odpowiedzi z dodatkowymi, zagnieżdżonymi polami
+     * (format jsonplaceholder.typicode.com/users).
+     */
+    @Test
+    void testFetchAsync_LargeResponse_ParsesAllEmployees() throws Exception {
+        // Given
+        int count = 5000;
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Jan Kowalski-").append(i).append('"')
+                    .append(",\"username\":\"jan").append(i).append('"')
+                    .append(",\"email\":\"jan").append(i).append("@example.com\"")
+                    .append(",\"address\":{\"street\":\"Polna\",\"geo\":{\"lat\":\"52.2\",\"lng\":\"21.0\"}}")
+                    .append(",\"phone\":null")
+                    .append(",\"company\":{\"name\":\"Łódź Corp\",\"catchPhrase\":\"x\",\"bs\":\"y\"}}");
+        }
+        json.append(']');
+        respond("/users", 200, json.toString());
+
+        // When
+        List<Employee> employees = service("/users").fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(count, employees.size());
+        Employee last = employees.get(count - 1);
+        assertEquals("Jan", last.getFirstName());
+        assertEquals("Kowalski-4999", last.getLastName());
+        assertEquals("jan4999@example.com", last.getEmail());
+        assertEquals("Łódź Corp", last.getCompany());
+        assertEquals(Position.DEVELOPER, last.getPosition());
+    }
+
+    /**
+     * Test statusu innego niż 200.
+     */
+    @Test
+    void testFetchAsync_ServerError_FailsWithApiException() {
+        // Given
+        respond("/users", 500, "{\"error\":\"boom\"}");
+
+        // When
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> service("/users").fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(ApiException.class, thrown.getCause());
+        assertTrue(thrown.getCause().getMessage().contains("500"));
+    }
+
+    /**
+     * Test niepoprawnego JSON-a (brak wymaganego pola).
+     */
+    @Test
+    void testFetchAsync_MissingField_FailsWithApiException() {
+        // Given
+        respond("/users", 200, "[{\"name\":\"Jan Kowalski\",\"company\":{\"name\":\"TechCorp\"}}]");
+
+        // When
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> service("/users").fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(ApiException.class, thrown.getCause());
+    }
+
+    /**
+     * Test przekroczenia czasu odczytu, gdy serwer wysłał nagłówki i początek treści, po czym przestał odpowiadać.
+     * Zablokowane parsowanie musi zostać przerwane - kolejne żądanie na tym samym jednowątkowym wykonawcy działa.
+     */
+    @Test
+    void testFetchAsync_StalledBody_TimesOutAndReleasesExecutor() throws Exception {
+        // Given
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("[{\"name\":\"Jan Kowalski\",".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        respond("/users", 200, "[{\"name\":\"Anna Nowak\",\"email\":\"anna@example.com\",\"company\":{\"name\":\"TechCorp\"}}]");
+
+        // When
+        long start = System.nanoTime();
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> service("/stalled").fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertInstanceOf(ApiException.class, thrown.getCause());
+        assertTrue(thrown.getCause().getMessage().contains("timed out"));
+        assertTrue(elapsedMs < 3000, "elapsed " + elapsedMs + " ms");
+        List<Employee> next = service("/users").fetchEmployeesFromApiAsync().get(3, TimeUnit.SECONDS);
+        assertEquals("anna@example.com", next.get(0).getEmail());
+    }
+
+    /**
+     * Test braku serwera pod adresem (odmowa połączenia).
+     */
+    @Test
+    void testFetchAsync_ConnectionRefused_FailsWithApiException() throws Exception {
+        // Given
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        ApiService apiService = new ApiService("http://127.0.0.1:" + closedPort + "/users", httpClient, new Gson(),
+                apiExecutor, READ_TIMEOUT_MS);
+
+        // When
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(ApiException.class, thrown.getCause());
+    }
+
+    private ApiService service(String path) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        return new ApiService(url, httpClient, new Gson(), apiExecutor, READ_TIMEOUT_MS);
+    }
+
+    private void respond(String path, int status, String body) {
+        server.createContext(path, exchange -> send(exchange, status, body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
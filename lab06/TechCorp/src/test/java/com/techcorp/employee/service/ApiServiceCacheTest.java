@@ -0,0 +1,224 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy żądań warunkowych (ETag / Last-Modified) i pamięci podręcznej odpowiedzi w ApiService
+ * na lokalnym serwerze-atrapie.
+ */
+class ApiServiceCacheTest {
+
+    private static final String USERS = "[{\"name\":\"Jan Kowalski\",\"email\":\"jan@example.com\",\"company\":{\"name\":\"TechCorp\"}},"
+            + "{\"name\":\"Anna Nowak\",\"email\":\"anna@example.com\",\"company\":{\"name\":\"DataCorp\"}}]";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService apiExecutor;
+
+    // Stan atrapy: bieżący ETag treści, liczba żądań i pełnych odpowiedzi, nagłówki ostatniego żądania
+    private final AtomicReference<String> currentEtag = new AtomicReference<>("\"v1\"");
+    private final AtomicReference<String> body = new AtomicReference<>(USERS);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicReference<String> lastIfNoneMatch = new AtomicReference<>();
+    private final AtomicReference<String> lastIfModifiedSince = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", this::handle);
+        server.createContext("/dated", this::handleDated);
+        server.start();
+        apiExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        apiExecutor.shutdownNow();
+    }
+
+    /**
+     * Test ETag: drugie żądanie jest warunkowe, 304 zwraca poprzednią listę bez pobierania treści.
+     */
+    @Test
+    void testFetchAsync_UnchangedEtag_ReusesParsedList() throws Exception {
+        // Given
+        ApiService apiService = service("/users", null);
+        List<Employee> first = apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        first.get(0).setStatus(EmploymentStatus.TERMINATED);
+
+        // When
+        List<Employee> second = apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(2, requests.get());
+        assertEquals(1, fullResponses.get());
+        assertEquals("\"v1\"", lastIfNoneMatch.get());
+        assertEquals(List.of("jan@example.com", "anna@example.com"), second.stream().map(Employee::getEmail).toList());
+        // zmiany w obiektach zwróconych wcześniej nie przenikają do pamięci podręcznej
+        assertEquals(EmploymentStatus.ACTIVE, second.get(0).getStatus());
+    }
+
+    /**
+     * Test zmiany danych: nowy ETag - pełna odpowiedź jest parsowana i zastępuje zapamiętaną.
+     */
+    @Test
+    void testFetchAsync_ChangedEtag_ParsesNewBody() throws Exception {
+        // Given
+        ApiService apiService = service("/users", null);
+        apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        currentEtag.set("\"v2\"");
+        body.set("[{\"name\":\"Ewa Lis\",\"email\":\"ewa@example.com\",\"company\":{\"name\":\"TechCorp\"}}]");
+
+        // When
+        List<Employee> changed = apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        List<Employee> again = apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("ewa@example.com", changed.get(0).getEmail());
+        assertEquals("ewa@example.com", again.get(0).getEmail());
+        assertEquals(2, fullResponses.get());
+        assertEquals("\"v2\"", lastIfNoneMatch.get());
+    }
+
+    /**
+     * Test Last-Modified w wersji synchronicznej: wysyłane jest If-Modified-Since, 304 zwraca poprzednią listę.
+     */
+    @Test
+    void testFetchSync_LastModified_SendsIfModifiedSince() throws Exception {
+        // Given
+        ApiService apiService = service("/dated", null);
+        apiService.fetchEmployeesFromApi();
+
+        // When
+        List<Employee> second = apiService.fetchEmployeesFromApi();
+
+        // Then
+        assertEquals(LAST_MODIFIED, lastIfModifiedSince.get());
+        assertNull(lastIfNoneMatch.get());
+        assertEquals(1, fullResponses.get());
+        assertEquals(2, second.size());
+    }
+
+    /**
+     * Test zapisu na dysk: nowa instancja (restart) wysyła żądanie warunkowe i odtwarza listę z pliku.
+     */
+    @Test
+    void testFetchAsync_DiskCache_SurvivesRestart() throws Exception {
+        // Given
+        Path cacheDirectory = tempDir.resolve("uploads").resolve("api-cache");
+        service("/users", cacheDirectory).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        try (var files = Files.list(cacheDirectory)) {
+            assertEquals(1, files.count());
+        }
+
+        // When
+        List<Employee> afterRestart = service("/users", cacheDirectory).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, fullResponses.get());
+        assertEquals("\"v1\"", lastIfNoneMatch.get());
+        Employee anna = afterRestart.get(1);
+        assertEquals("Anna", anna.getFirstName());
+        assertEquals("Nowak", anna.getLastName());
+        assertEquals("DataCorp", anna.getCompany());
+    }
+
+    /**
+     * Test wyłączonej pamięci podręcznej - żądania zawsze bez nagłówków warunkowych.
+     */
+    @Test
+    void testFetchAsync_CacheDisabled_AlwaysFullResponse() throws Exception {
+        // Given
+        ApiService apiService = new ApiService(url("/users"), HttpClient.newHttpClient(), new Gson(), apiExecutor,
+                5000, false, null, ApiCallPolicy.none());
+
+        // When
+        apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(2, fullResponses.get());
+        assertNull(lastIfNoneMatch.get());
+    }
+
+    private ApiService service(String path, Path cacheDirectory) {
+        return new ApiService(url(path), HttpClient.newHttpClient(), new Gson(), apiExecutor, 5000,
+                true, cacheDirectory == null ? null : cacheDirectory.toString(), ApiCallPolicy.none());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        lastIfNoneMatch.set(ifNoneMatch);
+        String etag = currentEtag.get();
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        sendBody(exchange);
+    }
+
+    private void handleDated(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        lastIfNoneMatch.set(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        lastIfModifiedSince.set(ifModifiedSince);
+        exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+        if (LAST_MODIFIED.equals(ifModifiedSince)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        sendBody(exchange);
+    }
+
+    private void sendBody(HttpExchange exchange) throws IOException {
+        fullResponses.incrementAndGet();
+        byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
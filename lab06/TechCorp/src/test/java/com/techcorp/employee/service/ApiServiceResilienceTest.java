@@ -0,0 +1,291 @@
+package com.techcorp.employee.service;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy ponawiania, bezpiecznika i żądań zabezpieczających (hedging) na lokalnym serwerze-atrapie,
+ * który wstrzykuje błędy: kolejne żądania dostają kolejne zaplanowane zachowania z kolejki faults.
+ */
+class ApiServiceResilienceTest {
+
+    private static final String USERS = "[{\"name\":\"Jan Kowalski\",\"email\":\"jan@example.com\",\"company\":{\"name\":\"TechCorp\"}}]";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService apiExecutor;
+    private HttpClient httpClient;
+
+    // Zachowania dla kolejnych żądań: "OK", "500", "503", "404", "DROP" (zerwane połączenie), "SLOW" (1,5 s)
+    private final Queue<String> faults = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", this::handle);
+        server.start();
+        apiExecutor = Executors.newFixedThreadPool(4);
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        apiExecutor.shutdownNow();
+    }
+
+    /**
+     * Test ponawiania błędów przejściowych (503, 500) aż do sukcesu.
+     */
+    @Test
+    void testFetchAsync_TransientErrors_RetriedUntilSuccess() throws Exception {
+        // Given
+        faults.addAll(List.of("503", "500", "OK"));
+        ApiCallPolicy policy = new ApiCallPolicy(3, 10, 100, 0.5, 0, () -> new CircuitBreaker(0, Duration.ZERO));
+
+        // When
+        List<Employee> employees = service(policy).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("jan@example.com", employees.get(0).getEmail());
+        assertEquals(3, requests.get());
+        ApiCallPolicy.Metrics metrics = policy.getMetrics();
+        assertEquals(1, metrics.calls());
+        assertEquals(3, metrics.attempts());
+        assertEquals(2, metrics.failedAttempts());
+        assertEquals(2, metrics.retries());
+    }
+
+    /**
+     * Test zerwanego połączenia w wersji synchronicznej - IOException jest błędem przejściowym.
+     */
+    @Test
+    void testFetchSync_DroppedConnection_Retried() throws Exception {
+        // Given - HttpClient sam ponawia raz żądanie GET po zerwanym połączeniu, więc trzy zerwania
+        // wyczerpują jego próbę i dopiero wtedy działa ponawianie ApiCallPolicy
+        faults.addAll(List.of("DROP", "DROP", "DROP", "OK"));
+        ApiCallPolicy policy = new ApiCallPolicy(3, 10, 100, 0.5, 0, () -> new CircuitBreaker(0, Duration.ZERO));
+
+        // When
+        List<Employee> employees = service(policy).fetchEmployeesFromApi();
+
+        // Then
+        assertEquals(1, employees.size());
+        assertEquals(4, requests.get());
+        assertEquals(1, policy.getMetrics().retries());
+    }
+
+    /**
+     * Test błędu klienta (404) - nie jest ponawiany.
+     */
+    @Test
+    void testFetchAsync_ClientError_NotRetried() {
+        // Given
+        faults.addAll(List.of("404", "OK"));
+        ApiCallPolicy policy = new ApiCallPolicy(3, 10, 100, 0.5, 0, () -> new CircuitBreaker(0, Duration.ZERO));
+
+        // When
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> service(policy).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(ApiException.class, thrown.getCause());
+        assertFalse(((ApiException) thrown.getCause()).isRetryable());
+        assertEquals(1, requests.get());
+    }
+
+    /**
+     * Test bezpiecznika: po 3 błędach kolejne wywołania są odrzucane bez żądania,
+     * a po czasie otwarcia próbne wywołanie zamyka bezpiecznik.
+     */
+    @Test
+    void testCircuitBreaker_OpensAfterFailures_ThenRecovers() throws Exception {
+        // Given
+        faults.addAll(List.of("500", "500", "500"));
+        ApiCallPolicy policy = new ApiCallPolicy(1, 0, 0, 0, 0, () -> new CircuitBreaker(3, Duration.ofMillis(300)));
+        ApiService apiService = service(policy);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ExecutionException.class, () -> apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+        }
+
+        // When
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertTrue(rejected.getCause().getMessage().contains("Circuit breaker is open"));
+        assertEquals(3, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitState(url()));
+        assertEquals(1, policy.getMetrics().rejected());
+
+        Thread.sleep(350);
+        List<Employee> employees = apiService.fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(1, employees.size());
+        assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitState(url()));
+        assertEquals(4, requests.get());
+    }
+
+    /**
+     * Test bezpieczników dla wielu hostów: otwarty bezpiecznik jednego hosta nie odrzuca wywołań innego.
+     */
+    @Test
+    void testCircuitBreaker_PerHost_FailingHostDoesNotBlockOthers() throws Exception {
+        // Given
+        ApiCallPolicy policy = new ApiCallPolicy(1, 0, 0, 0, 0, () -> new CircuitBreaker(2, Duration.ofMinutes(1)));
+        String failing = "http://failing.example:8080/users?page=1";
+        String healthy = "http://healthy.example/users";
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ApiException.class, () -> policy.execute(failing, () -> {
+                throw new ApiException("HTTP 503", true);
+            }));
+        }
+
+        // When
+        ApiException rejected = assertThrows(ApiException.class,
+                () -> policy.execute("http://FAILING.example:8080/users?page=2", () -> "nie wywołane"));
+        String result = policy.execute(healthy, () -> "OK");
+
+        // Then
+        assertTrue(rejected.getMessage().contains("Circuit breaker is open"));
+        assertEquals("OK", result);
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitState(failing));
+        assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitState(healthy));
+    }
+
+    /**
+     * Test wyjątku spoza ApiException w wywołaniu próbnym - bezpiecznik nie zostaje w HALF_OPEN,
+     * a kolejne wywołanie nie jest odrzucane.
+     */
+    @Test
+    void testCircuitBreaker_RuntimeExceptionInProbe_DoesNotBlockLaterCalls() throws Exception {
+        // Given
+        ApiCallPolicy policy = new ApiCallPolicy(1, 0, 0, 0, 0, () -> new CircuitBreaker(1, Duration.ofMillis(50)));
+        String target = url();
+        assertThrows(ApiException.class, () -> policy.execute(target, () -> {
+            throw new ApiException("HTTP 503", true);
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitState(target));
+        Thread.sleep(100);
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> policy.execute(target, () -> {
+            throw new IllegalArgumentException("Illegal character in path");
+        }));
+        String result = policy.execute(target, () -> "OK");
+
+        // Then
+        assertEquals("OK", result);
+        assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitState(target));
+        assertEquals(0, policy.getMetrics().rejected());
+        assertEquals(2, policy.getMetrics().failedAttempts());
+    }
+
+    /**
+     * Test żądania zabezpieczającego: pierwsze żądanie wisi, drugie (po hedge-delay) odpowiada od razu.
+     */
+    @Test
+    void testFetchAsync_SlowPrimary_HedgeWins() throws Exception {
+        // Given - rozgrzanie klienta, żeby pierwsze żądanie na pewno dotarło do serwera przed zabezpieczającym
+        service(ApiCallPolicy.none()).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        faults.addAll(List.of("SLOW", "OK"));
+        ApiCallPolicy policy = new ApiCallPolicy(1, 0, 0, 0, 200, () -> new CircuitBreaker(0, Duration.ZERO));
+
+        // When
+        long start = System.nanoTime();
+        List<Employee> employees = service(policy).fetchEmployeesFromApiAsync().get(5, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals(1, employees.size());
+        assertTrue(elapsedMs < 1000, "elapsed " + elapsedMs + " ms");
+        ApiCallPolicy.Metrics metrics = policy.getMetrics();
+        assertEquals(1, metrics.hedges());
+        assertEquals(1, metrics.hedgeWins());
+        assertEquals(2, metrics.attempts());
+    }
+
+    /**
+     * Test odstępów między próbami: wykładniczy wzrost, limit i rozrzut w granicach jitter.
+     */
+    @Test
+    void testBackoff_ExponentialWithJitterAndCap() {
+        // Given
+        ApiCallPolicy policy = new ApiCallPolicy(10, 100, 1000, 0.5, 0, () -> new CircuitBreaker(0, Duration.ZERO));
+
+        // When & Then
+        for (int i = 0; i < 200; i++) {
+            assertBetween(50, 100, policy.backoffMs(1));
+            assertBetween(100, 200, policy.backoffMs(2));
+            assertBetween(400, 800, policy.backoffMs(4));
+            assertBetween(500, 1000, policy.backoffMs(10));
+            assertBetween(500, 1000, policy.backoffMs(64));
+        }
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+
+    private ApiService service(ApiCallPolicy policy) {
+        return new ApiService(url(), httpClient, new Gson(), apiExecutor, 5000, false, null, policy);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/users";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String fault = faults.poll();
+        switch (fault == null ? "OK" : fault) {
+            case "DROP" -> exchange.close();
+            case "SLOW" -> {
+                try {
+                    Thread.sleep(1500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, 200, USERS);
+            }
+            case "OK" -> send(exchange, 200, USERS);
+            default -> send(exchange, Integer.parseInt(fault), "{}");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
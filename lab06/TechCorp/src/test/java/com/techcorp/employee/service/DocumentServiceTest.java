@@ -0,0 +1,207 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.FileStorageException;
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy magazynu treści dokumentów: deduplikacja i liczenie odwołań.
+ */
+class DocumentServiceTest {
+
+    private static final byte[] TEMPLATE = "szablon listy płac".getBytes();
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageService fileStorageService;
+    private DocumentService documentService;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeService employeeService = new EmployeeService();
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        fileStorageService = new FileStorageService(
+                tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString());
+        documentService = new DocumentService(fileStorageService, employeeService);
+    }
+
+    /**
+     * Test zapisu tej samej treści dla dwóch pracowników - jeden plik, dwa odwołania.
+     */
+    @Test
+    void testSaveDocument_SameContent_StoredOnce() throws IOException {
+        // When
+        EmployeeDocument jan = documentService.saveDocument("jan@techcorp.com", pdf("lista_jan.pdf", TEMPLATE), DocumentType.OTHER);
+        EmployeeDocument anna = documentService.saveDocument("anna@techcorp.com", pdf("lista_anna.pdf", TEMPLATE), DocumentType.OTHER);
+
+        // Then
+        assertEquals(jan.getFilePath(), anna.getFilePath());
+        assertNotEquals(jan.getId(), anna.getId());
+        assertEquals("lista_anna.pdf", anna.getOriginalFileName());
+        assertEquals(2, documentService.getReferenceCount(jan.getFilePath()));
+        assertEquals(1, storedFileCount());
+        assertArrayEquals(TEMPLATE, Files.readAllBytes(Path.of(jan.getFilePath())));
+    }
+
+    /**
+     * Test nazwy pliku w magazynie - skrót SHA-256 treści z rozszerzeniem.
+     */
+    @Test
+    void testSaveDocument_FileNamedBySha256() throws IOException {
+        // When
+        EmployeeDocument document = documentService.saveDocument("jan@techcorp.com", pdf("Umowa.PDF", "abc".getBytes()), DocumentType.CONTRACT);
+
+        // Then
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.pdf", document.getFileName());
+        assertTrue(document.getFilePath().endsWith(Path.of("blobs", "ba", document.getFileName()).toString()));
+    }
+
+    /**
+     * Test usuwania - plik znika dopiero z ostatnim dokumentem.
+     */
+    @Test
+    void testDeleteDocument_RemovesFileWithLastReference() throws IOException {
+        // Given
+        EmployeeDocument jan = documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER);
+        EmployeeDocument anna = documentService.saveDocument("anna@techcorp.com", pdf("b.pdf", TEMPLATE), DocumentType.OTHER);
+        Path file = Path.of(jan.getFilePath());
+
+        // When
+        boolean firstDeleted = documentService.deleteDocument("jan@techcorp.com", jan.getId());
+
+        // Then
+        assertFalse(firstDeleted);
+        assertTrue(Files.exists(file));
+        assertEquals(1, documentService.getReferenceCount(file.toString()));
+        assertNotNull(documentService.loadDocumentFile(anna.getId()));
+
+        assertTrue(documentService.deleteDocument("anna@techcorp.com", anna.getId()));
+        assertFalse(Files.exists(file));
+        assertEquals(0, documentService.getReferenceCount(file.toString()));
+    }
+
+    /**
+     * Test ponownego przesłania po usunięciu ostatniego odwołania - plik jest zapisywany od nowa.
+     */
+    @Test
+    void testSaveDocument_AfterLastReferenceDeleted_StoresAgain() throws IOException {
+        // Given
+        EmployeeDocument first = documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER);
+        documentService.deleteDocument("jan@techcorp.com", first.getId());
+
+        // When
+        EmployeeDocument second = documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER);
+
+        // Then
+        assertEquals(first.getFilePath(), second.getFilePath());
+        assertTrue(Files.exists(Path.of(second.getFilePath())));
+        assertEquals(1, documentService.getReferenceCount(second.getFilePath()));
+    }
+
+    /**
+     * Test odtwarzania metadanych (jak z dziennika) - liczniki wynikają z odtworzonych dokumentów.
+     */
+    @Test
+    void testRestore_RebuildsReferenceCounts() throws IOException {
+        // Given
+        EmployeeDocument jan = documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER);
+        EmployeeDocument anna = documentService.saveDocument("anna@techcorp.com", pdf("b.pdf", TEMPLATE), DocumentType.OTHER);
+        DocumentService restored = new DocumentService(fileStorageService, new EmployeeService());
+
+        // When
+        restored.restoreDocument(jan);
+        restored.restoreDocument(anna);
+        restored.restoreDocument(anna); // powtórzony wpis nie zwiększa licznika
+        restored.restoreRemoval(jan.getId());
+
+        // Then
+        assertEquals(1, restored.getReferenceCount(anna.getFilePath()));
+        assertTrue(restored.deleteDocument("anna@techcorp.com", anna.getId()));
+        assertFalse(Files.exists(Path.of(anna.getFilePath())));
+    }
+
+    /**
+     * Test błędu dziennika - nowy plik bez odwołań jest usuwany, a plik używany przez inny dokument zostaje.
+     */
+    @Test
+    void testSaveDocument_ListenerFails_LeavesNoUnreferencedBlob() throws IOException {
+        // Given
+        documentService.setChangeListener(failingListener());
+
+        // When & Then
+        assertThrows(FileStorageException.class, () ->
+                documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER));
+        assertEquals(0, storedFileCount());
+        assertTrue(documentService.getAllDocuments().isEmpty());
+
+        // Given - ta sama treść zapisana wcześniej przez inny dokument
+        documentService.setChangeListener(null);
+        EmployeeDocument anna = documentService.saveDocument("anna@techcorp.com", pdf("b.pdf", TEMPLATE), DocumentType.OTHER);
+        documentService.setChangeListener(failingListener());
+
+        // When & Then
+        assertThrows(FileStorageException.class, () ->
+                documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", TEMPLATE), DocumentType.OTHER));
+        assertTrue(Files.exists(Path.of(anna.getFilePath())));
+        assertEquals(1, documentService.getReferenceCount(anna.getFilePath()));
+        assertEquals(1, storedFileCount());
+    }
+
+    /**
+     * Test walidatora dokumentu - ETag ze skrótu treści, taki sam dla tej samej treści.
+     */
+    @Test
+    void testGetDocumentValidator_EtagFromContentHash() throws IOException {
+        // Given
+        EmployeeDocument jan = documentService.saveDocument("jan@techcorp.com", pdf("a.pdf", "abc".getBytes()), DocumentType.OTHER);
+        EmployeeDocument anna = documentService.saveDocument("anna@techcorp.com", pdf("b.pdf", "abc".getBytes()), DocumentType.OTHER);
+
+        // When
+        FileStorageService.FileValidator validator = documentService.getDocumentValidator(jan);
+
+        // Then
+        assertEquals("\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"", validator.etag());
+        assertEquals(validator.etag(), documentService.getDocumentValidator(anna).etag());
+        assertTrue(validator.lastModified() > 0);
+    }
+
+    // Odbiorca zmian jak dziennik po błędzie zapisu - każda zmiana jest odrzucana
+    private static DocumentChangeListener failingListener() {
+        return new DocumentChangeListener() {
+            @Override
+            public void documentSaved(EmployeeDocument document) {
+                throw new FileStorageException("Dziennik zapisu jest zamknięty");
+            }
+
+            @Override
+            public void documentRemoved(String documentId) {
+                throw new FileStorageException("Dziennik zapisu jest zamknięty");
+            }
+        };
+    }
+
+    private static MockMultipartFile pdf(String name, byte[] content) {
+        return new MockMultipartFile("file", name, "application/pdf", content);
+    }
+
+    private long storedFileCount() throws IOException {
+        try (Stream<Path> files = Files.walk(fileStorageService.getUploadLocation().resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy kolumnowej migawki pracowników - wyniki agregacji muszą być zgodne z EmployeeService.
+ */
+class EmployeeColumnsTest {
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@techcorp.com", "TechCorp", Position.DEVELOPER, 7000,
+                EmploymentStatus.ON_LEAVE));
+        employeeService.addEmployee(new Employee("Piotr", "Wiśniewski", "piotr@datacorp.com", "DataCorp", Position.INTERN, 3000));
+        employeeService.addEmployee(new Employee("Zofia", "Mazur", "zofia@datacorp.com", "DataCorp", Position.PRESIDENT, 30000));
+    }
+
+    /**
+     * Test agregatów całej organizacji.
+     * Średnia i liczby na stanowiskach zgodne z wynikami EmployeeService.
+     */
+    @Test
+    void testGlobalAggregates_MatchEmployeeService() {
+        // When
+        EmployeeColumns columns = employeeService.getColumnarSnapshot();
+
+        // Then
+        assertEquals(5, columns.size());
+        assertEquals(employeeService.averageSalary(), columns.averageSalary(), 0.001);
+        assertEquals(30000, columns.maxSalary(), 0.001);
+        assertEquals(employeeService.countEmployeesOnPositions(), columns.countByPosition());
+        assertEquals(Map.of(EmploymentStatus.ACTIVE, 4L, EmploymentStatus.ON_LEAVE, 1L), columns.countByStatus());
+    }
+
+    /**
+     * Test agregacji po firmach (kodowanie słownikowe nazw firm).
+     */
+    @Test
+    void testCompanyAggregates_GroupedByDictionaryId() {
+        // When
+        EmployeeColumns columns = employeeService.getColumnarSnapshot();
+
+        // Then
+        assertEquals(2, columns.getCompanies().size());
+        assertEquals(Map.of("TechCorp", 3L, "DataCorp", 2L), columns.countByCompany());
+        assertEquals(9000, columns.averageSalaryByCompany("TechCorp"), 0.001);
+        assertEquals(employeeService.averageSalaryByCompany("DataCorp"), columns.averageSalaryByCompany("DataCorp"), 0.001);
+        assertEquals(0, columns.averageSalaryByCompany("NoSuchCorp"), 0.001);
+        assertEquals(Map.of("TechCorp", 9000.0, "DataCorp", 16500.0), columns.averageSalaryByCompany());
+        assertEquals(Map.of("TechCorp", 12000.0, "DataCorp", 30000.0), columns.maxSalaryByCompany());
+        assertEquals(Map.of(Position.DEVELOPER, 7500.0, Position.MANAGER, 12000.0),
+                columns.averageSalaryByPosition("TechCorp"));
+    }
+
+    /**
+     * Test liczby pracowników poniżej stawki bazowej stanowiska.
+     */
+    @Test
+    void testCountBelowBaseSalary_MatchesValidateSalaryConsistency() {
+        // Given
+        employeeService.addEmployee(new Employee("Adam", "Zieliński", "adam@datacorp.com", "DataCorp", Position.MANAGER, 100));
+
+        // When
+        EmployeeColumns columns = employeeService.getColumnarSnapshot();
+
+        // Then
+        assertEquals(employeeService.validateSalaryConsistency().size(), columns.countBelowBaseSalary());
+        assertTrue(columns.countBelowBaseSalary() > 0);
+    }
+
+    /**
+     * Test unieważniania migawki.
+     * Bez zmian zwracana jest ta sama migawka, po zmianie - nowa z aktualnymi danymi.
+     */
+    @Test
+    void testGetColumnarSnapshot_RebuiltAfterChanges() {
+        // Given
+        EmployeeColumns first = employeeService.getColumnarSnapshot();
+
+        // When & Then
+        assertSame(first, employeeService.getColumnarSnapshot());
+
+        employeeService.deleteEmployee("zofia@datacorp.com");
+        EmployeeColumns afterDelete = employeeService.getColumnarSnapshot();
+        assertNotSame(first, afterDelete);
+        assertEquals(4, afterDelete.size());
+        assertEquals(12000, afterDelete.maxSalary(), 0.001);
+        assertEquals(5, first.size());
+
+        employeeService.updateEmployeeStatus("jan@techcorp.com", EmploymentStatus.TERMINATED);
+        assertEquals(1L, employeeService.getColumnarSnapshot().countByStatus().get(EmploymentStatus.TERMINATED));
+    }
+
+    /**
+     * Test pustej migawki.
+     */
+    @Test
+    void testEmptySnapshot_ReturnsZeros() {
+        // When
+        EmployeeColumns columns = EmployeeColumns.of(List.of());
+
+        // Then
+        assertEquals(0, columns.size());
+        assertEquals(0, columns.averageSalary(), 0.001);
+        assertEquals(0, columns.maxSalary(), 0.001);
+        assertTrue(columns.countByCompany().isEmpty());
+        assertTrue(columns.countByPosition().isEmpty());
+    }
+}
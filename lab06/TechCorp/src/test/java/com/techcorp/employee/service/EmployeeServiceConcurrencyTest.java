@@ -0,0 +1,236 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy obciążeniowe EmployeeService - wiele wątków jednocześnie dodaje, aktualizuje,
+ * usuwa i zmienia status pracowników (tak jak równoległe żądania REST).
+ */
+class EmployeeServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final int EMAIL_POOL = 300;
+
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+    }
+
+    /**
+     * Każdy wątek dodaje własną pulę pracowników - żaden wpis nie może zginąć.
+     */
+    @Test
+    @Timeout(60)
+    void testConcurrentAdds_DisjointEmails_AllEmployeesStored() throws Exception {
+        // Given
+        int perThread = 2_000;
+
+        // When
+        runConcurrently(threadId -> {
+            for (int i = 0; i < perThread; i++) {
+                employeeService.addEmployee(employee("t" + threadId + "-" + i + "@firm.pl", 5000 + i));
+            }
+        });
+
+        // Then
+        assertEquals(THREADS * perThread, employeeService.getAllEmployees().size());
+    }
+
+    /**
+     * Wszystkie wątki próbują dodać tego samego pracownika - dokładnie jedna próba się udaje.
+     */
+    @Test
+    @Timeout(60)
+    void testConcurrentAdds_SameEmail_ExactlyOneSucceeds() throws Exception {
+        // Given
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When
+        runConcurrently(threadId -> {
+            try {
+                employeeService.addEmployee(employee(threadId % 2 == 0 ? "jan@firm.pl" : "JAN@FIRM.PL", 9000));
+                added.incrementAndGet();
+            } catch (DuplicateEmailException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        // Then
+        assertEquals(1, added.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, employeeService.getAllEmployees().size());
+    }
+
+    /**
+     * Mieszane operacje add/update/delete/status na wspólnej puli emaili.
+     * Po zakończeniu indeks emaili musi być spójny z listą pracowników.
+     */
+    @Test
+    @Timeout(120)
+    void testMixedOperations_ManyThreads_StoreStaysConsistent() throws Exception {
+        // When
+        runConcurrently(threadId -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                String email = "user" + random.nextInt(EMAIL_POOL) + "@firm.pl";
+                try {
+                    switch (random.nextInt(5)) {
+                        case 0 -> employeeService.addEmployee(employee(email, 3000 + random.nextInt(20_000)));
+                        case 1 -> employeeService.updateEmployee(email, employee(email, 3000 + random.nextInt(20_000)));
+                        case 2 -> employeeService.updateEmployee(email,
+                                employee("user" + random.nextInt(EMAIL_POOL) + "@firm.pl", 4000));
+                        case 3 -> employeeService.deleteEmployee(email);
+                        default -> employeeService.updateEmployeeStatus(email,
+                                EmploymentStatus.values()[random.nextInt(EmploymentStatus.values().length)]);
+                    }
+                } catch (DuplicateEmailException e) {
+                    // oczekiwane przy kolizji emaili
+                }
+                if (i % 500 == 0) {
+                    assertSnapshotConsistent(employeeService.getAllEmployees());
+                }
+            }
+        });
+
+        // Then
+        List<Employee> all = employeeService.getAllEmployees();
+        assertSnapshotConsistent(all);
+        assertTrue(all.size() <= EMAIL_POOL);
+        for (Employee employee : all) {
+            assertSame(employee, employeeService.findEmployeeByEmail(employee.getEmail()).orElseThrow());
+        }
+
+        // Agregaty utrzymywane przyrostowo muszą zgadzać się z przeliczeniem od zera
+        double expectedAverage = all.stream().mapToDouble(Employee::getSalary).average().orElse(0);
+        assertEquals(expectedAverage, employeeService.averageSalary(), 0.01);
+        assertEquals(all.size(), employeeService.countEmployeesOnPositions().values().stream()
+                .mapToLong(Long::longValue).sum());
+        assertEquals(all.size(), employeeService.getEmployeeStatusDistribution().values().stream()
+                .mapToLong(Long::longValue).sum());
+        for (EmploymentStatus status : EmploymentStatus.values()) {
+            long expected = all.stream().filter(e -> e.getStatus() == status).count();
+            assertEquals(expected, employeeService.findEmployeesByStatus(status).size());
+        }
+    }
+
+    /**
+     * Odczyty nie czekają na trwający zapis - tylko kopia dla migawki dziennika czeka na jego zakończenie.
+     */
+    @Test
+    @Timeout(30)
+    void testReads_WriteInProgress_DoNotBlock() throws Exception {
+        // Given - zapis zatrzymany w odbiorcy zmian, czyli pod blokadami zapisu
+        employeeService.addEmployee(employee("anna@firm.pl", 7000));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        employeeService.setChangeListener(new EmployeeChangeListener() {
+            @Override
+            public void employeeSaved(Employee employee) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void employeeReplaced(String oldEmail, Employee employee) {
+            }
+
+            @Override
+            public void employeeRemoved(String email) {
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> write = executor.submit(() -> employeeService.addEmployee(employee("jan@firm.pl", 9000)));
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+            // When & Then
+            Future<?> reads = executor.submit(() -> {
+                assertEquals(1, employeeService.getAllEmployees().size());
+                assertEquals(7000, employeeService.averageSalary(), 0.01);
+                assertEquals(1, employeeService.findEmployeesByStatus(EmploymentStatus.ACTIVE).size());
+                assertEquals(1, employeeService.getCompanyStatistics().get("TechCorp").getEmployeeCount());
+                return null;
+            });
+            reads.get(5, TimeUnit.SECONDS);
+
+            Future<List<Employee>> consistent = executor.submit(() -> employeeService.readConsistent(employeeService::getAllEmployees));
+            Thread.sleep(100);
+            assertFalse(consistent.isDone());
+            release.countDown();
+            write.get(10, TimeUnit.SECONDS);
+            assertEquals(2, consistent.get(10, TimeUnit.SECONDS).size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertSnapshotConsistent(List<Employee> snapshot) {
+        Set<String> keys = new HashSet<>();
+        for (Employee employee : snapshot) {
+            assertTrue(keys.add(employee.getEmail().toLowerCase(Locale.ROOT)),
+                    "Duplikat emaila w migawce: " + employee.getEmail());
+        }
+    }
+
+    private static Employee employee(String email, double salary) {
+        return new Employee("Jan", "Kowalski", email, "TechCorp", Position.DEVELOPER, salary);
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int threadId = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(threadId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int threadId) throws Exception;
+    }
+}
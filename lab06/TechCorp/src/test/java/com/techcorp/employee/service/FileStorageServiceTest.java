@@ -170,6 +170,27 @@ class FileStorageServiceTest {
             assertThat(savedContent).isEqualTo(content);
         }
 
+        /**
+         * Test ponownego przesłania tego samego pliku - ta sama ścieżka, bez drugiej kopii.
+         */
+        @Test
+        void testSaveUploadedFile_SameContentTwice_StoredOnce() throws IOException {
+            // Given
+            byte[] content = "firstName,lastName\nJan,Kowalski".getBytes();
+
+            // When
+            String first = fileStorageService.saveUploadedFile(new MockMultipartFile("file", "a.csv", "text/csv", content));
+            String second = fileStorageService.saveUploadedFile(new MockMultipartFile("file", "b.csv", "text/csv", content));
+            String other = fileStorageService.saveUploadedFile(new MockMultipartFile("file", "a.csv", "text/csv", "inne".getBytes()));
+
+            // Then
+            assertThat(second).isEqualTo(first);
+            assertThat(other).isNotEqualTo(first);
+            try (var files = Files.walk(fileStorageService.getUploadLocation().resolve("imports"))) {
+                assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(2);
+            }
+        }
+
         /**
          * Test zapisywania pliku raportu.
          */
@@ -305,12 +326,11 @@ class FileStorageServiceTest {
     class EmployeeDocumentTests {
 
         /**
-         * Test zapisywania dokumentu pracownika.
+         * Test zapisywania dokumentu pracownika - po publikacji plik leży w magazynie pod nazwą ze skrótu treści.
          */
         @Test
-        void testSaveEmployeeDocument_ValidDocument_SavesSuccessfully() throws IOException {
+        void testPublishBlob_ValidDocument_SavesInBlobStore() throws IOException {
             // Given
-            String email = "jan@example.com";
             MockMultipartFile document = new MockMultipartFile(
                 "file",
                 "contract.pdf",
@@ -319,58 +339,119 @@ class FileStorageServiceTest {
             );
 
             // When
-            String savedFileName = fileStorageService.saveEmployeeDocument(email, document);
+            FileStorageService.StagedBlob staged = fileStorageService.stageEmployeeDocument(document);
+            Path published = fileStorageService.publishBlob(staged);
 
             // Then
-            assertThat(savedFileName).isNotNull();
-            assertThat(savedFileName).endsWith(".pdf");
+            assertThat(published).isEqualTo(tempDir.resolve("uploads").resolve("blobs")
+                .resolve(staged.hash().substring(0, 2))
+                .resolve(staged.hash() + ".pdf"));
+            assertThat(Files.readString(published)).isEqualTo("fake pdf content");
+            assertThat(staged.size()).isEqualTo(16);
+            assertThat(Files.exists(staged.tempFile())).isFalse();
         }
 
         /**
-         * Test że dokument jest zapisywany w katalogu dokumentów pracownika.
+         * Test że identyczna treść jest zapisywana raz - druga publikacja zwraca istniejący plik.
          */
         @Test
-        void testSaveEmployeeDocument_ValidDocument_SavesInEmployeeDirectory() throws IOException {
+        void testPublishBlob_SameContent_StoredOnce() throws IOException {
             // Given
-            String email = "anna@example.com";
-            MockMultipartFile document = new MockMultipartFile(
-                "file",
-                "certificate.pdf",
-                "application/pdf",
-                "certificate content".getBytes()
-            );
+            MockMultipartFile first = new MockMultipartFile(
+                "file", "certificate.pdf", "application/pdf", "certificate content".getBytes());
+            MockMultipartFile second = new MockMultipartFile(
+                "file", "copy.PDF", "application/pdf", "certificate content".getBytes());
 
             // When
-            String savedFileName = fileStorageService.saveEmployeeDocument(email, document);
+            Path firstPath = fileStorageService.publishBlob(fileStorageService.stageEmployeeDocument(first));
+            FileStorageService.StagedBlob staged = fileStorageService.stageEmployeeDocument(second);
+            Path secondPath = fileStorageService.publishBlob(staged);
 
             // Then
-            Path documentPath = tempDir.resolve("uploads")
-                .resolve("documents")
-                .resolve(email)
-                .resolve(savedFileName);
-            assertThat(Files.exists(documentPath)).isTrue();
+            assertThat(secondPath).isEqualTo(firstPath);
+            assertThat(Files.exists(staged.tempFile())).isFalse();
         }
 
         /**
-         * Test zachowania oryginalnego rozszerzenia pliku.
+         * Test odrzuconego dokumentu - plik tymczasowy jest usuwany, a magazyn pozostaje bez zmian.
          */
         @Test
-        void testSaveEmployeeDocument_DifferentExtensions_PreservesExtension() throws IOException {
-            // Given - dokument PDF (dozwolone rozszerzenie)
-            String email = "test@example.com";
+        void testDiscardBlob_StagedDocument_RemovesTempFile() throws IOException {
+            // Given
             MockMultipartFile pdfFile = new MockMultipartFile(
                 "file",
                 "document.pdf",
                 "application/pdf",
                 "pdf content".getBytes()
             );
+            FileStorageService.StagedBlob staged = fileStorageService.stageEmployeeDocument(pdfFile);
 
             // When
-            String savedFileName = fileStorageService.saveEmployeeDocument(email, pdfFile);
+            fileStorageService.discardBlob(staged);
 
             // Then
-            assertThat(savedFileName).endsWith(".pdf");
+            assertThat(staged.extension()).isEqualTo(".pdf");
+            assertThat(Files.exists(staged.tempFile())).isFalse();
+            assertThat(Files.exists(staged.directory().resolve(staged.hash().substring(0, 2)))).isFalse();
         }
     }
-}
 
+    @Nested
+    class PhotoValidatorTests {
+
+        /**
+         * Test ETagu zdjęcia - skrót treści, zmienia się po wgraniu innego zdjęcia.
+         */
+        @Test
+        void testGetPhotoValidator_ChangesWithContent() throws IOException {
+            // Given
+            String fileName = fileStorageService.saveEmployeePhoto("jan@example.com",
+                new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abc".getBytes()));
+
+            // When
+            FileStorageService.FileValidator first = fileStorageService.getPhotoValidator(fileName);
+            fileStorageService.saveEmployeePhoto("jan@example.com",
+                new MockMultipartFile("file", "photo.jpg", "image/jpeg", "inne zdjęcie".getBytes()));
+            FileStorageService.FileValidator second = fileStorageService.getPhotoValidator(fileName);
+
+            // Then
+            assertThat(first.etag()).isEqualTo("\"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad\"");
+            assertThat(second.etag()).isNotEqualTo(first.etag());
+        }
+
+        /**
+         * Test walidatora zdjęcia zapisanego przed startem serwisu - z rozmiaru i czasu modyfikacji.
+         */
+        @Test
+        void testGetPhotoValidator_ExistingFile_UsesSizeAndModificationTime() throws IOException {
+            // Given
+            Path photo = fileStorageService.getUploadLocation().resolve("photos").resolve("anna@example.com.png");
+            Files.createDirectories(photo.getParent());
+            Files.write(photo, new byte[]{1, 2, 3});
+
+            // When
+            FileStorageService.FileValidator validator = fileStorageService.getPhotoValidator("anna@example.com.png");
+
+            // Then
+            assertThat(validator.lastModified()).isEqualTo(Files.getLastModifiedTime(photo).toMillis());
+            assertThat(validator.etag()).startsWith("\"3-");
+            assertThat(fileStorageService.getPhotoValidator("missing.png")).isNull();
+        }
+
+        /**
+         * Test usunięcia zdjęcia - walidator znika razem z plikiem.
+         */
+        @Test
+        void testDeleteEmployeePhoto_RemovesValidator() throws IOException {
+            // Given
+            String fileName = fileStorageService.saveEmployeePhoto("jan@example.com",
+                new MockMultipartFile("file", "photo.jpg", "image/jpeg", "abc".getBytes()));
+
+            // When
+            fileStorageService.deleteEmployeePhoto(fileName);
+
+            // Then
+            assertThat(fileStorageService.getPhotoValidator(fileName)).isNull();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy równoległego importu CSV - wynik musi być identyczny z importem sekwencyjnym.
+ * Mały rozmiar fragmentu wymusza wiele granic także w krótkich plikach.
+ */
+class ImportServiceParallelTest {
+
+    private static final long SMALL_CHUNK_BYTES = 256;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Plik z błędami, duplikatami w różnych fragmentach, polami w cudzysłowach
+     * (także wieloliniowymi) i pustymi liniami - podsumowanie jak przy imporcie sekwencyjnym.
+     */
+    @Test
+    void testImportFromCsvParallel_MixedContent_SameSummaryAsSequential() throws IOException {
+        // Given
+        StringBuilder csv = new StringBuilder("FirstName,LastName,Email,Company,Position,Salary\n");
+        for (int i = 0; i < 400; i++) {
+            switch (i % 10) {
+                case 3 -> csv.append("Anna,Nowak,user").append(i).append("@firm.pl,DataCorp,INVALID,9000\n");
+                case 5 -> csv.append("Jan,\"Kowalski,\nJr.\",user").append(i).append("@firm.pl,\"Tech \"\"X\"\"\",MANAGER,12000\r\n");
+                case 7 -> csv.append("Jan,Kowalski,USER").append(i - 50).append("@firm.pl,TechCorp,DEVELOPER,8000\n");
+                case 9 -> csv.append("\n");
+                default -> csv.append("Jan,Kowalski,user").append(i).append("@firm.pl,TechCorp,DEVELOPER,").append(5000 + i).append("\n");
+            }
+        }
+        Path file = writeCsv(csv.toString());
+
+        EmployeeService sequentialStore = new EmployeeService();
+        EmployeeService parallelStore = new EmployeeService();
+
+        // When
+        ImportSummary sequential = new ImportService(sequentialStore).importFromCsv(file.toString());
+        ImportSummary parallel = new ImportService(parallelStore).importFromCsvParallel(file, SMALL_CHUNK_BYTES);
+
+        // Then
+        assertEquals(sequential.getImportedCount(), parallel.getImportedCount());
+        assertEquals(sequential.getErrors(), parallel.getErrors());
+        assertFalse(parallel.getErrors().isEmpty());
+        assertEquals(emails(sequentialStore), emails(parallelStore));
+        assertEquals("Kowalski,\nJr.", parallelStore.findEmployeeByEmail("user5@firm.pl").orElseThrow().getLastName());
+    }
+
+    /**
+     * Ten sam email w pierwszym i ostatnim fragmencie - zgłoszony jest późniejszy wiersz.
+     */
+    @Test
+    void testImportFromCsvParallel_DuplicateAcrossChunks_LaterLineReported() throws IOException {
+        // Given
+        StringBuilder csv = new StringBuilder("FirstName,LastName,Email,Company,Position,Salary\n");
+        csv.append("Jan,Kowalski,dup@firm.pl,TechCorp,DEVELOPER,8000\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("Jan,Kowalski,filler").append(i).append("@firm.pl,TechCorp,DEVELOPER,8000\n");
+        }
+        csv.append("Anna,Nowak,DUP@firm.pl,DataCorp,MANAGER,12000\n");
+        Path file = writeCsv(csv.toString());
+        EmployeeService employeeService = new EmployeeService();
+
+        // When
+        ImportSummary summary = new ImportService(employeeService).importFromCsvParallel(file, SMALL_CHUNK_BYTES);
+
+        // Then
+        assertEquals(101, summary.getImportedCount());
+        assertEquals(List.of("Line 103: Duplicate email: DUP@firm.pl"), summary.getErrors());
+        assertEquals("Jan", employeeService.findEmployeeByEmail("dup@firm.pl").orElseThrow().getFirstName());
+    }
+
+    /**
+     * Pracownik istniejący przed importem jest zgłaszany jako duplikat.
+     */
+    @Test
+    void testImportFromCsvParallel_EmailAlreadyInService_ReportedAsDuplicate() throws IOException {
+        // Given
+        EmployeeService employeeService = new EmployeeService();
+        employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@firm.pl", "TechCorp", Position.INTERN, 3000));
+        Path file = writeCsv("FirstName,LastName,Email,Company,Position,Salary\n"
+                + "Jan,Kowalski,jan@firm.pl,TechCorp,DEVELOPER,8000\n"
+                + "Ewa,Lis,ewa@firm.pl,TechCorp,INTERN,3500\n");
+
+        // When
+        ImportSummary summary = new ImportService(employeeService).importFromCsvParallel(file, SMALL_CHUNK_BYTES);
+
+        // Then
+        assertEquals(1, summary.getImportedCount());
+        assertEquals(List.of("Line 3: Duplicate email: ewa@firm.pl"), summary.getErrors());
+        assertEquals(3000, employeeService.findEmployeeByEmail("ewa@firm.pl").orElseThrow().getSalary());
+    }
+
+    /**
+     * Pusty plik i brak pliku.
+     */
+    @Test
+    void testImportFromCsvParallel_EmptyOrMissingFile() throws IOException {
+        // Given
+        ImportService importService = new ImportService(new EmployeeService());
+        Path empty = writeCsv("");
+
+        // When
+        ImportSummary emptySummary = importService.importFromCsvParallel(empty.toString());
+        ImportSummary missingSummary = importService.importFromCsvParallel(tempDir.resolve("missing.csv").toString());
+
+        // Then
+        assertEquals(0, emptySummary.getImportedCount());
+        assertTrue(emptySummary.getErrors().isEmpty());
+        assertEquals(1, missingSummary.getErrors().size());
+        assertTrue(missingSummary.getErrors().get(0).startsWith("Line 0: Error reading file"));
+    }
+
+    private Path writeCsv(String content) throws IOException {
+        Path file = tempDir.resolve("import_" + System.nanoTime() + ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String> emails(EmployeeService employeeService) {
+        return employeeService.getAllEmployees().stream()
+                .map(Employee::getEmail)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+}
@@ -0,0 +1,187 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.dto.EmployeeDTO;
+import com.techcorp.employee.exception.DuplicateEmailException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy magazynu pracowników poza stertą (format binarny, indeks emaili, kompaktowanie).
+ */
+class OffHeapEmployeeStoreTest {
+
+    // Małe segmenty, żeby testy obejmowały przechodzenie między segmentami
+    private static final int SEGMENT_BYTES = 4096;
+
+    private OffHeapEmployeeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapEmployeeStore(SEGMENT_BYTES);
+    }
+
+    /**
+     * Test zapisu i odczytu wszystkich pól, w tym polskich znaków i nazwy pliku zdjęcia.
+     */
+    @Test
+    void testAddAndFind_AllFieldsRoundTrip() {
+        // Given
+        Employee employee = new Employee("Łucja", "Wiśniewska-Żak", "Lucja@TechCorp.com", "Zakład Łódź",
+                Position.MANAGER, 12345.5, EmploymentStatus.ON_LEAVE);
+        employee.setPhotoFileName("lucja.png");
+
+        // When
+        store.add(employee);
+        Employee found = store.findByEmail("lucja@techcorp.com").orElseThrow();
+
+        // Then
+        assertEquals("Łucja", found.getFirstName());
+        assertEquals("Wiśniewska-Żak", found.getLastName());
+        assertEquals("Lucja@TechCorp.com", found.getEmail());
+        assertEquals("Zakład Łódź", found.getCompany());
+        assertEquals(Position.MANAGER, found.getPosition());
+        assertEquals(12345.5, found.getSalary(), 0.001);
+        assertEquals(EmploymentStatus.ON_LEAVE, found.getStatus());
+        assertEquals("lucja.png", found.getPhotoFileName());
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * Test odczytu jako DTO bez zdjęcia.
+     */
+    @Test
+    void testFindDtoByEmail_ReturnsDto() {
+        // Given
+        store.add(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+
+        // When
+        EmployeeDTO dto = store.findDtoByEmail("JAN@techcorp.com").orElseThrow();
+
+        // Then
+        assertEquals("Kowalski", dto.getLastName());
+        assertEquals("DEVELOPER", dto.getPosition());
+        assertEquals("ACTIVE", dto.getStatus());
+        assertNull(store.findByEmail("jan@techcorp.com").orElseThrow().getPhotoFileName());
+        assertTrue(store.findDtoByEmail("nobody@techcorp.com").isEmpty());
+    }
+
+    /**
+     * Test duplikatu emaila (bez rozróżniania wielkości liter).
+     */
+    @Test
+    void testAdd_DuplicateEmail_ThrowsException() {
+        // Given
+        store.add(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+
+        // When & Then
+        assertThrows(DuplicateEmailException.class, () ->
+                store.add(new Employee("Janek", "Kowalski", "JAN@techcorp.com", "TechCorp", Position.DEVELOPER, 8000)));
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * Test aktualizacji ze zmianą emaila i zmiany statusu w miejscu.
+     */
+    @Test
+    void testUpdateAndUpdateStatus_ChangesVisible() {
+        // Given
+        store.add(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        store.add(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+
+        // When
+        store.update("jan@techcorp.com",
+                new Employee("Jan", "Kowalski", "jan.kowalski@techcorp.com", "DataCorp", Position.MANAGER, 15000));
+        store.updateStatus("anna@techcorp.com", EmploymentStatus.TERMINATED);
+
+        // Then
+        assertTrue(store.findByEmail("jan@techcorp.com").isEmpty());
+        Employee updated = store.findByEmail("jan.kowalski@techcorp.com").orElseThrow();
+        assertEquals("DataCorp", updated.getCompany());
+        assertEquals(15000, updated.getSalary(), 0.001);
+        assertEquals(EmploymentStatus.TERMINATED, store.findByEmail("anna@techcorp.com").orElseThrow().getStatus());
+        assertEquals(2, store.size());
+        assertThrows(DuplicateEmailException.class, () -> store.update("anna@techcorp.com",
+                new Employee("Anna", "Nowak", "jan.kowalski@techcorp.com", "TechCorp", Position.MANAGER, 12000)));
+        assertTrue(store.update("nobody@techcorp.com",
+                new Employee("X", "Y", "nobody@techcorp.com", "TechCorp", Position.INTERN, 3000)).isEmpty());
+    }
+
+    /**
+     * Test wielu pracowników w wielu segmentach z usuwaniem co drugiego.
+     * Pozostali muszą być dostępni przez indeks, a iteracja i średnia pomijać usuniętych.
+     */
+    @Test
+    void testManyEmployees_DeleteEverySecond_IndexStaysConsistent() {
+        // Given
+        int count = 5000;
+        for (int i = 0; i < count; i++) {
+            store.add(new Employee("Imię" + i, "Nazwisko" + i, "employee" + i + "@techcorp.com",
+                    "Company" + (i % 7), Position.DEVELOPER, 1000 + i));
+        }
+
+        // When
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(store.delete("employee" + i + "@techcorp.com"));
+        }
+
+        // Then
+        assertEquals(count / 2, store.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 2 == 1, store.findByEmail("employee" + i + "@techcorp.com").isPresent(), "employee" + i);
+        }
+        List<Employee> all = new ArrayList<>();
+        store.forEach(all::add);
+        assertEquals(count / 2, all.size());
+        double expectedAverage = all.stream().mapToDouble(Employee::getSalary).average().orElse(0);
+        assertEquals(expectedAverage, store.averageSalary(), 0.001);
+        assertFalse(store.delete("employee0@techcorp.com"));
+    }
+
+    /**
+     * Test kompaktowania - po wielu aktualizacjach zajęta pamięć spada do rozmiaru aktywnych rekordów.
+     */
+    @Test
+    void testCompact_ReclaimsDeletedRecords() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            store.add(new Employee("Jan", "Kowalski", "jan" + i + "@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        }
+        long liveBytes = store.getUsedBytes();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                store.update("jan" + i + "@techcorp.com", new Employee("Jan", "Kowalski", "jan" + i + "@techcorp.com",
+                        "TechCorp", Position.DEVELOPER, 8000 + round));
+            }
+        }
+
+        // When
+        store.compact();
+
+        // Then
+        assertEquals(liveBytes, store.getUsedBytes());
+        assertEquals(100, store.size());
+        assertEquals(8004, store.findByEmail("jan42@techcorp.com").orElseThrow().getSalary(), 0.001);
+    }
+
+    /**
+     * Test rekordu większego niż segment.
+     */
+    @Test
+    void testAdd_RecordLargerThanSegment_ThrowsException() {
+        // Given
+        Employee employee = new Employee("Jan", "x".repeat(SEGMENT_BYTES), "jan@techcorp.com", "TechCorp",
+                Position.DEVELOPER, 8000);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> store.add(employee));
+        assertEquals(0, store.size());
+    }
+}
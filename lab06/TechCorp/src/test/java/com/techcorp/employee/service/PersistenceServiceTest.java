@@ -0,0 +1,271 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.DocumentType;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmployeeDocument;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy trwałości danych - odtwarzanie stanu z dziennika zmian i migawek po "restarcie"
+ * (nowe instancje serwisów na tym samym katalogu danych).
+ */
+class PersistenceServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test odtworzenia wszystkich rodzajów zmian z samego dziennika (awaria bez migawki).
+     */
+    @Test
+    void testRecover_ReplaysAllChangesFromLog() throws Exception {
+        // Given
+        Node first = start();
+        assertFalse(first.recovered);
+        first.employees.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        first.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        first.employees.addEmployee(new Employee("Piotr", "Zieliński", "piotr@techcorp.com", "TechCorp", Position.INTERN, 3000));
+        first.employees.updateEmployee("jan@techcorp.com",
+                new Employee("Jan", "Kowalski", "jan.kowalski@techcorp.com", "DataCorp", Position.MANAGER, 15000));
+        first.employees.updateEmployeeStatus("anna@techcorp.com", EmploymentStatus.ON_LEAVE);
+        first.employees.updateEmployeePhoto("anna@techcorp.com", "anna.png");
+        first.employees.deleteEmployee("piotr@techcorp.com");
+        EmployeeDocument document = first.documents.saveDocument("anna@techcorp.com",
+                new MockMultipartFile("file", "umowa.pdf", "application/pdf", "pdf".getBytes()), DocumentType.CONTRACT);
+        first.persistence.sync();
+
+        // When
+        Node second = start();
+
+        // Then
+        assertTrue(second.recovered);
+        assertEquals(2, second.employees.getAllEmployees().size());
+        assertTrue(second.employees.findEmployeeByEmail("jan@techcorp.com").isEmpty());
+        assertTrue(second.employees.findEmployeeByEmail("piotr@techcorp.com").isEmpty());
+        Employee jan = second.employees.findEmployeeByEmail("jan.kowalski@techcorp.com").orElseThrow();
+        assertEquals("DataCorp", jan.getCompany());
+        assertEquals(15000, jan.getSalary(), 0.01);
+        Employee anna = second.employees.findEmployeeByEmail("anna@techcorp.com").orElseThrow();
+        assertEquals(EmploymentStatus.ON_LEAVE, anna.getStatus());
+        assertEquals("anna.png", anna.getPhotoFileName());
+        assertEquals(1, second.employees.findEmployeesByStatus(EmploymentStatus.ON_LEAVE).size());
+
+        EmployeeDocument restored = second.documents.getDocument(document.getId());
+        assertEquals("umowa.pdf", restored.getOriginalFileName());
+        assertEquals(DocumentType.CONTRACT, restored.getFileType());
+        assertEquals(document.getUploadDate(), restored.getUploadDate());
+        second.persistence.close();
+    }
+
+    /**
+     * Test migawki: stan = migawka + zmiany zapisane po niej; segmenty objęte migawką są usuwane.
+     */
+    @Test
+    void testSnapshot_RecoverFromSnapshotAndLogTail() throws Exception {
+        // Given
+        Node first = start();
+        for (int i = 0; i < 100; i++) {
+            first.employees.addEmployee(new Employee("Jan", "Kowalski", "jan" + i + "@techcorp.com", "TechCorp",
+                    Position.DEVELOPER, 8000 + i));
+        }
+        first.persistence.snapshot();
+        first.employees.deleteEmployee("jan0@techcorp.com");
+        first.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "DataCorp", Position.MANAGER, 12000));
+        first.persistence.sync();
+
+        // When
+        Node second = start();
+
+        // Then
+        assertTrue(second.recovered);
+        assertEquals(100, second.employees.getAllEmployees().size());
+        assertTrue(second.employees.findEmployeeByEmail("jan0@techcorp.com").isEmpty());
+        assertTrue(second.employees.findEmployeeByEmail("anna@techcorp.com").isPresent());
+        assertEquals(8099, second.employees.findEmployeeByEmail("jan99@techcorp.com").orElseThrow().getSalary(), 0.01);
+        assertFalse(Files.exists(WriteAheadLog.segmentPath(tempDir.resolve("data"), 0)));
+        second.persistence.close();
+    }
+
+    /**
+     * Test dziennika obciętego w połowie wpisu (awaria w trakcie zapisu).
+     * Odtwarzane są wszystkie kompletne wpisy, niekompletny koniec jest obcinany,
+     * a kolejne zmiany i kolejny restart działają poprawnie.
+     */
+    @Test
+    void testRecover_LogTruncatedMidRecord_KeepsCompleteRecords() throws Exception {
+        // Given
+        Node first = start();
+        first.employees.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        first.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        first.employees.addEmployee(new Employee("Piotr", "Zieliński", "piotr@techcorp.com", "TechCorp", Position.INTERN, 3000));
+        first.persistence.sync();
+
+        Path segment = lastSegment();
+        long fullSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 5);
+        }
+
+        // When
+        Node second = start();
+
+        // Then
+        assertTrue(second.recovered);
+        assertEquals(2, second.employees.getAllEmployees().size());
+        assertTrue(second.employees.findEmployeeByEmail("piotr@techcorp.com").isEmpty());
+        assertTrue(Files.size(segment) < fullSize - 5);
+
+        // kolejne zmiany po odtworzeniu i kolejny restart
+        second.employees.addEmployee(new Employee("Ewa", "Lis", "ewa@techcorp.com", "TechCorp", Position.DEVELOPER, 9000));
+        second.persistence.sync();
+
+        Node third = start();
+        assertEquals(3, third.employees.getAllEmployees().size());
+        assertTrue(third.employees.findEmployeeByEmail("ewa@techcorp.com").isPresent());
+        third.persistence.close();
+    }
+
+    /**
+     * Test uszkodzonej migawki - pomijana, stan odtwarzany z wcześniejszej migawki i dziennika.
+     */
+    @Test
+    void testRecover_CorruptedSnapshot_FallsBackToPreviousOne() throws Exception {
+        // Given
+        Node first = start();
+        first.employees.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        first.persistence.snapshot();
+        first.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        first.persistence.sync();
+
+        // ręcznie podrzucona nowsza migawka z błędną sumą kontrolną
+        Files.write(tempDir.resolve("data").resolve(String.format("snapshot-%020d.bin", 99)), new byte[]{1, 2, 3, 4});
+
+        // When
+        Node second = start();
+
+        // Then
+        assertTrue(second.recovered);
+        assertEquals(2, second.employees.getAllEmployees().size());
+        second.persistence.close();
+    }
+
+    /**
+     * Test znacznika ukończenia importu - dane odtworzone bez znacznika pochodzą z przerwanego importu.
+     */
+    @Test
+    void testImportMarker_OnlyCompletedImportIsSkipped() throws Exception {
+        // Given - "import" przerwany po pierwszym pracowniku
+        Node first = start();
+        assertFalse(first.persistence.isImportCompleted());
+        first.employees.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        first.persistence.sync();
+
+        // When
+        Node second = start();
+
+        // Then
+        assertTrue(second.recovered);
+        assertFalse(second.persistence.isImportCompleted());
+
+        // When - import ukończony
+        second.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        second.persistence.markImportCompleted();
+        assertTrue(second.persistence.isImportCompleted());
+        Node third = start();
+
+        // Then - znacznik zapisany dopiero po danych z importu
+        assertTrue(third.persistence.isImportCompleted());
+        assertEquals(2, third.employees.getAllEmployees().size());
+        third.persistence.close();
+    }
+
+    /**
+     * Test migawki w trakcie zmiany dokumentu - migawka czeka, aż zmiana zapisana w dzienniku trafi do pamięci,
+     * więc usunięcie starego segmentu jej nie gubi.
+     */
+    @Test
+    @Timeout(30)
+    void testSnapshot_WaitsForDocumentChangeInProgress() throws Exception {
+        // Given - zmiana dokumentu w toku (monitor DocumentService zajęty)
+        Node first = start();
+        first.employees.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        CountDownLatch changing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<EmployeeDocument> change = executor.submit(() -> first.documents.readConsistent(() -> {
+                changing.countDown();
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                    return first.documents.saveDocument("anna@techcorp.com",
+                            new MockMultipartFile("file", "umowa.pdf", "application/pdf", "pdf".getBytes()),
+                            DocumentType.CONTRACT);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertTrue(changing.await(10, TimeUnit.SECONDS));
+
+            // When
+            Future<?> snapshot = executor.submit(() -> {
+                first.persistence.snapshot();
+                return null;
+            });
+            Thread.sleep(100);
+
+            // Then
+            assertFalse(snapshot.isDone());
+            release.countDown();
+            EmployeeDocument document = change.get(10, TimeUnit.SECONDS);
+            snapshot.get(10, TimeUnit.SECONDS);
+            first.persistence.sync();
+
+            Node second = start();
+            assertEquals("umowa.pdf", second.documents.getDocument(document.getId()).getOriginalFileName());
+            second.persistence.close();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Node start() throws IOException {
+        EmployeeService employeeService = new EmployeeService();
+        FileStorageService fileStorageService = new FileStorageService(
+                tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString());
+        DocumentService documentService = new DocumentService(fileStorageService, employeeService);
+        PersistenceService persistenceService = new PersistenceService(employeeService, documentService,
+                true, tempDir.resolve("data").toString(), 10_000, Long.MAX_VALUE);
+        boolean recovered = persistenceService.recover();
+        return new Node(employeeService, documentService, persistenceService, recovered);
+    }
+
+    private Path lastSegment() throws IOException {
+        Path directory = tempDir.resolve("data");
+        List<Long> segments = WriteAheadLog.listSegments(directory);
+        return WriteAheadLog.segmentPath(directory, segments.get(segments.size() - 1));
+    }
+
+    private record Node(EmployeeService employees, DocumentService documents,
+                        PersistenceService persistence, boolean recovered) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testy generowania raportów CSV - porównanie trybu strumieniowego z raportem w pamięci -
+ * oraz pamięci podręcznej raportów PDF.
+ */
+class ReportGeneratorServiceTest {
+
+    private EmployeeService employeeService;
+    private ReportGeneratorService reportGeneratorService;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+        reportGeneratorService = new ReportGeneratorService(employeeService, mock(FileStorageService.class));
+
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        employeeService.addEmployee(new Employee("Anna", "Nowak, Jr.", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        employeeService.addEmployee(new Employee("Piotr", "Wiśniewski", "piotr@datacorp.com", "DataCorp", Position.INTERN, 3000));
+    }
+
+    /**
+     * Test strumieniowego eksportu wszystkich pracowników.
+     * Zawartość musi być identyczna z raportem generowanym w pamięci.
+     */
+    @Test
+    void testWriteAllEmployeesCsvReport_SameContentAsInMemoryReport() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        reportGeneratorService.writeAllEmployeesCsvReport(out);
+
+        // Then
+        assertArrayEquals(reportGeneratorService.generateAllEmployeesCsvReport(), out.toByteArray());
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("First Name,Last Name,Email,Company,Position,Salary\n"));
+        assertTrue(csv.contains("\"Nowak, Jr.\""));
+        assertTrue(csv.contains("Wiśniewski"));
+    }
+
+    /**
+     * Test strumieniowego eksportu jednej firmy.
+     */
+    @Test
+    void testWriteCompanyCsvReport_OnlyCompanyEmployees() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        reportGeneratorService.writeCompanyCsvReport("TechCorp", out);
+
+        // Then
+        assertArrayEquals(reportGeneratorService.generateCompanyCsvReport("TechCorp"), out.toByteArray());
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    /**
+     * Strumień docelowy (odpowiedź HTTP) nie może zostać zamknięty przez serwis.
+     */
+    @Test
+    void testWriteAllEmployeesCsvReport_DoesNotCloseStream() throws Exception {
+        // Given
+        boolean[] closed = {false};
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // When
+        reportGeneratorService.writeAllEmployeesCsvReport(out);
+
+        // Then
+        assertFalse(closed[0]);
+    }
+
+    /**
+     * Test pamięci podręcznej PDF - drugie żądanie bez zmian danych nie składa dokumentu od nowa.
+     */
+    @Test
+    void testGenerateCompanyStatisticsPdfReport_UnchangedCompany_ReturnsCachedReport() throws Exception {
+        // Given
+        ReportGeneratorService cached = new ReportGeneratorService(employeeService, mock(FileStorageService.class),
+                1024 * 1024, false);
+
+        // When
+        byte[] first = cached.generateCompanyStatisticsPdfReport("TechCorp");
+        byte[] second = cached.generateCompanyStatisticsPdfReport("TechCorp");
+
+        // Then
+        assertSame(first, second);
+        ReportCache.Statistics statistics = cached.getPdfCacheStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(first.length, statistics.bytes());
+    }
+
+    /**
+     * Zmiana w jednej firmie unieważnia tylko jej raport.
+     */
+    @Test
+    void testGenerateCompanyStatisticsPdfReport_MutationInvalidatesOnlyAffectedCompany() throws Exception {
+        // Given
+        ReportGeneratorService cached = new ReportGeneratorService(employeeService, mock(FileStorageService.class),
+                1024 * 1024, false);
+        byte[] techCorp = cached.generateCompanyStatisticsPdfReport("TechCorp");
+        byte[] dataCorp = cached.generateCompanyStatisticsPdfReport("DataCorp");
+
+        // When
+        employeeService.addEmployee(new Employee("Ewa", "Zielińska", "ewa@datacorp.com", "DataCorp", Position.DEVELOPER, 9000));
+
+        // Then
+        assertSame(techCorp, cached.generateCompanyStatisticsPdfReport("TechCorp"));
+        byte[] regenerated = cached.generateCompanyStatisticsPdfReport("DataCorp");
+        assertNotSame(dataCorp, regenerated);
+        assertEquals(3, cached.getPdfCacheStatistics().misses());
+    }
+
+    /**
+     * Limit bajtów - najdawniej używany raport jest usuwany z pamięci, a przy zrzucaniu
+     * na dysk wczytywany z katalogu raportów zamiast generowany od nowa.
+     */
+    @Test
+    void testGenerateCompanyStatisticsPdfReport_OverLimit_EvictsLeastRecentlyUsedToDisk(@TempDir Path tempDir) throws Exception {
+        // Given
+        FileStorageService storage = new FileStorageService(
+                tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString());
+        int reportSize = new ReportGeneratorService(employeeService, storage)
+                .generateCompanyStatisticsPdfReport("TechCorp").length;
+        ReportGeneratorService cached = new ReportGeneratorService(employeeService, storage,
+                reportSize + reportSize / 2, true);
+
+        // When
+        byte[] techCorp = cached.generateCompanyStatisticsPdfReport("TechCorp");
+        cached.generateCompanyStatisticsPdfReport("DataCorp");
+        byte[] fromDisk = cached.generateCompanyStatisticsPdfReport("TechCorp");
+
+        // Then
+        assertArrayEquals(techCorp, fromDisk);
+        ReportCache.Statistics statistics = cached.getPdfCacheStatistics();
+        assertEquals(2, statistics.misses());
+        assertEquals(1, statistics.diskHits());
+        assertTrue(statistics.evictions() >= 1);
+        assertTrue(statistics.bytes() <= reportSize + reportSize / 2);
+        assertEquals(1, countSpillFiles(storage.getReportsLocation()));
+    }
+
+    /**
+     * Raport przy zmienionych danych nie jest wczytywany z dysku, a nieaktualny plik jest usuwany.
+     */
+    @Test
+    void testGenerateCompanyStatisticsPdfReport_ChangedCompany_DiscardsSpilledReport(@TempDir Path tempDir) throws Exception {
+        // Given
+        FileStorageService storage = new FileStorageService(
+                tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString());
+        // Pamięć mieści najwyżej jeden raport - drugi wypycha pierwszy na dysk
+        int reportSize = new ReportGeneratorService(employeeService, storage)
+                .generateCompanyStatisticsPdfReport("TechCorp").length;
+        ReportGeneratorService cached = new ReportGeneratorService(employeeService, storage,
+                reportSize + reportSize / 2, true);
+        cached.generateCompanyStatisticsPdfReport("TechCorp");
+        cached.generateCompanyStatisticsPdfReport("DataCorp");
+        assertEquals(1, countSpillFiles(storage.getReportsLocation()));
+
+        // When
+        employeeService.deleteEmployee("anna@techcorp.com");
+        cached.generateCompanyStatisticsPdfReport("TechCorp");
+
+        // Then
+        assertEquals(0, cached.getPdfCacheStatistics().diskHits());
+        assertEquals(3, cached.getPdfCacheStatistics().misses());
+    }
+
+    private static long countSpillFiles(Path reports) throws IOException {
+        try (Stream<Path> files = Files.list(reports)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(ReportCache.SPILL_PREFIX)).count();
+        }
+    }
+}
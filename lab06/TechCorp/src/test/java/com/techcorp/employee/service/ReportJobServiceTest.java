@@ -0,0 +1,215 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ReportQueueFullException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.model.ReportJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy asynchronicznych zadań generowania raportów - kolejka, łączenie powtórzonych zleceń i czyszczenie wyników.
+ */
+class ReportJobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmployeeService employeeService;
+    private FileStorageService fileStorageService;
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        employeeService = new EmployeeService();
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        employeeService.addEmployee(new Employee("Piotr", "Wiśniewski", "piotr@datacorp.com", "DataCorp", Position.INTERN, 3000));
+        fileStorageService = new FileStorageService(
+                tempDir.resolve("uploads").toString(), tempDir.resolve("reports").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (reportJobService != null) {
+            reportJobService.close();
+        }
+    }
+
+    /**
+     * Test zadania CSV - plik wyniku ma tę samą treść co raport generowany synchronicznie.
+     */
+    @Test
+    void testSubmit_CsvReport_CompletesWithReportFile() throws Exception {
+        // Given
+        ReportGeneratorService generator = new ReportGeneratorService(employeeService, fileStorageService);
+        reportJobService = service(generator, 1, 4, 3_600_000);
+
+        // When
+        ReportJob job = reportJobService.submit(ReportJob.Type.CSV, null);
+        awaitFinished(job);
+
+        // Then
+        assertEquals(ReportJob.Status.COMPLETED, job.getStatus());
+        assertEquals("employees_all.csv", job.getDownloadName());
+        assertTrue(job.getFileName().startsWith(ReportJobService.JOB_FILE_PREFIX));
+        try (InputStream in = reportJobService.loadResult(job).getInputStream()) {
+            assertArrayEquals(generator.generateAllEmployeesCsvReport(), in.readAllBytes());
+        }
+        assertSame(job, reportJobService.getJob(job.getId()).orElseThrow());
+    }
+
+    /**
+     * Test łączenia zleceń - identyczne zlecenie zwraca oczekujące zadanie, a po zmianie danych firmy powstaje nowe.
+     */
+    @Test
+    void testSubmit_IdenticalPendingJob_ReturnsSameJob() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        ReportGeneratorService generator = blockingGenerator(release);
+        reportJobService = service(generator, 1, 4, 3_600_000);
+
+        // When
+        ReportJob first = reportJobService.submit(ReportJob.Type.PDF, "TechCorp");
+        ReportJob second = reportJobService.submit(ReportJob.Type.PDF, " TechCorp ");
+        ReportJob otherCompany = reportJobService.submit(ReportJob.Type.PDF, "DataCorp");
+        employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@techcorp.com", "TechCorp", Position.MANAGER, 12000));
+        ReportJob afterChange = reportJobService.submit(ReportJob.Type.PDF, "TechCorp");
+        release.countDown();
+        awaitFinished(afterChange);
+
+        // Then
+        assertSame(first, second);
+        assertNotSame(first, otherCompany);
+        assertNotSame(first, afterChange);
+        verify(generator, times(2)).generateCompanyStatisticsPdfReport("TechCorp");
+    }
+
+    /**
+     * Test pełnej kolejki - zlecenie ponad pojemność jest odrzucane, a nie gromadzone.
+     */
+    @Test
+    void testSubmit_QueueFull_ThrowsReportQueueFullException() throws Exception {
+        // Given - jeden wątek zajęty, jedno miejsce w kolejce
+        CountDownLatch release = new CountDownLatch(1);
+        reportJobService = service(blockingGenerator(release), 1, 1, 3_600_000);
+        ReportJob running = reportJobService.submit(ReportJob.Type.PDF, "TechCorp");
+        awaitStatus(running, ReportJob.Status.RUNNING);
+        ReportJob queued = reportJobService.submit(ReportJob.Type.PDF, "DataCorp");
+
+        // When & Then
+        assertThrows(ReportQueueFullException.class, () -> reportJobService.submit(ReportJob.Type.CSV, null));
+        assertEquals(ReportJob.Status.QUEUED, queued.getStatus());
+
+        release.countDown();
+        awaitFinished(queued);
+        assertEquals(ReportJob.Status.COMPLETED, queued.getStatus());
+    }
+
+    /**
+     * Test walidacji zlecenia PDF - wymagana istniejąca firma.
+     */
+    @Test
+    void testSubmit_PdfWithoutExistingCompany_ThrowsIllegalArgumentException() {
+        // Given
+        reportJobService = service(new ReportGeneratorService(employeeService, fileStorageService), 1, 4, 3_600_000);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submit(ReportJob.Type.PDF, null));
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submit(ReportJob.Type.PDF, "NonExistent"));
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submit(null, "TechCorp"));
+    }
+
+    /**
+     * Test błędu generowania - zadanie kończy się stanem FAILED z komunikatem, a wynik nie jest dostępny.
+     */
+    @Test
+    void testSubmit_GenerationFails_JobFailed() throws Exception {
+        // Given
+        ReportGeneratorService generator = mock(ReportGeneratorService.class);
+        when(generator.generateAllEmployeesCsvReport()).thenThrow(new IllegalStateException("Brak miejsca"));
+        reportJobService = service(generator, 1, 4, 3_600_000);
+
+        // When
+        ReportJob job = reportJobService.submit(ReportJob.Type.CSV, "");
+        awaitFinished(job);
+
+        // Then
+        assertEquals(ReportJob.Status.FAILED, job.getStatus());
+        assertEquals("Brak miejsca", job.getError());
+        assertThrows(IllegalStateException.class, () -> reportJobService.loadResult(job));
+    }
+
+    /**
+     * Test czyszczenia - zakończone zadania i stare pliki zadań są usuwane, pozostałe pliki raportów zostają.
+     */
+    @Test
+    void testCleanup_RemovesExpiredJobsAndOrphanedFiles() throws Exception {
+        // Given
+        reportJobService = service(new ReportGeneratorService(employeeService, fileStorageService), 1, 4, 0);
+        ReportJob job = reportJobService.submit(ReportJob.Type.CSV, "TechCorp");
+        awaitFinished(job);
+        Path reports = fileStorageService.getReportsLocation();
+        Path orphan = Files.write(reports.resolve(ReportJobService.JOB_FILE_PREFIX + "old.csv"), new byte[]{1});
+        Path saved = Files.write(reports.resolve("report_all_employees.csv"), new byte[]{1});
+        FileTime past = FileTime.from(Instant.now().minusSeconds(60));
+        Files.setLastModifiedTime(orphan, past);
+        Files.setLastModifiedTime(saved, past);
+        Thread.sleep(5);
+
+        // When
+        int deleted = reportJobService.cleanup();
+
+        // Then
+        assertEquals(2, deleted);
+        assertTrue(reportJobService.getJob(job.getId()).isEmpty());
+        assertFalse(Files.exists(reports.resolve(job.getFileName())));
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(saved));
+    }
+
+    private ReportJobService service(ReportGeneratorService generator, int threads, int queueCapacity,
+                                     long retentionMillis) {
+        return new ReportJobService(generator, fileStorageService, employeeService,
+                threads, queueCapacity, retentionMillis, 0);
+    }
+
+    // Generator PDF czekający na zwolnienie zatrzasku - zadanie pozostaje w stanie RUNNING
+    private static ReportGeneratorService blockingGenerator(CountDownLatch release) throws IOException {
+        ReportGeneratorService generator = mock(ReportGeneratorService.class);
+        when(generator.generateCompanyStatisticsPdfReport(anyString())).thenAnswer(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return "PDF".getBytes();
+        });
+        return generator;
+    }
+
+    private static void awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "Report job did not finish: " + job);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitStatus(ReportJob job, ReportJob.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (job.getStatus() != status) {
+            assertTrue(System.nanoTime() < deadline, "Report job did not reach " + status + ": " + job);
+            Thread.sleep(10);
+        }
+    }
+}
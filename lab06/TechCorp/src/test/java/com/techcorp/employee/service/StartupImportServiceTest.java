@@ -0,0 +1,157 @@
+package com.techcorp.employee.service;
+
+import com.techcorp.employee.exception.ApiException;
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.ImportSummary;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.service.StartupImportService.Source;
+import com.techcorp.employee.service.StartupImportService.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy importu startowego - kolejność priorytetów źródeł, raport konfliktów i import z API w tle.
+ * Źródło CSV to employees.csv z classpath (3 poprawne wiersze), API jest atrapą.
+ */
+class StartupImportServiceTest {
+
+    private static final List<String> EXPECTED_API_ERRORS = List.of(
+            "Line 1: Duplicate email: hermiona.granger@techcorp.com (kept from CSV)",
+            "Line 2: Duplicate email: ron@techcorp.com (kept from XML)");
+
+    private EmployeeService employeeService;
+    private ApiService apiService;
+    private StartupImportService startupImportService;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeService();
+        apiService = mock(ApiService.class);
+        List<Employee> xmlEmployees = List.of(
+                new Employee("Harry", "Potter", "HarryPotter@datacorp.com", "DataCorp", Position.MANAGER, 12500),
+                new Employee("Ron", "Weasley", "ron@techcorp.com", "TechCorp", Position.DEVELOPER, 8000));
+        startupImportService = new StartupImportService(employeeService, new ImportService(employeeService),
+                apiService, xmlEmployees, "employees.csv");
+    }
+
+    /**
+     * Test konfliktów, gdy API odpowiada natychmiast (przed zakończeniem importu CSV).
+     * Wygrywa źródło o wyższym priorytecie, a odrzucone wpisy wskazują źródło, które zachowało email.
+     */
+    @Test
+    void testStart_FastApi_ConflictsResolvedByPriority() throws Exception {
+        // Given
+        when(apiService.fetchEmployeesFromApiAsync()).thenReturn(CompletableFuture.completedFuture(apiEmployees()));
+
+        // When
+        Map<Source, ImportSummary> summaries = startupImportService.start().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(State.READY, startupImportService.getState());
+        assertEquals(List.of(Source.CSV, Source.XML, Source.API), List.copyOf(summaries.keySet()));
+        assertEquals(3, summaries.get(Source.CSV).getImportedCount());
+        assertEquals(1, summaries.get(Source.XML).getImportedCount());
+        assertEquals(List.of("Line 1: Duplicate email: HarryPotter@datacorp.com (kept from CSV)"),
+                summaries.get(Source.XML).getErrors());
+        assertEquals(1, summaries.get(Source.API).getImportedCount());
+        assertEquals(EXPECTED_API_ERRORS, summaries.get(Source.API).getErrors());
+        assertEquals(5, employeeService.getAllEmployees().size());
+        assertEquals("TechCorp", employeeService.findEmployeeByEmail("ron@techcorp.com").orElseThrow().getCompany());
+    }
+
+    /**
+     * Test wolnego API - start() wraca po imporcie CSV i XML, API kończy się w tle
+     * z tym samym raportem konfliktów co przy szybkim API.
+     */
+    @Test
+    void testStart_SlowApi_LocalSourcesAvailableBeforeApiFinishes() throws Exception {
+        // Given
+        CompletableFuture<List<Employee>> apiResponse = new CompletableFuture<>();
+        when(apiService.fetchEmployeesFromApiAsync()).thenReturn(apiResponse);
+
+        // When
+        CompletableFuture<Map<Source, ImportSummary>> imported = startupImportService.start();
+
+        // Then
+        assertFalse(imported.isDone());
+        assertEquals(State.IMPORTING, startupImportService.getState());
+        assertEquals(List.of(Source.CSV, Source.XML), List.copyOf(startupImportService.getSummaries().keySet()));
+        assertEquals(4, employeeService.getAllEmployees().size());
+
+        CompletableFuture.runAsync(() -> apiResponse.complete(apiEmployees()));
+        Map<Source, ImportSummary> summaries = imported.get(5, TimeUnit.SECONDS);
+        assertEquals(State.READY, startupImportService.getState());
+        assertEquals(EXPECTED_API_ERRORS, summaries.get(Source.API).getErrors());
+        assertEquals(5, employeeService.getAllEmployees().size());
+    }
+
+    /**
+     * Test błędu API - import kończy się ze stanem READY, błąd trafia do podsumowania API.
+     */
+    @Test
+    void testStart_ApiFailure_ReadyWithApiError() throws Exception {
+        // Given
+        when(apiService.fetchEmployeesFromApiAsync())
+                .thenReturn(CompletableFuture.failedFuture(new CompletionException(new ApiException("HTTP 503"))));
+
+        // When
+        Map<Source, ImportSummary> summaries = startupImportService.start().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(startupImportService.isReady());
+        assertEquals(0, summaries.get(Source.API).getImportedCount());
+        assertEquals(List.of("Line 0: Error fetching employees from API: HTTP 503"), summaries.get(Source.API).getErrors());
+        assertEquals(4, employeeService.getAllEmployees().size());
+    }
+
+    /**
+     * Test powtórzonego importu na danych odtworzonych po przerwanym imporcie - istniejący pracownicy
+     * zostają, a konflikty z nimi nie są przypisywane żadnemu źródłu.
+     */
+    @Test
+    void testStart_ExistingEmployees_ConflictsKeptFromExistingData() throws Exception {
+        // Given
+        employeeService.addEmployee(new Employee("Ron", "Weasley", "ron@techcorp.com", "DataCorp", Position.INTERN, 3000));
+        when(apiService.fetchEmployeesFromApiAsync()).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        // When
+        Map<Source, ImportSummary> summaries = startupImportService.start().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of("Line 1: Duplicate email: HarryPotter@datacorp.com (kept from CSV)",
+                        "Line 2: Duplicate email: ron@techcorp.com (kept from existing data)"),
+                summaries.get(Source.XML).getErrors());
+        assertEquals("DataCorp", employeeService.findEmployeeByEmail("ron@techcorp.com").orElseThrow().getCompany());
+    }
+
+    /**
+     * Test stanu odtworzonego z trwałego zapisu - gotowy bez importu, ponowny start niedozwolony.
+     */
+    @Test
+    void testMarkRestored_ReadyWithoutImport() throws Exception {
+        // When
+        startupImportService.markRestored();
+
+        // Then
+        assertTrue(startupImportService.isReady());
+        assertTrue(startupImportService.getSummaries().isEmpty());
+        assertThrows(IllegalStateException.class, () -> startupImportService.start());
+        verify(apiService, never()).fetchEmployeesFromApiAsync();
+    }
+
+    private static List<Employee> apiEmployees() {
+        return List.of(
+                new Employee("Hermiona", "Granger", "hermiona.granger@techcorp.com", "ApiCorp", Position.MANAGER, 12000),
+                new Employee("Ron", "Weasley", "ron@techcorp.com", "ApiCorp", Position.MANAGER, 12000),
+                new Employee("Luna", "Lovegood", "luna@apicorp.com", "ApiCorp", Position.DEVELOPER, 9000));
+    }
+}
@@ -4,6 +4,7 @@ import com.techcorp.employee.exception.DuplicateEmailException;
 import com.techcorp.employee.service.EmployeeService;
 import com.techcorp.employee.model.CompanyStatistics;
 import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
 import com.techcorp.employee.model.Position;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -21,7 +22,12 @@ class EmployeeServiceTest {
 
     @BeforeEach
     void setUp() {
-        employeeService = new EmployeeService();
+        employeeService = createEmployeeService();
+    }
+
+    // Testowana implementacja - OffHeapEmployeeServiceTest uruchamia te same testy dla magazynu poza stertą
+    EmployeeService createEmployeeService() {
+        return new EmployeeService();
     }
 
     // DODAWANIE PRACOWNIKA
@@ -136,6 +142,172 @@ class EmployeeServiceTest {
         }
     }
 
+    // WYSZUKIWANIE, AKTUALIZACJA I USUWANIE PO EMAILU
+
+    @Nested
+    @DisplayName("email index tests")
+    class EmailIndexTests {
+
+        @Test
+        @DisplayName("should find employee by email regardless of letter case")
+        void shouldFindEmployee_whenEmailCaseDiffers() {
+            Employee employee = new Employee("Jan", "Kowalski", "Jan@Firm.pl", "TechCorp", Position.DEVELOPER, 9000);
+            employeeService.addEmployee(employee);
+
+            assertEquals(employee, employeeService.findEmployeeByEmail("JAN@FIRM.PL").get());
+        }
+
+        @Test
+        @DisplayName("should delete employee by email regardless of letter case")
+        void shouldDeleteEmployee_whenEmailCaseDiffers() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+
+            assertTrue(employeeService.deleteEmployee("JAN@firm.PL"));
+            assertTrue(employeeService.findEmployeeByEmail("jan@firm.pl").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should replace employee under new email when email is changed by update")
+        void shouldReplaceEmployee_whenEmailIsChangedByUpdate() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+            Employee updated = new Employee("Jan", "Kowalski", "jan.kowalski@firm.pl", "TechCorp", Position.MANAGER, 12000);
+
+            employeeService.updateEmployee("jan@firm.pl", updated);
+
+            assertTrue(employeeService.findEmployeeByEmail("jan@firm.pl").isEmpty());
+            assertEquals(updated, employeeService.findEmployeeByEmail("JAN.KOWALSKI@firm.pl").get());
+            assertEquals(1, employeeService.getAllEmployees().size());
+        }
+
+        @Test
+        @DisplayName("should throw DuplicateEmailException when update changes email to one already taken")
+        void shouldThrowException_whenUpdateChangesEmailToTakenOne() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "TechCorp", Position.MANAGER, 12000));
+            Employee updated = new Employee("Jan", "Kowalski", "ANNA@firm.pl", "TechCorp", Position.DEVELOPER, 9000);
+
+            assertThrows(DuplicateEmailException.class, () -> employeeService.updateEmployee("jan@firm.pl", updated));
+            assertEquals(2, employeeService.getAllEmployees().size());
+        }
+    }
+
+    // INDEKSY FIRM, STANOWISK I STATUSÓW
+
+    @Nested
+    @DisplayName("secondary index tests")
+    class SecondaryIndexTests {
+
+        @Test
+        @DisplayName("should move employee between status groups when status is changed")
+        void shouldMoveEmployeeBetweenStatusGroups_whenStatusIsChanged() {
+            Employee employee = new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000);
+            employeeService.addEmployee(employee);
+
+            employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.ON_LEAVE);
+
+            assertTrue(employeeService.findEmployeesByStatus(EmploymentStatus.ACTIVE).isEmpty());
+            assertEquals(List.of(employee), employeeService.findEmployeesByStatus(EmploymentStatus.ON_LEAVE));
+        }
+
+        @Test
+        @DisplayName("should reflect company change when employee is updated")
+        void shouldReflectCompanyChange_whenEmployeeIsUpdated() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+            Employee moved = new Employee("Jan", "Kowalski", "jan@firm.pl", "DataCorp", Position.MANAGER, 12000);
+
+            employeeService.updateEmployee("jan@firm.pl", moved);
+
+            assertTrue(employeeService.findEmployeesInCompany("TechCorp").isEmpty());
+            assertEquals(List.of(moved), employeeService.findEmployeesInCompany("DataCorp"));
+            assertEquals(12000.0, employeeService.getHighestSalaryInCompany("DataCorp"));
+            assertFalse(employeeService.getEmployeesGroupedByPosition().containsKey(Position.DEVELOPER));
+        }
+
+        @Test
+        @DisplayName("should remove employee from all groups when employee is deleted")
+        void shouldRemoveEmployeeFromAllGroups_whenEmployeeIsDeleted() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+
+            employeeService.deleteEmployee("jan@firm.pl");
+
+            assertTrue(employeeService.findEmployeesInCompany("TechCorp").isEmpty());
+            assertTrue(employeeService.findEmployeesByStatus(EmploymentStatus.ACTIVE).isEmpty());
+            assertTrue(employeeService.getEmployeesGroupedByPosition().isEmpty());
+            assertEquals(0.0, employeeService.averageSalaryByCompany("TechCorp"));
+        }
+
+        @Test
+        @DisplayName("should group employees by position")
+        void shouldGroupEmployeesByPosition() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Piotr", "Wiśniewski", "piotr@firm.pl", "Corp", Position.DEVELOPER, 8500));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            Map<Position, List<Employee>> grouped = employeeService.getEmployeesGroupedByPosition();
+
+            assertEquals(2, grouped.size());
+            assertEquals(2, grouped.get(Position.DEVELOPER).size());
+            assertEquals(1, grouped.get(Position.MANAGER).size());
+        }
+    }
+
+    // AGREGATY AKTUALIZOWANE PRZYROSTOWO
+
+    @Nested
+    @DisplayName("incremental aggregate tests")
+    class IncrementalAggregateTests {
+
+        @Test
+        @DisplayName("should update average salary when employee is deleted")
+        void shouldUpdateAverageSalary_whenEmployeeIsDeleted() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            employeeService.deleteEmployee("anna@firm.pl");
+
+            assertEquals(9000.0, employeeService.averageSalary(), 0.01);
+            assertEquals(9000.0, employeeService.averageSalaryByCompany("Corp"), 0.01);
+        }
+
+        @Test
+        @DisplayName("should update company highest salary when top earner is updated")
+        void shouldUpdateHighestSalary_whenTopEarnerIsUpdated() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            employeeService.updateEmployee("anna@firm.pl",
+                    new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 7000));
+
+            assertEquals(9000.0, employeeService.getHighestSalaryInCompany("Corp"));
+            assertEquals("jan@firm.pl", employeeService.getEmployeeWithHighestSalary().get().getEmail());
+        }
+
+        @Test
+        @DisplayName("should update status distribution when status is changed")
+        void shouldUpdateStatusDistribution_whenStatusIsChanged() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.TERMINATED);
+
+            Map<String, Long> distribution = employeeService.getEmployeeStatusDistribution();
+            assertEquals(1L, distribution.get("ACTIVE"));
+            assertEquals(1L, distribution.get("TERMINATED"));
+            assertFalse(distribution.containsKey("ON_LEAVE"));
+        }
+
+        @Test
+        @DisplayName("should drop position from counts when its last employee is deleted")
+        void shouldDropPositionFromCounts_whenLastEmployeeIsDeleted() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            employeeService.deleteEmployee("anna@firm.pl");
+
+            assertEquals(Map.of(Position.DEVELOPER, 1L), employeeService.countEmployeesOnPositions());
+        }
+    }
+
     // WALIDACJA EMPLOYEE
 
     @Nested
@@ -387,6 +559,124 @@ class EmployeeServiceTest {
 
             assertTrue(sorted.isEmpty());
         }
+
+        @Test
+        @DisplayName("should sort Polish letters according to Polish alphabet")
+        void shouldSortPolishLetters_whenUsingPolishCollation() {
+            employeeService.addEmployee(new Employee("Anna", "Mazur", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+            employeeService.addEmployee(new Employee("Jan", "Łukasik", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Piotr", "Świątek", "piotr@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Zofia", "Szymańska", "zofia@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Olga", "Tracz", "olga@firm.pl", "Corp", Position.INTERN, 3000));
+
+            List<String> lastNames = employeeService.getEmployeesSortedByLastName().stream()
+                    .map(Employee::getLastName)
+                    .toList();
+
+            assertEquals(List.of("Lis", "Łukasik", "Mazur", "Szymańska", "Świątek", "Tracz"), lastNames);
+        }
+
+        @Test
+        @DisplayName("should order employees with the same last name by email")
+        void shouldOrderByEmail_whenLastNamesAreEqual() {
+            employeeService.addEmployee(new Employee("Jan", "Nowak", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            List<Employee> sorted = employeeService.getEmployeesSortedByLastName();
+
+            assertEquals(2, sorted.size());
+            assertEquals("anna@firm.pl", sorted.get(0).getEmail());
+        }
+
+        @Test
+        @DisplayName("should keep order after employee last name is updated")
+        void shouldReflectUpdatedLastName_whenEmployeeIsUpdated() {
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+
+            employeeService.updateEmployee("anna@firm.pl",
+                    new Employee("Anna", "Adamska", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+
+            List<String> lastNames = employeeService.getEmployeesSortedByLastName().stream()
+                    .map(Employee::getLastName)
+                    .toList();
+            assertEquals(List.of("Adamska", "Kowalski"), lastNames);
+        }
+    }
+
+    // WYSZUKIWANIE PO PREFIKSIE NAZWISKA
+
+    @Nested
+    @DisplayName("findEmployeesByLastNamePrefix() tests")
+    class LastNamePrefixTests {
+
+        @BeforeEach
+        void addEmployees() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Ewa", "Kamińska", "ewa@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Olaf", "Köhler", "olaf@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Adam", "Ko", "adam@firm.pl", "Corp", Position.INTERN, 3000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "Corp", Position.MANAGER, 12000));
+            employeeService.addEmployee(new Employee("Piotr", "Jankowski", "piotr@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Leon", "Łukasik", "leon@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Lena", "Lis", "lena@firm.pl", "Corp", Position.DEVELOPER, 9000));
+        }
+
+        @Test
+        @DisplayName("should return last names starting with K in sorted order")
+        void shouldReturnSortedMatches_whenPrefixIsSingleLetter() {
+            List<String> lastNames = employeeService.findEmployeesByLastNamePrefix("K").stream()
+                    .map(Employee::getLastName)
+                    .toList();
+
+            assertEquals(List.of("Kamińska", "Ko", "Köhler", "Kowalski"), lastNames);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"ko", "KO", "Ko"})
+        @DisplayName("should ignore letter case and skip names differing only by diacritics")
+        void shouldMatchIgnoringCase_whenPrefixHasDifferentCase(String prefix) {
+            List<String> lastNames = employeeService.findEmployeesByLastNamePrefix(prefix).stream()
+                    .map(Employee::getLastName)
+                    .toList();
+
+            assertEquals(List.of("Ko", "Kowalski"), lastNames);
+        }
+
+        @Test
+        @DisplayName("should treat Ł as a separate letter from L")
+        void shouldTreatPolishLetterSeparately_whenSearchingByPrefix() {
+            assertEquals(List.of("Lis"), employeeService.findEmployeesByLastNamePrefix("L").stream()
+                    .map(Employee::getLastName).toList());
+            assertEquals(List.of("Łukasik"), employeeService.findEmployeesByLastNamePrefix("ł").stream()
+                    .map(Employee::getLastName).toList());
+        }
+
+        @Test
+        @DisplayName("should return empty list when no last name matches")
+        void shouldReturnEmptyList_whenNoLastNameMatches() {
+            assertTrue(employeeService.findEmployeesByLastNamePrefix("Z").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should not return deleted employees")
+        void shouldNotReturnEmployee_whenEmployeeDeleted() {
+            employeeService.deleteEmployee("jan@firm.pl");
+
+            List<String> lastNames = employeeService.findEmployeesByLastNamePrefix("Kow").stream()
+                    .map(Employee::getLastName)
+                    .toList();
+            assertTrue(lastNames.isEmpty());
+        }
+
+        @ParameterizedTest
+        @NullAndEmptySource
+        @ValueSource(strings = {"   "})
+        @DisplayName("should throw exception for null or blank prefix")
+        void shouldThrowException_whenPrefixIsNullOrBlank(String prefix) {
+            assertThrows(IllegalArgumentException.class, () -> employeeService.findEmployeesByLastNamePrefix(prefix));
+        }
     }
 
     // LICZENIE PRACOWNIKÓW NA STANOWISKACH
@@ -651,5 +941,180 @@ class EmployeeServiceTest {
 
             assertTrue(stats.get("TechCorp").getHighestPaidEmployee().contains(" "));
         }
+
+        @Test
+        @DisplayName("should return count, average, highest salary and top earner for single company")
+        void shouldReturnAllStatistics_forSingleCompany() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "TechCorp", Position.MANAGER, 12000));
+            employeeService.addEmployee(new Employee("Piotr", "Zieliński", "piotr@firm.pl", "DataCorp", Position.PRESIDENT, 30000));
+
+            CompanyStatistics stats = employeeService.getCompanyStatistics("TechCorp").orElseThrow();
+
+            assertEquals(2, stats.getEmployeeCount());
+            assertEquals(10500.0, stats.getAverageSalary(), 0.01);
+            assertEquals(12000.0, stats.getHighestSalary(), 0.01);
+            assertEquals("Anna Nowak", stats.getHighestPaidEmployee());
+        }
+
+        @Test
+        @DisplayName("should return empty Optional for unknown company")
+        void shouldReturnEmpty_whenCompanyDoesNotExist() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+
+            assertTrue(employeeService.getCompanyStatistics("NoSuchCorp").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should update top earner after highest paid employee is deleted")
+        void shouldUpdateTopEarner_whenHighestPaidEmployeeDeleted() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@firm.pl", "TechCorp", Position.MANAGER, 12000));
+
+            employeeService.deleteEmployee("anna@firm.pl");
+
+            CompanyStatistics stats = employeeService.getCompanyStatistics().get("TechCorp");
+            assertEquals("Jan Kowalski", stats.getHighestPaidEmployee());
+            assertEquals(9000.0, stats.getHighestSalary(), 0.01);
+            assertEquals(1, stats.getEmployeeCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Paginacja kursorem - getEmployeesPage")
+    class PaginationTests {
+
+        @BeforeEach
+        void addEmployees() {
+            employeeService.addEmployee(new Employee("Celina", "C", "celina@firm.pl", "TechCorp", Position.DEVELOPER, 8000));
+            employeeService.addEmployee(new Employee("Adam", "A", "Adam@firm.pl", "TechCorp", Position.DEVELOPER, 8000));
+            employeeService.addEmployee(new Employee("Bogdan", "B", "bogdan@firm.pl", "DataCorp", Position.MANAGER, 12000));
+            employeeService.addEmployee(new Employee("Dorota", "D", "dorota@firm.pl", "DataCorp", Position.INTERN, 3000));
+        }
+
+        @Test
+        @DisplayName("should return first page ordered by email")
+        void shouldReturnFirstPageOrderedByEmail_whenCursorIsNull() {
+            List<Employee> page = employeeService.getEmployeesPage(null, 3);
+
+            assertEquals(List.of("Adam@firm.pl", "bogdan@firm.pl", "celina@firm.pl"),
+                    page.stream().map(Employee::getEmail).toList());
+        }
+
+        @Test
+        @DisplayName("should continue after cursor regardless of letter case")
+        void shouldReturnEmployeesAfterCursor_ignoringCase() {
+            List<Employee> page = employeeService.getEmployeesPage("BOGDAN@firm.pl", 10);
+
+            assertEquals(List.of("celina@firm.pl", "dorota@firm.pl"),
+                    page.stream().map(Employee::getEmail).toList());
+        }
+
+        @Test
+        @DisplayName("should walk all employees page by page using cursor")
+        void shouldVisitEveryEmployeeOnce_whenFollowingCursor() {
+            List<String> visited = new ArrayList<>();
+            String cursor = null;
+            List<Employee> page;
+            do {
+                page = employeeService.getEmployeesPage(cursor, 3);
+                page.forEach(e -> visited.add(e.getEmail()));
+                if (!page.isEmpty()) {
+                    cursor = EmployeeService.pageCursor(page.get(page.size() - 1));
+                }
+            } while (page.size() == 3);
+
+            assertEquals(List.of("Adam@firm.pl", "bogdan@firm.pl", "celina@firm.pl", "dorota@firm.pl"), visited);
+        }
+
+        @Test
+        @DisplayName("should return empty page after last employee")
+        void shouldReturnEmptyPage_whenCursorIsLastEmployee() {
+            assertTrue(employeeService.getEmployeesPage("dorota@firm.pl", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("should reflect deleted and updated employees")
+        void shouldReflectChanges_whenEmployeesDeletedOrUpdated() {
+            employeeService.deleteEmployee("bogdan@firm.pl");
+            employeeService.updateEmployee("celina@firm.pl",
+                    new Employee("Celina", "C", "celina@firm.pl", "NewCorp", Position.MANAGER, 15000));
+
+            List<Employee> page = employeeService.getEmployeesPage(null, 10);
+
+            assertEquals(List.of("Adam@firm.pl", "celina@firm.pl", "dorota@firm.pl"),
+                    page.stream().map(Employee::getEmail).toList());
+            assertEquals("NewCorp", page.get(1).getCompany());
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, -1})
+        @DisplayName("should throw exception for non-positive limit")
+        void shouldThrowException_whenLimitIsNotPositive(int limit) {
+            assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesPage(null, limit));
+        }
+    }
+
+    @Nested
+    @DisplayName("data version tests")
+    class DataVersionTests {
+
+        @Test
+        @DisplayName("should change version on every kind of mutation")
+        void shouldChangeVersion_whenDataChanges() {
+            List<String> tags = new ArrayList<>();
+            tags.add(employeeService.getDataVersionTag());
+
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            tags.add(employeeService.getDataVersionTag());
+            employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.ON_LEAVE);
+            tags.add(employeeService.getDataVersionTag());
+            employeeService.updateEmployeePhoto("jan@firm.pl", "jan.png");
+            tags.add(employeeService.getDataVersionTag());
+            employeeService.updateEmployee("jan@firm.pl",
+                    new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.MANAGER, 12000));
+            tags.add(employeeService.getDataVersionTag());
+            employeeService.deleteEmployee("jan@firm.pl");
+            tags.add(employeeService.getDataVersionTag());
+
+            assertEquals(tags.size(), new HashSet<>(tags).size());
+        }
+
+        @Test
+        @DisplayName("should keep version when nothing changes")
+        void shouldKeepVersion_whenOperationChangesNothing() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.ON_LEAVE);
+            long version = employeeService.getDataVersion();
+
+            employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.ON_LEAVE);
+            employeeService.deleteEmployee("nobody@firm.pl");
+            assertThrows(DuplicateEmailException.class, () -> employeeService.addEmployee(
+                    new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000)));
+
+            assertEquals(version, employeeService.getDataVersion());
+        }
+
+        @Test
+        @DisplayName("should change only versions of affected companies")
+        void shouldChangeCompanyVersion_onlyForAffectedCompanies() {
+            employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "Corp", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Anna", "Nowak", "anna@other.pl", "Other", Position.DEVELOPER, 9000));
+            employeeService.addEmployee(new Employee("Ewa", "Lis", "ewa@third.pl", "Third", Position.DEVELOPER, 9000));
+            long corp = employeeService.getCompanyDataVersion("Corp");
+            long other = employeeService.getCompanyDataVersion("Other");
+            long third = employeeService.getCompanyDataVersion("Third");
+
+            employeeService.updateEmployeeStatus("anna@other.pl", EmploymentStatus.ON_LEAVE);
+            assertEquals(corp, employeeService.getCompanyDataVersion("Corp"));
+            assertTrue(employeeService.getCompanyDataVersion("Other") > other);
+
+            // przeniesienie pracownika zmienia obie firmy
+            employeeService.updateEmployee("jan@firm.pl",
+                    new Employee("Jan", "Kowalski", "jan@firm.pl", "Third", Position.DEVELOPER, 9000));
+            assertTrue(employeeService.getCompanyDataVersion("Corp") > corp);
+            assertTrue(employeeService.getCompanyDataVersion("Third") > third);
+            assertEquals(0, employeeService.getCompanyDataVersion("Unknown"));
+        }
     }
-}
\ No newline at end of file
+}
@@ -12,8 +12,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -548,6 +551,249 @@ class ImportServiceTest {
         }
     }
 
+    // IMPORT STRUMIENIOWY
+
+    @Nested
+    @DisplayName("Streaming CSV import from InputStream")
+    class StreamingImportTests {
+
+        @Test
+        @DisplayName("should import employees directly from input stream")
+        void shouldImportEmployees_whenReadingFromStream() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    "Jan,Kowalski,jan@firm.pl,TechCorp,DEVELOPER,9000\n" +
+                    "Anna,Nowak,anna@firm.pl,DataCorp,MANAGER,12000\n"));
+
+            assertEquals(2, summary.getImportedCount());
+            assertTrue(summary.getErrors().isEmpty());
+            assertTrue(employeeService.findEmployeeByEmail("anna@firm.pl").isPresent());
+        }
+
+        @Test
+        @DisplayName("should keep commas and escaped quotes inside quoted fields")
+        void shouldParseQuotedFields_whenFieldContainsCommaAndQuotes() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    "Jan,\"Kowalski, Jr.\",jan@firm.pl,\"Tech \"\"Corp\"\"\",DEVELOPER,9000\n"));
+
+            assertEquals(1, summary.getImportedCount());
+            Employee employee = employeeService.findEmployeeByEmail("jan@firm.pl").orElseThrow();
+            assertEquals("Kowalski, Jr.", employee.getLastName());
+            assertEquals("Tech \"Corp\"", employee.getCompany());
+        }
+
+        @Test
+        @DisplayName("should handle CRLF line endings")
+        void shouldHandleCrlfLineEndings() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\r\n" +
+                    "Jan,Kowalski,jan@firm.pl,TechCorp,DEVELOPER,9000\r\n" +
+                    "Anna,Nowak,anna@firm.pl,DataCorp,MANAGER,12000\r\n"));
+
+            assertEquals(2, summary.getImportedCount());
+            assertEquals(12000, employeeService.findEmployeeByEmail("anna@firm.pl").orElseThrow().getSalary());
+        }
+
+        @Test
+        @DisplayName("should report duplicate email with its line number and continue import")
+        void shouldReportDuplicateEmail_withLineNumber() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    "Jan,Kowalski,jan@firm.pl,TechCorp,DEVELOPER,9000\n" +
+                    "Janek,Kowalski,JAN@firm.pl,TechCorp,DEVELOPER,9500\n" +
+                    "Anna,Nowak,anna@firm.pl,DataCorp,MANAGER,12000\n"));
+
+            assertEquals(2, summary.getImportedCount());
+            assertEquals(List.of("Line 3: Duplicate email: JAN@firm.pl"), summary.getErrors());
+        }
+
+        @Test
+        @DisplayName("should count lines inside quoted multi-line field for later error line numbers")
+        void shouldKeepLineNumbers_whenQuotedFieldSpansLines() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    "Jan,Kowalski,jan@firm.pl,\"Tech\nCorp\",DEVELOPER,9000\n" +
+                    "Anna,Nowak,anna@firm.pl,DataCorp,INVALID,12000\n"));
+
+            assertEquals(1, summary.getImportedCount());
+            assertEquals(List.of("Line 4: Invalid position: INVALID"), summary.getErrors());
+        }
+
+        @Test
+        @DisplayName("should report errors in line order across batches")
+        void shouldReportErrorsInLineOrder_acrossBatches() {
+            StringBuilder csv = new StringBuilder("FirstName,LastName,Email,Company,Position,Salary\n");
+            for (int i = 0; i < 2500; i++) {
+                csv.append("Jan,Kowalski,jan").append(i).append("@firm.pl,TechCorp,DEVELOPER,9000\n");
+            }
+            csv.append("Jan,Kowalski,jan5@firm.pl,TechCorp,DEVELOPER,9000\n");
+            csv.append("Jan,Kowalski,bad@firm.pl,TechCorp,DEVELOPER,-1\n");
+
+            ImportSummary summary = importService.importFromCsv(csvStream(csv.toString()));
+
+            assertEquals(2500, summary.getImportedCount());
+            assertEquals(List.of(
+                    "Line 2502: Duplicate email: jan5@firm.pl",
+                    "Line 2503: Salary must be positive"), summary.getErrors());
+            assertEquals(2500, employeeService.getAllEmployees().size());
+        }
+
+        @Test
+        @DisplayName("should report unterminated quoted field as error")
+        void shouldAddError_whenQuotedFieldIsNotClosed() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    "Jan,Kowalski,jan@firm.pl,TechCorp,DEVELOPER,9000\n" +
+                    "Anna,\"Nowak,anna@firm.pl,DataCorp,MANAGER,12000\n"));
+
+            assertEquals(1, summary.getImportedCount());
+            assertEquals(List.of("Line 3: Unterminated quoted field"), summary.getErrors());
+        }
+
+        @Test
+        @DisplayName("should add error and continue when required field is blank")
+        void shouldAddError_whenRequiredFieldIsBlank() {
+            ImportSummary summary = importService.importFromCsv(csvStream(
+                    "FirstName,LastName,Email,Company,Position,Salary\n" +
+                    ",Kowalski,jan@firm.pl,TechCorp,DEVELOPER,9000\n" +
+                    "Anna,Nowak,anna@firm.pl,DataCorp,MANAGER,12000\n"));
+
+            assertEquals(1, summary.getImportedCount());
+            assertEquals(List.of("Line 2: First name cannot be null or blank"), summary.getErrors());
+        }
+
+        private InputStream csvStream(String content) {
+            return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // IMPORT XML
+
+    @Nested
+    @DisplayName("XML import")
+    class XmlImportTests {
+
+        @Test
+        @DisplayName("should import all employees from valid XML file")
+        void shouldImportEmployees_whenXmlIsValid() throws IOException {
+            Path xmlFile = createXmlFile(
+                    employeeXml("Jan", "Kowalski", "jan@firm.pl", "TechCorp", "DEVELOPER", "9000"),
+                    employeeXml("Anna", "Nowak", "anna@firm.pl", "DataCorp", "manager", " 12000.50 "));
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(2, summary.getImportedCount());
+            assertTrue(summary.getErrors().isEmpty());
+            Employee anna = employeeService.findEmployeeByEmail("anna@firm.pl").orElseThrow();
+            assertEquals(Position.MANAGER, anna.getPosition());
+            assertEquals(12000.50, anna.getSalary());
+        }
+
+        @Test
+        @DisplayName("should report invalid employees by element index and continue")
+        void shouldReportErrorsByElementIndex_andContinue() throws IOException {
+            Path xmlFile = createXmlFile(
+                    employeeXml("Jan", "Kowalski", "jan@firm.pl", "TechCorp", "DEVELOPER", "9000"),
+                    employeeXml("Anna", "Nowak", "anna@firm.pl", "DataCorp", "INVALID", "12000"),
+                    "<employee><firstName>Piotr</firstName><email>piotr@firm.pl</email></employee>",
+                    employeeXml("Ewa", "Lis", "ewa@firm.pl", "DataCorp", "INTERN", "abc"),
+                    employeeXml("Adam", "Wójcik", "adam@firm.pl", "DataCorp", "INTERN", "-5"),
+                    employeeXml("Jan", "Kowalski", "JAN@firm.pl", "TechCorp", "DEVELOPER", "9000"),
+                    employeeXml("Ola", "Nowak", "ola@firm.pl", "DataCorp", "INTERN", "3000"));
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(2, summary.getImportedCount());
+            assertEquals(List.of(
+                    "Line 2: Invalid position: INVALID",
+                    "Line 3: Missing required field in XML element",
+                    "Line 4: Invalid salary format: abc",
+                    "Line 5: Salary must be positive",
+                    "Line 6: Duplicate email: JAN@firm.pl"), summary.getErrors());
+        }
+
+        @Test
+        @DisplayName("should treat empty element as missing field")
+        void shouldAddError_whenFieldElementIsEmpty() throws IOException {
+            Path xmlFile = createXmlFile(
+                    employeeXml("Jan", "", "jan@firm.pl", "TechCorp", "DEVELOPER", "9000"));
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(0, summary.getImportedCount());
+            assertEquals(List.of("Line 1: Missing required field in XML element"), summary.getErrors());
+        }
+
+        @Test
+        @DisplayName("should read CDATA values and ignore comments")
+        void shouldReadCdataValues() throws IOException {
+            Path xmlFile = createXmlFile(
+                    "<employee><!-- nowy pracownik --><firstName><![CDATA[Jan]]></firstName>"
+                            + "<lastName>Kowalski</lastName><email>jan@firm.pl</email>"
+                            + "<company><![CDATA[Tech & Co]]></company><position>DEVELOPER</position>"
+                            + "<salary>9000</salary></employee>");
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(1, summary.getImportedCount());
+            assertEquals("Tech & Co", employeeService.findEmployeeByEmail("jan@firm.pl").orElseThrow().getCompany());
+        }
+
+        @Test
+        @DisplayName("should add file error when XML is malformed")
+        void shouldAddFileError_whenXmlIsMalformed() throws IOException {
+            Path xmlFile = tempDir.resolve("broken_" + System.nanoTime() + ".xml");
+            Files.writeString(xmlFile, "<employees><employee><firstName>Jan</firstName>");
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(0, summary.getImportedCount());
+            assertEquals(1, summary.getErrors().size());
+            assertTrue(summary.getErrors().get(0).startsWith("Line 0: Error reading XML file"));
+        }
+
+        @Test
+        @DisplayName("should import nothing when XML is truncated after valid employees")
+        void shouldImportNothing_whenXmlIsTruncatedAfterValidEmployees() throws IOException {
+            Path xmlFile = tempDir.resolve("truncated_" + System.nanoTime() + ".xml");
+            Files.writeString(xmlFile, "<employees>"
+                    + employeeXml("Jan", "Kowalski", "jan@firm.pl", "TechCorp", "DEVELOPER", "9000")
+                    + employeeXml("Anna", "Nowak", "anna@firm.pl", "DataCorp", "MANAGER", "12000")
+                    + "<employee><firstName>Piotr</firstName>");
+
+            ImportSummary summary = importService.importFromXml(xmlFile.toString());
+
+            assertEquals(0, summary.getImportedCount());
+            assertEquals(1, summary.getErrors().size());
+            assertTrue(summary.getErrors().get(0).startsWith("Line 0: Error reading XML file"));
+            assertTrue(employeeService.getAllEmployees().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should add file error when XML file does not exist")
+        void shouldAddFileError_whenXmlFileDoesNotExist() {
+            ImportSummary summary = importService.importFromXml(tempDir.resolve("missing.xml").toString());
+
+            assertEquals(0, summary.getImportedCount());
+            assertTrue(summary.getErrors().get(0).startsWith("Line 0: Error reading XML file"));
+        }
+
+        private String employeeXml(String firstName, String lastName, String email,
+                                   String company, String position, String salary) {
+            return "<employee><firstName>" + firstName + "</firstName><lastName>" + lastName + "</lastName>"
+                    + "<email>" + email + "</email><company>" + company + "</company>"
+                    + "<position>" + position + "</position><salary>" + salary + "</salary></employee>";
+        }
+
+        private Path createXmlFile(String... employees) throws IOException {
+            Path xmlFile = tempDir.resolve("test_" + System.nanoTime() + ".xml");
+            Files.writeString(xmlFile, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<employees>\n"
+                    + String.join("\n", employees) + "\n</employees>\n");
+            return xmlFile;
+        }
+    }
+
     // PODSUMOWANIE IMPORTU
 
     @Nested
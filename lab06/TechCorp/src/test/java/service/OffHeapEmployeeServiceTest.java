@@ -0,0 +1,39 @@
+package service;
+
+import com.techcorp.employee.model.Employee;
+import com.techcorp.employee.model.EmploymentStatus;
+import com.techcorp.employee.model.Position;
+import com.techcorp.employee.service.EmployeeService;
+import com.techcorp.employee.service.OffHeapEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testy EmployeeServiceTest uruchomione dla trybu app.storage=offheap -
+ * oba magazyny muszą zwracać te same wyniki.
+ */
+class OffHeapEmployeeServiceTest extends EmployeeServiceTest {
+
+    @Override
+    EmployeeService createEmployeeService() {
+        return new OffHeapEmployeeService(64 * 1024);
+    }
+
+    @Test
+    @DisplayName("should keep stored data when returned copy is modified")
+    void shouldKeepStoredData_whenReturnedCopyIsModified() {
+        employeeService.addEmployee(new Employee("Jan", "Kowalski", "jan@firm.pl", "TechCorp", Position.DEVELOPER, 9000));
+
+        Employee copy = employeeService.findEmployeeByEmail("jan@firm.pl").orElseThrow();
+        copy.setStatus(EmploymentStatus.TERMINATED);
+        long version = employeeService.getDataVersion();
+
+        assertEquals(EmploymentStatus.ACTIVE, employeeService.findEmployeeByEmail("JAN@firm.pl").orElseThrow().getStatus());
+        employeeService.updateEmployeeStatus("jan@firm.pl", EmploymentStatus.TERMINATED);
+        assertEquals(EmploymentStatus.TERMINATED, employeeService.findEmployeeByEmail("jan@firm.pl").orElseThrow().getStatus());
+        assertEquals(1, employeeService.findEmployeesByStatus(EmploymentStatus.TERMINATED).size());
+        assertTrue(employeeService.getDataVersion() > version);
+    }
+}